@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insert of 10k rows through a BATCH session, as a JDBC batch and as multi-row inserts of 100 and 1000 rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+  private static final int ROWS = 10000;
+
+  @Param({ "0", "100", "1000" })
+  public int multiRowInsertMaxRows;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private List<Post> posts;
+
+  @Setup
+  public void setUp() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(multiRowInsertMaxRows);
+    posts = new ArrayList<Post>();
+    for (int i = 1; i <= ROWS; i++) {
+      Post post = new Post();
+      post.setId(i);
+      post.setAuthorId(i % BenchmarkDatabase.AUTHORS + 1);
+      post.setSubject("Subject " + i);
+      post.setBody("Body of batched post " + i);
+      posts.add(post);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.close(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public int insert() {
+    SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      BenchmarkMapper mapper = session.getMapper(BenchmarkMapper.class);
+      for (Post post : posts) {
+        mapper.insertPostLog(post);
+      }
+      int statements = session.flushStatements().get(0).getBatchCount();
+      session.rollback(true);
+      return statements;
+    } finally {
+      session.close();
+    }
+  }
+
+}
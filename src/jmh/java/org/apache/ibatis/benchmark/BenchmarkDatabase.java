@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Builds the {@link SqlSessionFactory} shared by the benchmarks and fills an in-memory HSQLDB database with
+ * {@link #AUTHORS} authors of {@link #POSTS_PER_AUTHOR} posts each.
+ */
+public final class BenchmarkDatabase {
+
+  public static final int AUTHORS = 100;
+  public static final int POSTS_PER_AUTHOR = 100;
+  public static final int POSTS = AUTHORS * POSTS_PER_AUTHOR;
+
+  private BenchmarkDatabase() {
+  }
+
+  public static SqlSessionFactory createSqlSessionFactory() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/benchmark/mybatis-config.xml");
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      Connection conn = session.getConnection();
+      reader = Resources.getResourceAsReader("org/apache/ibatis/benchmark/CreateDB.sql");
+      ScriptRunner runner = new ScriptRunner(conn);
+      runner.setLogWriter(null);
+      runner.runScript(reader);
+      reader.close();
+      populate(conn);
+      conn.commit();
+    } finally {
+      session.close();
+    }
+    return sqlSessionFactory;
+  }
+
+  public static void close(SqlSessionFactory sqlSessionFactory) {
+    ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).forceCloseAll();
+  }
+
+  private static void populate(Connection conn) throws Exception {
+    PreparedStatement author = conn.prepareStatement("insert into author (id, username, email, bio) values (?, ?, ?, ?)");
+    PreparedStatement post = conn.prepareStatement(
+        "insert into post (id, author_id, subject, body, created_on, draft) values (?, ?, ?, ?, ?, ?)");
+    try {
+      int postId = 0;
+      for (int authorId = 1; authorId <= AUTHORS; authorId++) {
+        author.setInt(1, authorId);
+        author.setString(2, "author" + authorId);
+        author.setString(3, "author" + authorId + "@example.com");
+        author.setString(4, "Biography of author " + authorId);
+        author.addBatch();
+        for (int i = 0; i < POSTS_PER_AUTHOR; i++) {
+          post.setInt(1, ++postId);
+          post.setInt(2, authorId);
+          post.setString(3, "Subject " + postId);
+          post.setString(4, "Body of post " + postId + " written by author " + authorId);
+          post.setTimestamp(5, new Timestamp(1500000000000L + postId * 60000L));
+          post.setBoolean(6, postId % 10 == 0);
+          post.addBatch();
+        }
+      }
+      author.executeBatch();
+      post.executeBatch();
+    } finally {
+      author.close();
+      post.close();
+    }
+  }
+
+}
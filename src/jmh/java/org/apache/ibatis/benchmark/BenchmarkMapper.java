@@ -0,0 +1,36 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
+public interface BenchmarkMapper {
+
+  Post selectPost(int id);
+
+  Post selectCachedPost(int id);
+
+  List<Post> selectPosts();
+
+  List<Author> selectAuthorsWithPosts(int maxAuthorId);
+
+  List<Post> selectPostsByIds(@Param("ids") List<Integer> ids, @Param("draft") Boolean draft);
+
+  int insertPostLog(Post post);
+
+}
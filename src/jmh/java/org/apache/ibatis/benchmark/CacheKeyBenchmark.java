@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building a {@link CacheKey} the way {@link org.apache.ibatis.executor.BaseExecutor#createCacheKey}
+ * does and of looking it up in a map, and of building it with the executor itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+  private static final String STATEMENT_ID = "org.apache.ibatis.benchmark.BenchmarkMapper.selectPostsByIds";
+  private static final String SQL = "select id, author_id, subject, body, created_on, draft from post WHERE id in (?, ?, ?)";
+
+  @Param({ "1", "10", "100" })
+  public int parameters;
+
+  private Object[] values;
+  private SqlSessionFactory sqlSessionFactory;
+  private Executor executor;
+  private MappedStatement mappedStatement;
+  private Map<String, Object> parameter;
+  private BoundSql boundSql;
+  private Map<CacheKey, Object> cache;
+
+  @Setup
+  public void setUp() throws Exception {
+    values = new Object[parameters];
+    for (int i = 0; i < parameters; i++) {
+      values[i] = i % 2 == 0 ? (Object) Integer.valueOf(i) : "value" + i;
+    }
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    executor = new SimpleExecutor(configuration, null);
+    mappedStatement = configuration.getMappedStatement("org.apache.ibatis.benchmark.BenchmarkMapper.selectPostsByIds");
+    List<Integer> ids = new ArrayList<Integer>();
+    for (int i = 1; i <= parameters; i++) {
+      ids.add(i);
+    }
+    parameter = new HashMap<String, Object>();
+    parameter.put("ids", ids);
+    parameter.put("draft", null);
+    boundSql = mappedStatement.getBoundSql(parameter);
+    cache = new HashMap<CacheKey, Object>();
+    cache.put(createCacheKey(), Boolean.TRUE);
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.close(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public CacheKey create() {
+    return createCacheKey();
+  }
+
+  @Benchmark
+  public Object lookup() {
+    return cache.get(createCacheKey());
+  }
+
+  @Benchmark
+  public CacheKey createWithExecutor() {
+    return executor.createCacheKey(mappedStatement, parameter, RowBounds.DEFAULT, boundSql);
+  }
+
+  private CacheKey createCacheKey() {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(STATEMENT_ID);
+    cacheKey.update(RowBounds.DEFAULT.getOffset());
+    cacheKey.update(RowBounds.DEFAULT.getLimit());
+    cacheKey.update(SQL);
+    for (Object value : values) {
+      cacheKey.update(value);
+    }
+    cacheKey.update("benchmark");
+    return cacheKey;
+  }
+
+}
@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout and return of a pooled connection by concurrent threads, which exercises
+ * {@code popConnection} and {@code pushConnection}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class DataSourceBenchmark {
+
+  @Param({ "POOLED", "CONCURRENT_POOLED" })
+  public String type;
+
+  private PooledDataSource dataSource;
+
+  @Setup
+  public void setUp() throws Exception {
+    if ("POOLED".equals(type)) {
+      dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:datasourcebenchmark", "sa", "");
+    } else {
+      dataSource = new ConcurrentPooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:datasourcebenchmark", "sa", "");
+    }
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setPoolMaximumIdleConnections(4);
+  }
+
+  @TearDown
+  public void tearDown() {
+    dataSource.forceCloseAll();
+  }
+
+  @Benchmark
+  public boolean getConnection() throws Exception {
+    Connection connection = dataSource.getConnection();
+    try {
+      return connection.getAutoCommit();
+    } finally {
+      connection.close();
+    }
+  }
+
+}
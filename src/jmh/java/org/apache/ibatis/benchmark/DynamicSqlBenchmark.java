@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link org.apache.ibatis.scripting.xmltags.DynamicSqlSource#getBoundSql(Object)} for a foreach heavy
+ * statement, without executing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicSqlBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int size;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private MappedStatement mappedStatement;
+  private Map<String, Object> parameter;
+
+  @Setup
+  public void setUp() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    mappedStatement = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.benchmark.BenchmarkMapper.selectPostsByIds");
+    List<Integer> ids = new ArrayList<Integer>();
+    for (int i = 1; i <= size; i++) {
+      ids.add(i);
+    }
+    parameter = new HashMap<String, Object>();
+    parameter.put("ids", ids);
+    parameter.put("draft", Boolean.FALSE);
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.close(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public BoundSql getBoundSql() {
+    return mappedStatement.getBoundSql(parameter);
+  }
+
+}
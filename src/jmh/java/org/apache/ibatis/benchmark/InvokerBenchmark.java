@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.JavassistInvokerFactory;
+import org.apache.ibatis.reflection.invoker.ReflectionInvokerFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property access through the invokers of a {@link Reflector}, directly and through {@link MetaObject}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+  @Param({ "reflection", "javassist" })
+  public String invokers;
+
+  private final Post post = new Post();
+  private final Object[] subject = new Object[] { "subject" };
+  private final Object[] id = new Object[] { 1 };
+  private Invoker subjectGetter;
+  private Invoker subjectSetter;
+  private Invoker idSetter;
+  private MetaObject metaObject;
+
+  @Setup
+  public void setUp() {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory(
+        "javassist".equals(invokers) ? new JavassistInvokerFactory() : new ReflectionInvokerFactory());
+    Reflector reflector = reflectorFactory.findForClass(Post.class);
+    subjectGetter = reflector.getGetInvoker("subject");
+    subjectSetter = reflector.getSetInvoker("subject");
+    idSetter = reflector.getSetInvoker("id");
+    metaObject = MetaObject.forObject(post, new DefaultObjectFactory(), new DefaultObjectWrapperFactory(), reflectorFactory);
+  }
+
+  @Benchmark
+  public Object invokeGetter() throws Exception {
+    return subjectGetter.invoke(post, null);
+  }
+
+  @Benchmark
+  public Object invokeSetters() throws Exception {
+    subjectSetter.invoke(post, subject);
+    return idSetter.invoke(post, id);
+  }
+
+  @Benchmark
+  public Object metaObjectGetValue() {
+    return metaObject.getValue("subject");
+  }
+
+  @Benchmark
+  public void metaObjectSetValue() {
+    metaObject.setValue("id", 1);
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per query cost of the plugins: creating the statement handler, which also creates the parameter and result set
+ * handlers, and a whole select. The plugins intercept {@link StatementHandler#prepare}, so only the statement
+ * handler is wrapped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PluginBenchmark {
+
+  @Param({ "0", "1", "5" })
+  public int plugins;
+
+  @Param({ "false", "true" })
+  public boolean fused;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+  private MappedStatement mappedStatement;
+  private BoundSql boundSql;
+  private int nextId;
+
+  @Setup
+  public void setUp() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    configuration = sqlSessionFactory.getConfiguration();
+    configuration.setFusedPlugins(fused);
+    for (int i = 0; i < plugins; i++) {
+      configuration.addInterceptor(new PassThroughInterceptor());
+    }
+    mappedStatement = configuration.getMappedStatement("org.apache.ibatis.benchmark.BenchmarkMapper.selectPost");
+    boundSql = mappedStatement.getBoundSql(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.close(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public StatementHandler newStatementHandler() {
+    return configuration.newStatementHandler(null, mappedStatement, 1, RowBounds.DEFAULT, null, boundSql);
+  }
+
+  @Benchmark
+  public Post selectOne() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      nextId = nextId % BenchmarkDatabase.POSTS + 1;
+      return session.getMapper(BenchmarkMapper.class).selectPost(nextId);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }) })
+  public static class PassThroughInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of storing and reading back a list of 100 posts in a read-write cache with each codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializedCacheBenchmark {
+
+  private static final int POSTS = 100;
+
+  @Param({ "JAVA", "BINARY" })
+  public String codec;
+
+  private SerializedCache cache;
+  private List<Post> posts;
+
+  @Setup
+  public void setUp() {
+    cache = new SerializedCache(new PerpetualCache("benchmark"));
+    cache.setCodec(codec);
+    posts = new ArrayList<Post>();
+    for (int i = 1; i <= POSTS; i++) {
+      Post post = new Post();
+      post.setId(i);
+      post.setAuthorId(i % 10);
+      post.setSubject("Subject " + i);
+      post.setBody("Body of post " + i + " that is a little longer than its subject");
+      post.setCreatedOn(new Date(1500000000000L + i));
+      post.setDraft(i % 3 == 0);
+      posts.add(post);
+    }
+    cache.putObject("posts", posts);
+  }
+
+  @Benchmark
+  public void putObject() {
+    cache.putObject("put", posts);
+  }
+
+  @Benchmark
+  public Object getObject() {
+    return cache.getObject("posts");
+  }
+
+}
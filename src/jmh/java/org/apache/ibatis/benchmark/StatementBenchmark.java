@@ -0,0 +1,155 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end cost of the statements, from opening the session to closing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+  private static final int FOREACH_SIZE = 100;
+  private static final int BATCH_SIZE = 1000;
+  private static final int NESTED_AUTHORS = 10;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private List<Integer> ids;
+  private List<Post> batch;
+  private int nextId;
+
+  @Setup
+  public void setUp() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    ids = new ArrayList<Integer>();
+    for (int i = 1; i <= FOREACH_SIZE; i++) {
+      ids.add(i * 37);
+    }
+    batch = new ArrayList<Post>();
+    for (int i = 1; i <= BATCH_SIZE; i++) {
+      Post post = new Post();
+      post.setId(i);
+      post.setAuthorId(i % BenchmarkDatabase.AUTHORS + 1);
+      post.setSubject("Subject " + i);
+      post.setBody("Body of batched post " + i);
+      batch.add(post);
+    }
+    // the cache entry is only visible to other sessions once committed
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      session.getMapper(BenchmarkMapper.class).selectCachedPost(1);
+      session.commit();
+    } finally {
+      session.close();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.close(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public Post selectOne() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      nextId = nextId % BenchmarkDatabase.POSTS + 1;
+      return session.getMapper(BenchmarkMapper.class).selectPost(nextId);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Benchmark
+  public List<Post> selectList10k() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      return session.getMapper(BenchmarkMapper.class).selectPosts();
+    } finally {
+      session.close();
+    }
+  }
+
+  @Benchmark
+  public List<Author> selectNestedResultMap() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      return session.getMapper(BenchmarkMapper.class).selectAuthorsWithPosts(NESTED_AUTHORS);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Benchmark
+  public List<Post> selectForeach() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      return session.getMapper(BenchmarkMapper.class).selectPostsByIds(ids, Boolean.FALSE);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Benchmark
+  public int batchInsert() {
+    SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      BenchmarkMapper mapper = session.getMapper(BenchmarkMapper.class);
+      for (Post post : batch) {
+        mapper.insertPostLog(post);
+      }
+      int statements = session.flushStatements().size();
+      session.rollback(true);
+      return statements;
+    } finally {
+      session.close();
+    }
+  }
+
+  @Benchmark
+  public Post secondLevelCacheHit() {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      return session.getMapper(BenchmarkMapper.class).selectCachedPost(1);
+    } finally {
+      session.close();
+    }
+  }
+
+}
@@ -134,6 +134,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .readWrite(readWrite)
         .blocking(blocking)
         .properties(props)
+        .statsCounter(configuration.getCacheStatsCounter(currentNamespace))
         .build();
     configuration.addCache(cache);
     currentCache = cache;
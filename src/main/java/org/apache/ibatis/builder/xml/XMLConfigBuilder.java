@@ -22,6 +22,7 @@ import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.cache.StatsCounterFactory;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
@@ -242,6 +243,8 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
     configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
+    configuration.setLazyLoadBatchSize(integerValueOf(props.getProperty("lazyLoadBatchSize"), 0));
+    configuration.setNestedQueryThreads(integerValueOf(props.getProperty("nestedQueryThreads"), 0));
     configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
     configuration.setUseColumnLabel(booleanValueOf(props.getProperty("useColumnLabel"), true));
     configuration.setUseGeneratedKeys(booleanValueOf(props.getProperty("useGeneratedKeys"), false));
@@ -261,6 +264,17 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setUseCompiledRowMappers(booleanValueOf(props.getProperty("useCompiledRowMappers"), false));
+    configuration.setCompileDynamicSql(booleanValueOf(props.getProperty("compileDynamicSql"), false));
+    configuration.setParsedSqlCacheSize(integerValueOf(props.getProperty("parsedSqlCacheSize"), 0));
+    configuration.setMultiStatementBatch(booleanValueOf(props.getProperty("multiStatementBatch"), false));
+    configuration.setBatchMaxRows(integerValueOf(props.getProperty("batchMaxRows"), 0));
+    configuration.setBatchMaxBytes(Long.valueOf(props.getProperty("batchMaxBytes", "0")));
+    configuration.setMultiRowInsertMaxRows(integerValueOf(props.getProperty("multiRowInsertMaxRows"), 0));
+    configuration.setReuseExecutorMaxStatements(integerValueOf(props.getProperty("reuseExecutorMaxStatements"), 0));
+    configuration.setFusedPlugins(booleanValueOf(props.getProperty("fusedPlugins"), false));
+    configuration.setCursorPrefetchSize(integerValueOf(props.getProperty("cursorPrefetchSize"), 0));
+    configuration.setCacheStatsCounterFactory((StatsCounterFactory) createInstance(props.getProperty("cacheStatsCounterFactory")));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     @SuppressWarnings("unchecked")
     Class<? extends Log> logImpl = (Class<? extends Log>)resolveClass(props.getProperty("logImpl"));
@@ -0,0 +1,38 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Map;
+
+/**
+ * A cache that can put many objects at once, for less than the cost of putting them one by one.
+ * <p>
+ * The transactional cache puts the results of a session in the cache in one call on commit, decorators should
+ * implement this interface and pass the objects on with {@link CacheUtil#putObjects(Cache, Map)}.
+ *
+ * @since 3.4.7
+ */
+public interface BulkCache extends Cache {
+
+  /**
+   * Puts all the given objects, as {@link #putObject(Object, Object)} would do for each of them.
+   * The caller does not use the map afterwards, so it can be kept, but it must not be modified.
+   *
+   * @param objects the objects to put by key, values can be null
+   */
+  void putObjects(Map<Object, Object> objects);
+
+}
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Turns the objects stored by a read-write cache into bytes and back, see
+ * {@link org.apache.ibatis.cache.decorators.SerializedCache}.
+ * <p>
+ * Each call to {@link #decode(byte[])} must return a new copy of the encoded object graph. Implementations are
+ * shared by all the threads that use the cache and must be thread safe.
+ *
+ * @since 3.4.7
+ */
+public interface CacheCodec {
+
+  byte[] encode(Object value) throws Exception;
+
+  Object decode(byte[] bytes) throws Exception;
+
+}
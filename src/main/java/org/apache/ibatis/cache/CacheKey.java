@@ -15,45 +15,92 @@
  */
 package org.apache.ibatis.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.reflection.ArrayUtil;
 
 /**
+ * The components of the key are kept in an array sized for the expected number of updates, see
+ * {@link #CacheKey(int)}, and a key can be started from a shared prefix, see {@link #CacheKey(CacheKey, int)},
+ * whose hash and components are copied instead of being computed again.
+ *
  * @author Clinton Begin
  */
 public class CacheKey implements Cloneable, Serializable {
 
   private static final long serialVersionUID = 1146682552656046210L;
 
+  // keeps the serialized form of the keys written when the components were held in a list
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("multiplier", int.class),
+      new ObjectStreamField("hashcode", int.class),
+      new ObjectStreamField("checksum", long.class),
+      new ObjectStreamField("count", int.class),
+      new ObjectStreamField("updateList", List.class)
+  };
+
   public static final CacheKey NULL_CACHE_KEY = new NullCacheKey();
 
   private static final int DEFAULT_MULTIPLYER = 37;
   private static final int DEFAULT_HASHCODE = 17;
+  private static final int DEFAULT_CAPACITY = 8;
+  private static final Object[] EMPTY_UPDATES = new Object[0];
 
-  private final int multiplier;
   private int hashcode;
   private long checksum;
   private int count;
-  // 8/21/2017 - Sonarlint flags this as needing to be marked transient.  While true if content is not serializable, this is not always true and thus should not be marked transient.
-  private List<Object> updateList;
+  private Object[] updates;
 
   public CacheKey() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param expectedUpdates
+   *          the number of updates the key is sized for, it grows if more are made
+   * @since 3.4.7
+   */
+  public CacheKey(int expectedUpdates) {
     this.hashcode = DEFAULT_HASHCODE;
-    this.multiplier = DEFAULT_MULTIPLYER;
     this.count = 0;
-    this.updateList = new ArrayList<Object>();
+    this.updates = expectedUpdates > 0 ? new Object[expectedUpdates] : EMPTY_UPDATES;
+  }
+
+  /**
+   * Creates a key that starts with the updates of another key.
+   * <p>
+   * The hash and the components of the prefix are copied as they are, so a prefix shared by many keys, for
+   * instance the statement, bounds and SQL of a query, is only hashed once and its components are the same
+   * instances in all the keys, which makes comparing them an identity check.
+   *
+   * @param prefix
+   *          the key whose updates are copied, it is not modified
+   * @param expectedUpdates
+   *          the number of updates expected after the prefix
+   * @since 3.4.7
+   */
+  public CacheKey(CacheKey prefix, int expectedUpdates) {
+    this.hashcode = prefix.hashcode;
+    this.checksum = prefix.checksum;
+    this.count = prefix.count;
+    this.updates = new Object[prefix.count + Math.max(expectedUpdates, 0)];
+    System.arraycopy(prefix.updates, 0, this.updates, 0, prefix.count);
   }
 
   public CacheKey(Object[] objects) {
-    this();
+    this(objects.length);
     updateAll(objects);
   }
 
   public int getUpdateCount() {
-    return updateList.size();
+    return count;
   }
 
   // count++
@@ -61,14 +108,41 @@ public class CacheKey implements Cloneable, Serializable {
   // hashcode = multiplier * hashcode + count * baseHashCode
   public void update(Object object) {
     int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object); 
+    add(baseHashCode, object);
+  }
+
+  /**
+   * Same as updating the key with the boxed value, without looking up the hash code of the boxed value.
+   * <p>
+   * It is not an overload of {@link #update(Object)}, which would also be picked for a {@code char}, {@code short}
+   * or {@code byte} and turn it into an {@code Integer}.
+   *
+   * @since 3.4.7
+   */
+  public void updateInt(int value) {
+    add(value, Integer.valueOf(value));
+  }
+
+  /**
+   * Same as updating the key with the boxed value, without looking up the hash code of the boxed value.
+   *
+   * @since 3.4.7
+   */
+  public void updateLong(long value) {
+    add((int) (value ^ (value >>> 32)), Long.valueOf(value));
+  }
 
+  private void add(int baseHashCode, Object object) {
     count++;
     checksum += baseHashCode;
     baseHashCode *= count;
 
-    hashcode = multiplier * hashcode + baseHashCode;
+    hashcode = DEFAULT_MULTIPLYER * hashcode + baseHashCode;
 
-    updateList.add(object);
+    if (count > updates.length) {
+      updates = Arrays.copyOf(updates, Math.max(DEFAULT_CAPACITY, count + (count >> 1)));
+    }
+    updates[count - 1] = object;
   }
 
   public void updateAll(Object[] objects) {
@@ -98,10 +172,10 @@ public class CacheKey implements Cloneable, Serializable {
       return false;
     }
 
-    for (int i = 0; i < updateList.size(); i++) {
-      Object thisObject = updateList.get(i);
-      Object thatObject = cacheKey.updateList.get(i);
-      if (!ArrayUtil.equals(thisObject, thatObject)) {
+    for (int i = 0; i < count; i++) {
+      Object thisObject = updates[i];
+      Object thatObject = cacheKey.updates[i];
+      if (thisObject != thatObject && !ArrayUtil.equals(thisObject, thatObject)) {
         return false;
       }
     }
@@ -116,8 +190,8 @@ public class CacheKey implements Cloneable, Serializable {
   @Override
   public String toString() {
     StringBuilder returnValue = new StringBuilder().append(hashcode).append(':').append(checksum);
-    for (Object object : updateList) {
-      returnValue.append(':').append(ArrayUtil.toString(object));
+    for (int i = 0; i < count; i++) {
+      returnValue.append(':').append(ArrayUtil.toString(updates[i]));
     }
     return returnValue.toString();
   }
@@ -125,8 +199,27 @@ public class CacheKey implements Cloneable, Serializable {
   @Override
   public CacheKey clone() throws CloneNotSupportedException {
     CacheKey clonedCacheKey = (CacheKey) super.clone();
-    clonedCacheKey.updateList = new ArrayList<Object>(updateList);
+    clonedCacheKey.updates = Arrays.copyOf(updates, count);
     return clonedCacheKey;
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("multiplier", DEFAULT_MULTIPLYER);
+    fields.put("hashcode", hashcode);
+    fields.put("checksum", checksum);
+    fields.put("count", count);
+    fields.put("updateList", new ArrayList<Object>(Arrays.asList(updates).subList(0, count)));
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    hashcode = fields.get("hashcode", DEFAULT_HASHCODE);
+    checksum = fields.get("checksum", 0L);
+    List<?> updateList = (List<?>) fields.get("updateList", null);
+    updates = updateList == null ? EMPTY_UPDATES : updateList.toArray();
+    count = updates.length;
+  }
+
 }
@@ -0,0 +1,122 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * The statistics of a cache at a point in time, see {@link StatsCounter}.
+ *
+ * @since 3.4.7
+ */
+public final class CacheStats {
+
+  private final long hitCount;
+  private final long missCount;
+  private final long putCount;
+  private final long evictionCount;
+  private final long loadCount;
+  private final long totalLoadTime;
+  private final long size;
+  private final long weight;
+
+  /**
+   * @param totalLoadTime the time spent loading missed values, in nanoseconds
+   * @param size the number of entries, or -1 if unknown
+   * @param weight the estimated size of the entries in bytes, or -1 if unknown
+   */
+  public CacheStats(long hitCount, long missCount, long putCount, long evictionCount, long loadCount, long totalLoadTime,
+      long size, long weight) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.putCount = putCount;
+    this.evictionCount = evictionCount;
+    this.loadCount = loadCount;
+    this.totalLoadTime = totalLoadTime;
+    this.size = size;
+    this.weight = weight;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getRequestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * Returns the ratio of requests that were hits, or 1 if there was no request.
+   */
+  public double getHitRatio() {
+    long requestCount = getRequestCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  public long getPutCount() {
+    return putCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public long getLoadCount() {
+    return loadCount;
+  }
+
+  /**
+   * Returns the time spent loading missed values, in nanoseconds.
+   */
+  public long getTotalLoadTime() {
+    return totalLoadTime;
+  }
+
+  /**
+   * Returns the average time spent loading a missed value, in nanoseconds.
+   */
+  public double getAverageLoadTime() {
+    return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+  }
+
+  /**
+   * Returns the number of entries, or -1 if unknown.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the estimated size of the entries in bytes, or -1 if unknown.
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  public CacheStats withSize(long size) {
+    return new CacheStats(hitCount, missCount, putCount, evictionCount, loadCount, totalLoadTime, size, weight);
+  }
+
+  @Override
+  public String toString() {
+    return "hits: " + hitCount + ", misses: " + missCount + ", hit ratio: " + getHitRatio() + ", puts: " + putCount
+        + ", evictions: " + evictionCount + ", loads: " + loadCount + ", total load time: " + totalLoadTime
+        + "ns, size: " + size + ", weight: " + weight;
+  }
+
+}
@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Map;
+
+/**
+ * @since 3.4.7
+ */
+public final class CacheUtil {
+
+  private CacheUtil() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Puts the given objects in the cache at once if it is a {@link BulkCache}, or one by one otherwise.
+   */
+  public static void putObjects(Cache cache, Map<Object, Object> objects) {
+    if (cache instanceof BulkCache) {
+      ((BulkCache) cache).putObjects(objects);
+    } else {
+      for (Map.Entry<Object, Object> entry : objects.entrySet()) {
+        cache.putObject(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+}
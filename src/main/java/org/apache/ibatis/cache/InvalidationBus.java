@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Broadcasts the invalidations of a cache to the other nodes that keep a near copy of it, see
+ * {@link org.apache.ibatis.cache.impl.TwoTierCache}.
+ * <p>
+ * A message is delivered to every listener subscribed to the cache id, including the one that published it, which
+ * recognizes its own messages by their source. Keys are sent as they are, so an implementation that crosses the
+ * process boundary must serialize them ({@link CacheKey} is serializable). Implementations must be thread safe.
+ *
+ * @since 3.4.7
+ */
+public interface InvalidationBus {
+
+  /**
+   * @param cacheId the id of the cache, its namespace
+   * @param source the id of the node that invalidated the entry
+   * @param key the invalidated key, or {@code null} if the whole cache was cleared
+   */
+  void publish(String cacheId, String source, Object key);
+
+  void subscribe(String cacheId, Listener listener);
+
+  void unsubscribe(String cacheId, Listener listener);
+
+  interface Listener {
+
+    /**
+     * @param source the id of the node that invalidated the entry
+     * @param key the invalidated key, or {@code null} if the whole cache was cleared
+     */
+    void onInvalidation(String source, Object key);
+
+  }
+
+}
@@ -0,0 +1,54 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Records the statistics of a cache.
+ * <p>
+ * A counter is created for each cache by the {@link StatsCounterFactory} of the configuration and is shared by all the
+ * decorators of the cache: {@link org.apache.ibatis.cache.decorators.LoggingCache} records the hits, misses and puts,
+ * the caches that evict entries record the evictions and weight, and the executors record the time spent loading
+ * missed values. An implementation can publish the statistics to a metrics library as they are recorded, it must be
+ * thread safe.
+ *
+ * @since 3.4.7
+ */
+public interface StatsCounter {
+
+  void recordHits(int count);
+
+  void recordMisses(int count);
+
+  void recordPuts(int count);
+
+  void recordEviction();
+
+  /**
+   * @param loadTime the time spent loading a missed value, in nanoseconds
+   */
+  void recordLoad(long loadTime);
+
+  /**
+   * @param weight the current estimated size of the entries in bytes
+   */
+  void recordWeight(long weight);
+
+  /**
+   * Returns the statistics recorded so far, with a size of -1.
+   */
+  CacheStats snapshot();
+
+}
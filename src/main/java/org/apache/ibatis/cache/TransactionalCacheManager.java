@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.cache;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,6 +32,13 @@ public class TransactionalCacheManager {
     getTransactionalCache(cache).clear();
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public void invalidate(Cache cache, Collection<String> tags) {
+    getTransactionalCache(cache).invalidate(tags);
+  }
+
   public Object getObject(Cache cache, CacheKey key) {
     return getTransactionalCache(cache).getObject(key);
   }
@@ -0,0 +1,647 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.cache.CacheCodec;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * Copies the cached objects with a compact binary format that is faster to write and read than Java serialization.
+ * <p>
+ * Strings, boxed primitives, big numbers, dates, enums, arrays of objects and bytes, {@link ArrayList},
+ * {@link LinkedList}, {@link HashSet}, {@link LinkedHashSet}, {@link HashMap}, {@link LinkedHashMap} and
+ * serializable beans are written without class descriptors, the name of each class is written once per value.
+ * A bean is an object whose classes all implement {@link Serializable} without customizing their serialization
+ * (no writeObject, readObject, writeReplace or readResolve method) and that has a constructor without arguments:
+ * it is copied by calling that constructor and setting its non transient fields. Any other object is written
+ * with Java serialization, so everything that {@link JavaSerializationCodec} can copy is copied.
+ * <p>
+ * Shared references and cycles are kept, except between an object written with Java serialization and the rest
+ * of the value. Values are only meant to be read back by the same class loader, there is no versioning of the
+ * format or of the classes.
+ *
+ * @since 3.4.7
+ */
+public class BinaryCodec implements CacheCodec {
+
+  // values that are not shared
+  private static final int NULL = 0;
+  private static final int REFERENCE = 1;
+  private static final int TRUE = 2;
+  private static final int FALSE = 3;
+  private static final int STRING = 4;
+  private static final int INTEGER = 5;
+  private static final int LONG = 6;
+  private static final int SHORT = 7;
+  private static final int BYTE = 8;
+  private static final int CHARACTER = 9;
+  private static final int FLOAT = 10;
+  private static final int DOUBLE = 11;
+  private static final int BIG_INTEGER = 12;
+  private static final int BIG_DECIMAL = 13;
+  private static final int ENUM = 14;
+  // values that are shared by identity from here on
+  private static final int DATE = 15;
+  private static final int SQL_DATE = 16;
+  private static final int SQL_TIME = 17;
+  private static final int SQL_TIMESTAMP = 18;
+  private static final int BYTE_ARRAY = 19;
+  private static final int OBJECT_ARRAY = 20;
+  private static final int ARRAY_LIST = 21;
+  private static final int LINKED_LIST = 22;
+  private static final int HASH_SET = 23;
+  private static final int LINKED_HASH_SET = 24;
+  private static final int HASH_MAP = 25;
+  private static final int LINKED_HASH_MAP = 26;
+  private static final int BEAN = 27;
+  private static final int SERIALIZED = 28;
+
+  private static final Map<Class<?>, Integer> TAGS = new HashMap<Class<?>, Integer>();
+
+  static {
+    TAGS.put(Boolean.class, TRUE);
+    TAGS.put(String.class, STRING);
+    TAGS.put(Integer.class, INTEGER);
+    TAGS.put(Long.class, LONG);
+    TAGS.put(Short.class, SHORT);
+    TAGS.put(Byte.class, BYTE);
+    TAGS.put(Character.class, CHARACTER);
+    TAGS.put(Float.class, FLOAT);
+    TAGS.put(Double.class, DOUBLE);
+    TAGS.put(BigInteger.class, BIG_INTEGER);
+    TAGS.put(BigDecimal.class, BIG_DECIMAL);
+    TAGS.put(Date.class, DATE);
+    TAGS.put(java.sql.Date.class, SQL_DATE);
+    TAGS.put(java.sql.Time.class, SQL_TIME);
+    TAGS.put(java.sql.Timestamp.class, SQL_TIMESTAMP);
+    TAGS.put(byte[].class, BYTE_ARRAY);
+    TAGS.put(ArrayList.class, ARRAY_LIST);
+    TAGS.put(LinkedList.class, LINKED_LIST);
+    TAGS.put(HashSet.class, HASH_SET);
+    TAGS.put(LinkedHashSet.class, LINKED_HASH_SET);
+    TAGS.put(HashMap.class, HASH_MAP);
+    TAGS.put(LinkedHashMap.class, LINKED_HASH_MAP);
+  }
+
+  private static final BeanInfo NOT_A_BEAN = new BeanInfo(null, new Field[0]);
+
+  private final ConcurrentMap<Class<?>, BeanInfo> beanInfos = new ConcurrentHashMap<Class<?>, BeanInfo>();
+
+  @Override
+  public byte[] encode(Object value) throws Exception {
+    Writer writer = new Writer();
+    writer.writeValue(value);
+    return writer.toByteArray();
+  }
+
+  @Override
+  public Object decode(byte[] bytes) throws Exception {
+    return new Reader(bytes).readValue();
+  }
+
+  private int tagOf(Class<?> type) {
+    Integer tag = TAGS.get(type);
+    if (tag != null) {
+      return tag;
+    }
+    if (Enum.class.isAssignableFrom(type)) {
+      return ENUM;
+    }
+    if (type.isArray()) {
+      return type.getComponentType().isPrimitive() ? SERIALIZED : OBJECT_ARRAY;
+    }
+    return getBeanInfo(type) != NOT_A_BEAN ? BEAN : SERIALIZED;
+  }
+
+  private BeanInfo getBeanInfo(Class<?> type) {
+    BeanInfo beanInfo = beanInfos.get(type);
+    if (beanInfo == null) {
+      beanInfo = createBeanInfo(type);
+      beanInfos.put(type, beanInfo);
+    }
+    return beanInfo;
+  }
+
+  private static BeanInfo createBeanInfo(Class<?> type) {
+    if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type)
+        || Proxy.isProxyClass(type)) {
+      return NOT_A_BEAN;
+    }
+    try {
+      List<Field> fields = new ArrayList<Field>();
+      for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+        if (!Serializable.class.isAssignableFrom(current) || customizesSerialization(current)) {
+          return NOT_A_BEAN;
+        }
+        for (Field field : current.getDeclaredFields()) {
+          int modifiers = field.getModifiers();
+          if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+            field.setAccessible(true);
+            fields.add(field);
+          }
+        }
+      }
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return new BeanInfo(constructor, fields.toArray(new Field[fields.size()]));
+    } catch (NoSuchMethodException e) {
+      return NOT_A_BEAN;
+    } catch (RuntimeException e) {
+      // a SecurityException, or the InaccessibleObjectException of JDK 9+ for the internals of java.*
+      return NOT_A_BEAN;
+    }
+  }
+
+  private static boolean customizesSerialization(Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      String name = method.getName();
+      if ("writeObject".equals(name) || "readObject".equals(name) || "readObjectNoData".equals(name)
+          || "writeReplace".equals(name) || "readResolve".equals(name)) {
+        return true;
+      }
+    }
+    for (Field field : type.getDeclaredFields()) {
+      if ("serialPersistentFields".equals(field.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Object enumValueOf(Class<?> type, String name) {
+    return Enum.valueOf((Class) type, name);
+  }
+
+  private static class BeanInfo {
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+
+    BeanInfo(Constructor<?> constructor, Field[] fields) {
+      this.constructor = constructor;
+      this.fields = fields;
+    }
+  }
+
+  private class Writer {
+    private final Map<Object, Integer> references = new IdentityHashMap<Object, Integer>();
+    private final Map<Class<?>, Integer> classes = new HashMap<Class<?>, Integer>();
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    void writeValue(Object value) throws Exception {
+      if (value == null) {
+        writeByte(NULL);
+        return;
+      }
+      int tag = tagOf(value.getClass());
+      if (tag >= DATE) {
+        Integer reference = references.get(value);
+        if (reference != null) {
+          writeByte(REFERENCE);
+          writeVarInt(reference);
+          return;
+        }
+        references.put(value, references.size());
+      }
+      if (tag == TRUE) {
+        writeByte((Boolean) value ? TRUE : FALSE);
+        return;
+      }
+      writeByte(tag);
+      switch (tag) {
+        case STRING:
+          writeString((String) value);
+          break;
+        case INTEGER:
+          writeSignedVarLong((Integer) value);
+          break;
+        case LONG:
+          writeSignedVarLong((Long) value);
+          break;
+        case SHORT:
+          writeSignedVarLong((Short) value);
+          break;
+        case BYTE:
+          writeByte((Byte) value);
+          break;
+        case CHARACTER:
+          writeVarInt((Character) value);
+          break;
+        case FLOAT:
+          writeFixedLong(Float.floatToRawIntBits((Float) value), 4);
+          break;
+        case DOUBLE:
+          writeFixedLong(Double.doubleToRawLongBits((Double) value), 8);
+          break;
+        case BIG_INTEGER:
+          writeBytes(((BigInteger) value).toByteArray());
+          break;
+        case BIG_DECIMAL:
+          writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+          writeSignedVarLong(((BigDecimal) value).scale());
+          break;
+        case ENUM:
+          writeClass(((Enum<?>) value).getDeclaringClass());
+          writeString(((Enum<?>) value).name());
+          break;
+        case DATE:
+        case SQL_DATE:
+        case SQL_TIME:
+          writeSignedVarLong(((Date) value).getTime());
+          break;
+        case SQL_TIMESTAMP:
+          writeSignedVarLong(((java.sql.Timestamp) value).getTime());
+          writeVarInt(((java.sql.Timestamp) value).getNanos());
+          break;
+        case BYTE_ARRAY:
+          writeBytes((byte[]) value);
+          break;
+        case OBJECT_ARRAY:
+          writeClass(value.getClass().getComponentType());
+          Object[] array = (Object[]) value;
+          writeVarInt(array.length);
+          for (Object element : array) {
+            writeValue(element);
+          }
+          break;
+        case ARRAY_LIST:
+        case LINKED_LIST:
+        case HASH_SET:
+        case LINKED_HASH_SET:
+          Collection<?> collection = (Collection<?>) value;
+          writeVarInt(collection.size());
+          for (Object element : collection) {
+            writeValue(element);
+          }
+          break;
+        case HASH_MAP:
+        case LINKED_HASH_MAP:
+          Map<?, ?> map = (Map<?, ?>) value;
+          writeVarInt(map.size());
+          for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(entry.getKey());
+            writeValue(entry.getValue());
+          }
+          break;
+        case BEAN:
+          writeClass(value.getClass());
+          writeFields(value, getBeanInfo(value.getClass()).fields);
+          break;
+        default:
+          ByteArrayOutputStream bos = new ByteArrayOutputStream();
+          ObjectOutputStream oos = new ObjectOutputStream(bos);
+          oos.writeObject(value);
+          oos.close();
+          writeBytes(bos.toByteArray());
+          break;
+      }
+    }
+
+    private void writeFields(Object bean, Field[] fields) throws Exception {
+      for (Field field : fields) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+          writeValue(field.get(bean));
+        } else if (type == int.class) {
+          writeSignedVarLong(field.getInt(bean));
+        } else if (type == long.class) {
+          writeSignedVarLong(field.getLong(bean));
+        } else if (type == boolean.class) {
+          writeByte(field.getBoolean(bean) ? 1 : 0);
+        } else if (type == double.class) {
+          writeFixedLong(Double.doubleToRawLongBits(field.getDouble(bean)), 8);
+        } else if (type == float.class) {
+          writeFixedLong(Float.floatToRawIntBits(field.getFloat(bean)), 4);
+        } else if (type == short.class) {
+          writeSignedVarLong(field.getShort(bean));
+        } else if (type == byte.class) {
+          writeByte(field.getByte(bean));
+        } else {
+          writeVarInt(field.getChar(bean));
+        }
+      }
+    }
+
+    private void writeClass(Class<?> type) {
+      Integer index = classes.get(type);
+      if (index != null) {
+        writeVarInt(index);
+      } else {
+        writeVarInt(classes.size());
+        writeString(type.getName());
+        classes.put(type, classes.size());
+      }
+    }
+
+    private void writeString(String value) {
+      int length = value.length();
+      writeVarInt(length);
+      ensureCapacity(length * 3);
+      for (int i = 0; i < length; i++) {
+        int c = value.charAt(i);
+        if (c < 0x80) {
+          buffer[position++] = (byte) c;
+        } else {
+          writeVarInt(c);
+        }
+      }
+    }
+
+    private void writeBytes(byte[] bytes) {
+      writeVarInt(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeVarInt(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeSignedVarLong(long value) {
+      ensureCapacity(10);
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+        zigzag >>>= 7;
+      }
+      buffer[position++] = (byte) zigzag;
+    }
+
+    private void writeFixedLong(long value, int bytes) {
+      ensureCapacity(bytes);
+      for (int i = 0; i < bytes; i++) {
+        buffer[position++] = (byte) (value >>> (i * 8));
+      }
+    }
+
+    private void ensureCapacity(int bytes) {
+      if (position + bytes > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+      }
+    }
+  }
+
+  private class Reader {
+    private final List<Object> references = new ArrayList<Object>();
+    private final List<Class<?>> classes = new ArrayList<Class<?>>();
+    private final byte[] buffer;
+    private int position;
+
+    Reader(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    Object readValue() throws Exception {
+      int tag = buffer[position++];
+      switch (tag) {
+        case NULL:
+          return null;
+        case REFERENCE:
+          return references.get(readVarInt());
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case STRING:
+          return readString();
+        case INTEGER:
+          return Integer.valueOf((int) readSignedVarLong());
+        case LONG:
+          return Long.valueOf(readSignedVarLong());
+        case SHORT:
+          return Short.valueOf((short) readSignedVarLong());
+        case BYTE:
+          return Byte.valueOf(buffer[position++]);
+        case CHARACTER:
+          return Character.valueOf((char) readVarInt());
+        case FLOAT:
+          return Float.valueOf(Float.intBitsToFloat((int) readFixedLong(4)));
+        case DOUBLE:
+          return Double.valueOf(Double.longBitsToDouble(readFixedLong(8)));
+        case BIG_INTEGER:
+          return new BigInteger(readBytes());
+        case BIG_DECIMAL:
+          return new BigDecimal(new BigInteger(readBytes()), (int) readSignedVarLong());
+        case ENUM:
+          return enumValueOf(readClass(), readString());
+        case DATE:
+          return register(new Date(readSignedVarLong()));
+        case SQL_DATE:
+          return register(new java.sql.Date(readSignedVarLong()));
+        case SQL_TIME:
+          return register(new java.sql.Time(readSignedVarLong()));
+        case SQL_TIMESTAMP:
+          java.sql.Timestamp timestamp = new java.sql.Timestamp(readSignedVarLong());
+          timestamp.setNanos(readVarInt());
+          return register(timestamp);
+        case BYTE_ARRAY:
+          return register(readBytes());
+        case OBJECT_ARRAY:
+          Class<?> componentType = readClass();
+          Object[] array = (Object[]) register(Array.newInstance(componentType, readVarInt()));
+          for (int i = 0; i < array.length; i++) {
+            array[i] = readValue();
+          }
+          return array;
+        case ARRAY_LIST:
+          int size = readVarInt();
+          return readElements(register(new ArrayList<Object>(size)), size);
+        case LINKED_LIST:
+          return readElements(register(new LinkedList<Object>()), readVarInt());
+        case HASH_SET:
+          size = readVarInt();
+          return readElements(register(new HashSet<Object>(capacity(size))), size);
+        case LINKED_HASH_SET:
+          size = readVarInt();
+          return readElements(register(new LinkedHashSet<Object>(capacity(size))), size);
+        case HASH_MAP:
+          size = readVarInt();
+          return readEntries(register(new HashMap<Object, Object>(capacity(size))), size);
+        case LINKED_HASH_MAP:
+          size = readVarInt();
+          return readEntries(register(new LinkedHashMap<Object, Object>(capacity(size))), size);
+        case BEAN:
+          BeanInfo beanInfo = getBeanInfo(readClass());
+          Object bean = register(beanInfo.constructor.newInstance());
+          readFields(bean, beanInfo.fields);
+          return bean;
+        case SERIALIZED:
+          ObjectInputStream ois = new CustomObjectInputStream(new ByteArrayInputStream(readBytes()));
+          Object object = ois.readObject();
+          ois.close();
+          return register(object);
+        default:
+          throw new IllegalStateException("Unknown value tag " + tag + " at position " + (position - 1));
+      }
+    }
+
+    private <T> T register(T value) {
+      references.add(value);
+      return value;
+    }
+
+    private Object readElements(Collection<Object> collection, int size) throws Exception {
+      for (int i = 0; i < size; i++) {
+        collection.add(readValue());
+      }
+      return collection;
+    }
+
+    private Object readEntries(Map<Object, Object> map, int size) throws Exception {
+      for (int i = 0; i < size; i++) {
+        Object key = readValue();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    private void readFields(Object bean, Field[] fields) throws Exception {
+      for (Field field : fields) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+          field.set(bean, readValue());
+        } else if (type == int.class) {
+          field.setInt(bean, (int) readSignedVarLong());
+        } else if (type == long.class) {
+          field.setLong(bean, readSignedVarLong());
+        } else if (type == boolean.class) {
+          field.setBoolean(bean, buffer[position++] != 0);
+        } else if (type == double.class) {
+          field.setDouble(bean, Double.longBitsToDouble(readFixedLong(8)));
+        } else if (type == float.class) {
+          field.setFloat(bean, Float.intBitsToFloat((int) readFixedLong(4)));
+        } else if (type == short.class) {
+          field.setShort(bean, (short) readSignedVarLong());
+        } else if (type == byte.class) {
+          field.setByte(bean, buffer[position++]);
+        } else {
+          field.setChar(bean, (char) readVarInt());
+        }
+      }
+    }
+
+    private Class<?> readClass() throws ClassNotFoundException {
+      int index = readVarInt();
+      if (index == classes.size()) {
+        classes.add(Resources.classForName(readString()));
+      }
+      return classes.get(index);
+    }
+
+    private String readString() {
+      int length = readVarInt();
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        int b = buffer[position];
+        if (b >= 0) {
+          chars[i] = (char) b;
+          position++;
+        } else {
+          chars[i] = (char) readVarInt();
+        }
+      }
+      return new String(chars);
+    }
+
+    private byte[] readBytes() {
+      int length = readVarInt();
+      byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return bytes;
+    }
+
+    private int readVarInt() {
+      int value = 0;
+      for (int shift = 0;; shift += 7) {
+        byte b = buffer[position++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+
+    private long readSignedVarLong() {
+      long zigzag = 0;
+      for (int shift = 0;; shift += 7) {
+        byte b = buffer[position++];
+        zigzag |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+      }
+    }
+
+    private long readFixedLong(int bytes) {
+      long value = 0;
+      for (int i = 0; i < bytes; i++) {
+        value |= (long) (buffer[position++] & 0xFF) << (i * 8);
+      }
+      return value;
+    }
+
+    private int capacity(int size) {
+      return Math.max((int) (size / .75f) + 1, 16);
+    }
+  }
+
+}
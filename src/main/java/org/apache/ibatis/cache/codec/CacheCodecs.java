@@ -0,0 +1,52 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import org.apache.ibatis.cache.CacheCodec;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * Resolves the codec property of the caches that store serialized copies.
+ *
+ * @since 3.4.7
+ */
+public final class CacheCodecs {
+
+  public static final String JAVA = "JAVA";
+  public static final String BINARY = "BINARY";
+
+  private CacheCodecs() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Returns a new codec for JAVA, BINARY or the fully qualified name of a {@link CacheCodec} implementation.
+   */
+  public static CacheCodec forName(String codec) {
+    if (JAVA.equalsIgnoreCase(codec)) {
+      return new JavaSerializationCodec();
+    } else if (BINARY.equalsIgnoreCase(codec)) {
+      return new BinaryCodec();
+    }
+    try {
+      return (CacheCodec) Resources.classForName(codec).newInstance();
+    } catch (Exception e) {
+      throw new CacheException("Error creating cache codec '" + codec + "'.  Cause: " + e, e);
+    }
+  }
+
+}
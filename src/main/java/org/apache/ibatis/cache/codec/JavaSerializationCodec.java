@@ -0,0 +1,52 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.ibatis.cache.CacheCodec;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+
+/**
+ * Copies the cached objects with Java serialization. This is the default codec of read-write caches.
+ *
+ * @since 3.4.7
+ */
+public class JavaSerializationCodec implements CacheCodec {
+
+  @Override
+  public byte[] encode(Object value) throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(bos);
+    oos.writeObject(value);
+    oos.flush();
+    oos.close();
+    return bos.toByteArray();
+  }
+
+  @Override
+  public Object decode(byte[] bytes) throws Exception {
+    ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+    ObjectInputStream ois = new CustomObjectInputStream(bis);
+    Object result = ois.readObject();
+    ois.close();
+    return result;
+  }
+
+}
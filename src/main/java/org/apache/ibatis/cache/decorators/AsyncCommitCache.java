@@ -0,0 +1,175 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.BulkCache;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Puts the objects of a {@link #putObjects(Map)} call, the results of a committed session, in a background thread so
+ * that the session does not wait for them to be copied and stored.
+ * <p>
+ * The objects are put in commit order by a single thread. Objects that were queued before the cache was cleared are
+ * dropped, so that a result read before an update is not put back after the update cleared the cache. When
+ * {@code commitQueueSize} commits are already queued, the objects are put by the committing thread.
+ *
+ * @since 3.4.7
+ */
+public class AsyncCommitCache implements BulkCache {
+
+  private static final Log log = LogFactory.getLog(AsyncCommitCache.class);
+
+  private final Cache delegate;
+  // fair, so that a clear that waits for a commit to be put is not overtaken by the next commit
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final AtomicInteger pendingCommits = new AtomicInteger();
+  // changed while holding lock
+  private volatile long generation;
+  private int commitQueueSize = 1024;
+  private ThreadPoolExecutor publisher;
+
+  public AsyncCommitCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, value);
+  }
+
+  @Override
+  public void putObjects(final Map<Object, Object> objects) {
+    final long queuedGeneration = generation;
+    Runnable publish = new Runnable() {
+      @Override
+      public void run() {
+        lock.lock();
+        try {
+          if (queuedGeneration == generation) {
+            CacheUtil.putObjects(delegate, objects);
+          }
+        } finally {
+          lock.unlock();
+          pendingCommits.decrementAndGet();
+        }
+      }
+    };
+    pendingCommits.incrementAndGet();
+    try {
+      getPublisher().execute(publish);
+    } catch (RejectedExecutionException e) {
+      publish.run();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      generation++;
+      delegate.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  public int getCommitQueueSize() {
+    return commitQueueSize;
+  }
+
+  public void setCommitQueueSize(int commitQueueSize) {
+    this.commitQueueSize = commitQueueSize;
+  }
+
+  /**
+   * Returns the number of commits whose objects are not put yet.
+   */
+  public int getPendingCommitCount() {
+    return pendingCommits.get();
+  }
+
+  private synchronized ThreadPoolExecutor getPublisher() {
+    if (publisher == null) {
+      final String name = "mybatis-commit-" + getId();
+      publisher = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(commitQueueSize),
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, name);
+              thread.setDaemon(true);
+              thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(Thread thread, Throwable e) {
+                  log.warn("Could not put the committed objects in the cache " + getId() + ". Cause: " + e);
+                }
+              });
+              return thread;
+            }
+          });
+      publisher.allowCoreThreadTimeOut(true);
+    }
+    return publisher;
+  }
+
+}
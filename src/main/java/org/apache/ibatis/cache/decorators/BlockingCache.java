@@ -15,34 +15,43 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheUtil;
 
 /**
  * Simple blocking decorator 
  * 
  * Simple and inefficient version of EhCache's BlockingCache decorator.
- * It sets a lock over a cache key when the element is not found in cache.
+ * It registers a pending load for a cache key when the element is not found in cache.
  * This way, other threads will wait until this element is filled instead of hitting the database.
+ * <p>
+ * Only one thread loads a missing key at a time: the others wait for the load to end and read the loaded value
+ * from the cache, or one of them loads it when the load ended without a value. A load ends when its key is put
+ * or when the thread that loads it removes it. Loads are only kept while they are pending, and at most
+ * {@code maxPendingLoads} of them, misses beyond that are not coalesced. With a {@code timeout}, a thread that
+ * waited that many milliseconds for a load takes it over.
  * 
  * @author Eduardo Macarron
  *
  */
-public class BlockingCache implements Cache {
+public class BlockingCache implements BulkCache {
 
   private long timeout;
+  private int maxPendingLoads = 1024;
   private final Cache delegate;
-  private final ConcurrentHashMap<Object, ReentrantLock> locks;
+  private final ConcurrentHashMap<Object, PendingLoad> pendingLoads;
 
   public BlockingCache(Cache delegate) {
     this.delegate = delegate;
-    this.locks = new ConcurrentHashMap<Object, ReentrantLock>();
+    this.pendingLoads = new ConcurrentHashMap<Object, PendingLoad>();
   }
 
   @Override
@@ -60,24 +69,68 @@ public class BlockingCache implements Cache {
     try {
       delegate.putObject(key, value);
     } finally {
-      releaseLock(key);
+      endLoad(key);
+    }
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    try {
+      CacheUtil.putObjects(delegate, objects);
+    } finally {
+      for (Object key : objects.keySet()) {
+        endLoad(key);
+      }
+    }
+  }
+
+  private void endLoad(Object key) {
+    PendingLoad load = pendingLoads.remove(key);
+    if (load != null) {
+      load.end();
     }
   }
 
   @Override
   public Object getObject(Object key) {
-    acquireLock(key);
-    Object value = delegate.getObject(key);
-    if (value != null) {
-      releaseLock(key);
-    }        
-    return value;
+    for (;;) {
+      Object value = delegate.getObject(key);
+      if (value != null) {
+        return value;
+      }
+      PendingLoad load = pendingLoads.get(key);
+      if (load == null) {
+        if (pendingLoads.size() >= maxPendingLoads) {
+          return null;
+        }
+        PendingLoad newLoad = new PendingLoad();
+        load = pendingLoads.putIfAbsent(key, newLoad);
+        if (load == null) {
+          // the value may have been put since it was read
+          value = delegate.getObject(key);
+          if (value != null && pendingLoads.remove(key, newLoad)) {
+            newLoad.end();
+          }
+          return value;
+        }
+      }
+      if (load.owner == Thread.currentThread()) {
+        return null;
+      }
+      if (!awaitLoad(key, load) && pendingLoads.remove(key, load)) {
+        // the load takes too long, the next iteration takes it over and the other threads wait for that one
+        load.end();
+      }
+    }
   }
 
   @Override
   public Object removeObject(Object key) {
     // despite of its name, this method is called only to release locks
-    releaseLock(key);
+    PendingLoad load = pendingLoads.get(key);
+    if (load != null && load.owner == Thread.currentThread() && pendingLoads.remove(key, load)) {
+      load.end();
+    }
     return null;
   }
 
@@ -90,33 +143,25 @@ public class BlockingCache implements Cache {
   public ReadWriteLock getReadWriteLock() {
     return null;
   }
-  
-  private ReentrantLock getLockForKey(Object key) {
-    ReentrantLock lock = new ReentrantLock();
-    ReentrantLock previous = locks.putIfAbsent(key, lock);
-    return previous == null ? lock : previous;
-  }
-  
-  private void acquireLock(Object key) {
-    Lock lock = getLockForKey(key);
-    if (timeout > 0) {
-      try {
-        boolean acquired = lock.tryLock(timeout, TimeUnit.MILLISECONDS);
-        if (!acquired) {
-          throw new CacheException("Couldn't get a lock in " + timeout + " for the key " +  key + " at the cache " + delegate.getId());  
-        }
-      } catch (InterruptedException e) {
-        throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
-      }
-    } else {
-      lock.lock();
-    }
+
+  /**
+   * Returns the number of keys being loaded.
+   *
+   * @since 3.4.7
+   */
+  public int getPendingLoadCount() {
+    return pendingLoads.size();
   }
-  
-  private void releaseLock(Object key) {
-    ReentrantLock lock = locks.get(key);
-    if (lock.isHeldByCurrentThread()) {
-      lock.unlock();
+
+  private boolean awaitLoad(Object key, PendingLoad load) {
+    try {
+      if (timeout > 0) {
+        return load.done.await(timeout, TimeUnit.MILLISECONDS);
+      }
+      load.done.await();
+      return true;
+    } catch (InterruptedException e) {
+      throw new CacheException("Got interrupted while waiting for the load of key " + key + " at the cache " + delegate.getId(), e);
     }
   }
 
@@ -126,5 +171,28 @@ public class BlockingCache implements Cache {
 
   public void setTimeout(long timeout) {
     this.timeout = timeout;
-  }  
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public int getMaxPendingLoads() {
+    return maxPendingLoads;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setMaxPendingLoads(int maxPendingLoads) {
+    this.maxPendingLoads = maxPendingLoads;
+  }
+
+  private static class PendingLoad {
+    private final Thread owner = Thread.currentThread();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    void end() {
+      done.countDown();
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,385 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.BulkCache;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Expires each entry a fixed time after it was put, instead of clearing the whole cache like {@link ScheduledCache}.
+ * <p>
+ * The time to live can be shortened by a random part of up to {@code ttlJitter} (a fraction of the time to live) so
+ * that entries put together do not expire together. With {@code refreshAhead} (also a fraction of the time to live),
+ * the first read of an entry older than that returns the cached value and requests a refresh of the entry: the
+ * caller can take the request with {@link #takeRefreshRequest()} and submit the load of a new value, which is run
+ * in the background and is expected to put the value in the cache. The refreshes of all the caches run on one
+ * shared pool of daemon threads that end when idle, each cache running up to {@code refreshThreads} of them at once.
+ * {@link org.apache.ibatis.executor.CachingExecutor} does so by running the statement again.
+ *
+ * @since 3.4.7
+ */
+public class ExpiringCache implements BulkCache {
+
+  private static final Log log = LogFactory.getLog(ExpiringCache.class);
+
+  private static final ThreadLocal<RefreshRequest> requestedRefresh = new ThreadLocal<RefreshRequest>();
+  // the refresh run by the current thread, only its put of the refreshed key can be dropped
+  private static final ThreadLocal<RefreshRequest> runningRefresh = new ThreadLocal<RefreshRequest>();
+  private static volatile boolean refreshAheadUsed;
+  private static ThreadPoolExecutor refreshPool;
+
+  private final Cache delegate;
+  private final ConcurrentMap<Object, RefreshRequest> refreshing = new ConcurrentHashMap<Object, RefreshRequest>();
+  // incremented by each clear, a refresh requested before it is cancelled
+  private final AtomicLong generation = new AtomicLong();
+  private final Random random = new Random();
+  private long ttl = 60 * 60 * 1000; // 1 hour
+  private double ttlJitter;
+  private double refreshAhead;
+  private int refreshThreads = 1;
+  private int refreshQueueSize = 1024;
+  private final Queue<Runnable> pendingRefreshes = new ConcurrentLinkedQueue<Runnable>();
+  private final AtomicInteger pendingRefreshCount = new AtomicInteger();
+  private final AtomicInteger runningRefreshers = new AtomicInteger();
+  private final Runnable refresher = new Runnable() {
+    @Override
+    public void run() {
+      try {
+        Runnable load;
+        while ((load = pendingRefreshes.poll()) != null) {
+          pendingRefreshCount.decrementAndGet();
+          load.run();
+        }
+      } finally {
+        runningRefreshers.decrementAndGet();
+      }
+      // a refresh queued while this refresher was ending
+      if (!pendingRefreshes.isEmpty()) {
+        startRefresher();
+      }
+    }
+  };
+
+  public ExpiringCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    if (isCancelledRefresh(key)) {
+      return;
+    }
+    forgetIdleRefresh(key);
+    delegate.putObject(key, newEntry(value, System.currentTimeMillis()));
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    long now = System.currentTimeMillis();
+    Map<Object, Object> entries = new HashMap<Object, Object>((int) (objects.size() / 0.75f) + 1);
+    for (Map.Entry<Object, Object> object : objects.entrySet()) {
+      if (!isCancelledRefresh(object.getKey())) {
+        forgetIdleRefresh(object.getKey());
+        entries.put(object.getKey(), newEntry(object.getValue(), now));
+      }
+    }
+    CacheUtil.putObjects(delegate, entries);
+  }
+
+  // the put of a refresh that was loaded before the cache was cleared, any other put is kept
+  private boolean isCancelledRefresh(Object key) {
+    RefreshRequest refresh = runningRefresh.get();
+    return refresh != null && refresh.cache == this && refresh.generation != generation.get() && refresh.key.equals(key);
+  }
+
+  // a new value makes the entry refreshable again unless a refresh of it is running, which forgets itself when done
+  private void forgetIdleRefresh(Object key) {
+    RefreshRequest refresh = refreshing.get(key);
+    if (refresh != null && !refresh.submitted) {
+      refreshing.remove(key, refresh);
+    }
+  }
+
+  private Entry newEntry(Object value, long now) {
+    long timeToLive = ttl;
+    if (ttlJitter > 0) {
+      timeToLive -= (long) (timeToLive * ttlJitter * random.nextDouble());
+    }
+    long refreshAt = refreshAhead > 0 ? now + (long) (timeToLive * refreshAhead) : Long.MAX_VALUE;
+    return new Entry(value, now + timeToLive, refreshAt);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Entry entry = (Entry) delegate.getObject(key);
+    if (entry == null) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    if (now >= entry.expiresAt) {
+      delegate.removeObject(key);
+      refreshing.remove(key);
+      return null;
+    }
+    if (now >= entry.refreshAt) {
+      RefreshRequest request = new RefreshRequest(this, key);
+      if (refreshing.putIfAbsent(key, request) == null) {
+        requestedRefresh.set(request);
+      }
+    }
+    return entry.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Entry entry = (Entry) delegate.removeObject(key);
+    return entry == null ? null : entry.value;
+  }
+
+  @Override
+  public void clear() {
+    generation.incrementAndGet();
+    for (RefreshRequest request : refreshing.values()) {
+      if (!request.submitted) {
+        refreshing.remove(request.key, request);
+      }
+    }
+    delegate.clear();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  public long getTtl() {
+    return ttl;
+  }
+
+  public void setTtl(long ttl) {
+    this.ttl = ttl;
+  }
+
+  public double getTtlJitter() {
+    return ttlJitter;
+  }
+
+  public void setTtlJitter(double ttlJitter) {
+    this.ttlJitter = ttlJitter;
+  }
+
+  public double getRefreshAhead() {
+    return refreshAhead;
+  }
+
+  public void setRefreshAhead(double refreshAhead) {
+    this.refreshAhead = refreshAhead;
+    if (refreshAhead > 0) {
+      refreshAheadUsed = true;
+    }
+  }
+
+  public int getRefreshThreads() {
+    return refreshThreads;
+  }
+
+  public void setRefreshThreads(int refreshThreads) {
+    this.refreshThreads = refreshThreads;
+  }
+
+  public int getRefreshQueueSize() {
+    return refreshQueueSize;
+  }
+
+  public void setRefreshQueueSize(int refreshQueueSize) {
+    this.refreshQueueSize = refreshQueueSize;
+  }
+
+  /**
+   * Returns the number of entries being refreshed.
+   */
+  public int getRefreshingCount() {
+    return refreshing.size();
+  }
+
+  /**
+   * Returns and forgets the refresh requested by the last read of the current thread, if any.
+   * A request that is not submitted keeps its entry from being refreshed again until it expires.
+   */
+  public static RefreshRequest takeRefreshRequest() {
+    if (!refreshAheadUsed) {
+      return null;
+    }
+    RefreshRequest request = requestedRefresh.get();
+    if (request != null) {
+      requestedRefresh.remove();
+    }
+    return request;
+  }
+
+  // queues the load, returns false when the queue is full
+  private boolean executeRefresh(Runnable load) {
+    if (pendingRefreshCount.incrementAndGet() > refreshQueueSize) {
+      pendingRefreshCount.decrementAndGet();
+      return false;
+    }
+    pendingRefreshes.add(load);
+    startRefresher();
+    return true;
+  }
+
+  private void startRefresher() {
+    for (;;) {
+      int running = runningRefreshers.get();
+      if (running >= refreshThreads) {
+        return;
+      }
+      if (runningRefreshers.compareAndSet(running, running + 1)) {
+        break;
+      }
+    }
+    try {
+      getRefreshPool().execute(refresher);
+    } catch (RejectedExecutionException e) {
+      // the queued loads run with the next refresher
+      runningRefreshers.decrementAndGet();
+    }
+  }
+
+  private static synchronized ThreadPoolExecutor getRefreshPool() {
+    if (refreshPool == null) {
+      refreshPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+          new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "mybatis-refresh-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+    return refreshPool;
+  }
+
+  /**
+   * A refresh of an entry requested by a read.
+   */
+  public static final class RefreshRequest {
+
+    private final ExpiringCache cache;
+    private final Object key;
+    private final long generation;
+    private volatile boolean submitted;
+
+    private RefreshRequest(ExpiringCache cache, Object key) {
+      this.cache = cache;
+      this.key = key;
+      this.generation = cache.generation.get();
+    }
+
+    public Object getKey() {
+      return key;
+    }
+
+    /**
+     * Runs the given load in the background. The load is expected to put a new value for the key in the cache, the
+     * entry can be refreshed again once it does or fails. That put is dropped if the cache was cleared since the
+     * refresh was requested. When the refresh threads are busy, the load is dropped.
+     */
+    public void submit(final Runnable load) {
+      submitted = true;
+      boolean queued = false;
+      try {
+        queued = cache.executeRefresh(new Runnable() {
+          @Override
+          public void run() {
+            runningRefresh.set(RefreshRequest.this);
+            try {
+              load.run();
+            } catch (RuntimeException e) {
+              log.warn("Could not refresh the entry " + key + " of the cache " + cache.getId() + ". Cause: " + e);
+            } finally {
+              runningRefresh.remove();
+              cache.refreshing.remove(key, RefreshRequest.this);
+            }
+          }
+        });
+      } finally {
+        if (!queued) {
+          cache.refreshing.remove(key, this);
+        }
+      }
+    }
+  }
+
+  private static final class Entry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Object value;
+    private final long expiresAt;
+    private final long refreshAt;
+
+    private Entry(Object value, long expiresAt, long refreshAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+      this.refreshAt = refreshAt;
+    }
+  }
+
+}
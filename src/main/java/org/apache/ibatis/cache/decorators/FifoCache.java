@@ -17,20 +17,25 @@ package org.apache.ibatis.cache.decorators;
 
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.cache.StatsCounter;
 
 /**
  * FIFO (first in, first out) cache decorator
  *
  * @author Clinton Begin
  */
-public class FifoCache implements Cache {
+public class FifoCache implements BulkCache {
 
   private final Cache delegate;
   private final Deque<Object> keyList;
   private int size;
+  private StatsCounter statsCounter;
 
   public FifoCache(Cache delegate) {
     this.delegate = delegate;
@@ -58,6 +63,14 @@ public class FifoCache implements Cache {
     delegate.putObject(key, value);
   }
 
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    for (Object key : objects.keySet()) {
+      cycleKeyList(key);
+    }
+    CacheUtil.putObjects(delegate, objects);
+  }
+
   @Override
   public Object getObject(Object key) {
     return delegate.getObject(key);
@@ -74,6 +87,13 @@ public class FifoCache implements Cache {
     keyList.clear();
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+  }
+
   @Override
   public ReadWriteLock getReadWriteLock() {
     return null;
@@ -84,6 +104,9 @@ public class FifoCache implements Cache {
     if (keyList.size() > size) {
       Object oldestKey = keyList.removeFirst();
       delegate.removeObject(oldestKey);
+      if (statsCounter != null) {
+        statsCounter.recordEviction();
+      }
     }
   }
 
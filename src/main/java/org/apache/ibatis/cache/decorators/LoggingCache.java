@@ -15,24 +15,43 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.cache.StatsCounter;
+import org.apache.ibatis.cache.impl.SimpleStatsCounter;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
 /**
  * @author Clinton Begin
  */
-public class LoggingCache implements Cache {
+public class LoggingCache implements BulkCache {
 
   private final Log log;
   private final Cache delegate;
+  private final StatsCounter statsCounter;
   protected int requests = 0;
   protected int hits = 0;
+  // counted atomically as the cache is not synchronized when its delegate is concurrent
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger hitCount = new AtomicInteger();
 
   public LoggingCache(Cache delegate) {
+    this(delegate, new SimpleStatsCounter());
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public LoggingCache(Cache delegate, StatsCounter statsCounter) {
     this.delegate = delegate;
+    this.statsCounter = statsCounter;
     this.log = LogFactory.getLog(getId());
   }
 
@@ -49,14 +68,24 @@ public class LoggingCache implements Cache {
   @Override
   public void putObject(Object key, Object object) {
     delegate.putObject(key, object);
+    statsCounter.recordPuts(1);
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    CacheUtil.putObjects(delegate, objects);
+    statsCounter.recordPuts(objects.size());
   }
 
   @Override
   public Object getObject(Object key) {
-    requests++;
+    requests = requestCount.incrementAndGet();
     final Object value = delegate.getObject(key);
     if (value != null) {
-      hits++;
+      hits = hitCount.incrementAndGet();
+      statsCounter.recordHits(1);
+    } else {
+      statsCounter.recordMisses(1);
     }
     if (log.isDebugEnabled()) {
       log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
@@ -89,8 +118,24 @@ public class LoggingCache implements Cache {
     return delegate.equals(obj);
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public StatsCounter getStatsCounter() {
+    return statsCounter;
+  }
+
+  /**
+   * Returns the statistics of the cache, including its size.
+   *
+   * @since 3.4.7
+   */
+  public CacheStats getStats() {
+    return statsCounter.snapshot().withSize(getSize());
+  }
+
   private double getHitRatio() {
-    return (double) hits / (double) requests;
+    return (double) hitCount.get() / (double) requestCount.get();
   }
 
 }
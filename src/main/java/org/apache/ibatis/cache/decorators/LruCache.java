@@ -19,18 +19,22 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.cache.StatsCounter;
 
 /**
  * Lru (least recently used) cache decorator
  *
  * @author Clinton Begin
  */
-public class LruCache implements Cache {
+public class LruCache implements BulkCache {
 
   private final Cache delegate;
   private Map<Object, Object> keyMap;
   private Object eldestKey;
+  private StatsCounter statsCounter;
 
   public LruCache(Cache delegate) {
     this.delegate = delegate;
@@ -68,6 +72,14 @@ public class LruCache implements Cache {
     cycleKeyList(key);
   }
 
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    CacheUtil.putObjects(delegate, objects);
+    for (Object key : objects.keySet()) {
+      cycleKeyList(key);
+    }
+  }
+
   @Override
   public Object getObject(Object key) {
     keyMap.get(key); //touch
@@ -85,6 +97,13 @@ public class LruCache implements Cache {
     keyMap.clear();
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+  }
+
   @Override
   public ReadWriteLock getReadWriteLock() {
     return null;
@@ -95,6 +114,9 @@ public class LruCache implements Cache {
     if (eldestKey != null) {
       delegate.removeObject(eldestKey);
       eldestKey = null;
+      if (statsCounter != null) {
+        statsCounter.recordEviction();
+      }
     }
   }
 
@@ -15,14 +15,17 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
 
 /**
  * @author Clinton Begin
  */
-public class ScheduledCache implements Cache {
+public class ScheduledCache implements BulkCache {
 
   private final Cache delegate;
   protected long clearInterval;
@@ -55,6 +58,12 @@ public class ScheduledCache implements Cache {
     delegate.putObject(key, object);
   }
 
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    clearWhenStale();
+    CacheUtil.putObjects(delegate, objects);
+  }
+
   @Override
   public Object getObject(Object key) {
     return clearWhenStale() ? null : delegate.getObject(key);
@@ -15,29 +15,55 @@
  */
 package org.apache.ibatis.cache.decorators;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheCodec;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheUtil;
+import org.apache.ibatis.cache.codec.BinaryCodec;
+import org.apache.ibatis.cache.codec.CacheCodecs;
+import org.apache.ibatis.cache.codec.JavaSerializationCodec;
 import org.apache.ibatis.io.Resources;
 
 /**
+ * Stores copies of the cached objects, made by a {@link CacheCodec}.
+ * <p>
+ * The codec is Java serialization by default, the codec property selects another one: JAVA, BINARY (see
+ * {@link BinaryCodec}) or the fully qualified name of a {@link CacheCodec} implementation.
+ *
  * @author Clinton Begin
  */
-public class SerializedCache implements Cache {
+public class SerializedCache implements BulkCache {
 
   private final Cache delegate;
+  private CacheCodec codec;
 
   public SerializedCache(Cache delegate) {
+    this(delegate, new JavaSerializationCodec());
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public SerializedCache(Cache delegate, CacheCodec codec) {
     this.delegate = delegate;
+    this.codec = codec;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setCodec(String codec) {
+    this.codec = CacheCodecs.forName(codec);
   }
 
   @Override
@@ -52,8 +78,21 @@ public class SerializedCache implements Cache {
 
   @Override
   public void putObject(Object key, Object object) {
+    delegate.putObject(key, copy(object));
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    Map<Object, Object> copies = new HashMap<Object, Object>((int) (objects.size() / 0.75f) + 1);
+    for (Map.Entry<Object, Object> entry : objects.entrySet()) {
+      copies.put(entry.getKey(), copy(entry.getValue()));
+    }
+    CacheUtil.putObjects(delegate, copies);
+  }
+
+  private byte[] copy(Object object) {
     if (object == null || object instanceof Serializable) {
-      delegate.putObject(key, serialize((Serializable) object));
+      return serialize((Serializable) object);
     } else {
       throw new CacheException("SharedCache failed to make a copy of a non-serializable object: " + object);
     }
@@ -92,28 +131,18 @@ public class SerializedCache implements Cache {
 
   private byte[] serialize(Serializable value) {
     try {
-      ByteArrayOutputStream bos = new ByteArrayOutputStream();
-      ObjectOutputStream oos = new ObjectOutputStream(bos);
-      oos.writeObject(value);
-      oos.flush();
-      oos.close();
-      return bos.toByteArray();
+      return codec.encode(value);
     } catch (Exception e) {
       throw new CacheException("Error serializing object.  Cause: " + e, e);
     }
   }
 
   private Serializable deserialize(byte[] value) {
-    Serializable result;
     try {
-      ByteArrayInputStream bis = new ByteArrayInputStream(value);
-      ObjectInputStream ois = new CustomObjectInputStream(bis);
-      result = (Serializable) ois.readObject();
-      ois.close();
+      return (Serializable) codec.decode(value);
     } catch (Exception e) {
       throw new CacheException("Error deserializing object.  Cause: " + e, e);
     }
-    return result;
   }
 
   public static class CustomObjectInputStream extends ObjectInputStream {
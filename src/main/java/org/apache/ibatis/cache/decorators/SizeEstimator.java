@@ -0,0 +1,175 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Roughly estimates the heap retained by a cached value, assuming a 64 bit JVM with compressed references.
+ * <p>
+ * Shared objects are counted once, the graph is followed at most {@link #MAX_DEPTH} references deep and
+ * classes, class loaders, threads and MyBatis internals (like the configuration referenced by lazy loading
+ * proxies) are not followed.
+ */
+final class SizeEstimator {
+
+  private static final int MAX_DEPTH = 16;
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+  private static final String[] SKIPPED_PACKAGES = {
+      "org.apache.ibatis.session.", "org.apache.ibatis.executor.", "org.apache.ibatis.mapping.", "org.apache.ibatis.reflection."
+  };
+
+  private static final Map<Class<?>, Field[]> referenceFields = new ConcurrentHashMap<Class<?>, Field[]>();
+  private static final Map<Class<?>, Long> shallowSizes = new ConcurrentHashMap<Class<?>, Long>();
+
+  private SizeEstimator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static long estimate(Object value) {
+    if (value instanceof byte[]) {
+      return align(ARRAY_HEADER + ((byte[]) value).length);
+    }
+    return estimate(value, new IdentityHashMap<Object, Object>(), 0);
+  }
+
+  private static long estimate(Object value, IdentityHashMap<Object, Object> visited, int depth) {
+    if (value == null || depth > MAX_DEPTH || visited.put(value, value) != null) {
+      return 0;
+    }
+    Class<?> type = value.getClass();
+    if (value instanceof String) {
+      return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + 2L * ((String) value).length());
+    } else if (type.isArray()) {
+      return estimateArray(value, type, visited, depth);
+    } else if (value instanceof Collection) {
+      long size = align(OBJECT_HEADER + 16) + align(ARRAY_HEADER + (long) REFERENCE * ((Collection<?>) value).size());
+      for (Object element : (Collection<?>) value) {
+        size += estimate(element, visited, depth + 1);
+      }
+      return size;
+    } else if (value instanceof Map) {
+      long size = align(OBJECT_HEADER + 24) + align(ARRAY_HEADER + (long) REFERENCE * ((Map<?, ?>) value).size());
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += align(OBJECT_HEADER + 16) + estimate(entry.getKey(), visited, depth + 1) + estimate(entry.getValue(), visited, depth + 1);
+      }
+      return size;
+    } else if (isOpaque(type)) {
+      return 0;
+    }
+    long size = shallowSize(type);
+    for (Field field : referenceFields(type)) {
+      try {
+        size += estimate(field.get(value), visited, depth + 1);
+      } catch (IllegalAccessException e) {
+        // count the reference only
+      }
+    }
+    return size;
+  }
+
+  private static long estimateArray(Object array, Class<?> type, IdentityHashMap<Object, Object> visited, int depth) {
+    int length = Array.getLength(array);
+    Class<?> componentType = type.getComponentType();
+    if (componentType.isPrimitive()) {
+      return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+    }
+    long size = align(ARRAY_HEADER + (long) length * REFERENCE);
+    for (int i = 0; i < length; i++) {
+      size += estimate(Array.get(array, i), visited, depth + 1);
+    }
+    return size;
+  }
+
+  private static boolean isOpaque(Class<?> type) {
+    if (Class.class.equals(type) || ClassLoader.class.isAssignableFrom(type) || Thread.class.isAssignableFrom(type)) {
+      return true;
+    }
+    String name = type.getName();
+    for (String skipped : SKIPPED_PACKAGES) {
+      if (name.startsWith(skipped)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long shallowSize(Class<?> type) {
+    Long size = shallowSizes.get(type);
+    if (size == null) {
+      long fields = 0;
+      for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (!Modifier.isStatic(field.getModifiers())) {
+            fields += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+          }
+        }
+      }
+      size = align(OBJECT_HEADER + fields);
+      shallowSizes.put(type, size);
+    }
+    return size;
+  }
+
+  private static Field[] referenceFields(Class<?> type) {
+    Field[] fields = referenceFields.get(type);
+    if (fields == null) {
+      List<Field> list = new ArrayList<Field>();
+      for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+            try {
+              field.setAccessible(true);
+              list.add(field);
+            } catch (RuntimeException e) {
+              // a SecurityException, or the InaccessibleObjectException of JDK 9+ for the internals of java.*
+              // count the reference only
+            }
+          }
+        }
+      }
+      fields = list.toArray(new Field[list.size()]);
+      referenceFields.put(type, fields);
+    }
+    return fields;
+  }
+
+  private static int primitiveSize(Class<?> type) {
+    if (long.class.equals(type) || double.class.equals(type)) {
+      return 8;
+    } else if (int.class.equals(type) || float.class.equals(type)) {
+      return 4;
+    } else if (short.class.equals(type) || char.class.equals(type)) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+}
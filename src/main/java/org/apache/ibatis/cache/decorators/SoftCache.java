@@ -22,6 +22,7 @@ import java.util.LinkedList;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.StatsCounter;
 
 /**
  * Soft Reference cache decorator
@@ -33,6 +34,7 @@ public class SoftCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
+  private StatsCounter statsCounter;
   private int numberOfHardLinks;
 
   public SoftCache(Cache delegate) {
@@ -73,6 +75,9 @@ public class SoftCache implements Cache {
       result = softReference.get();
       if (result == null) {
         delegate.removeObject(key);
+        if (statsCounter != null) {
+          statsCounter.recordEviction();
+        }
       } else {
         // See #586 (and #335) modifications need more than a read lock 
         synchronized (hardLinksToAvoidGarbageCollection) {
@@ -101,6 +106,13 @@ public class SoftCache implements Cache {
     delegate.clear();
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+  }
+
   @Override
   public ReadWriteLock getReadWriteLock() {
     return null;
@@ -109,7 +121,9 @@ public class SoftCache implements Cache {
   private void removeGarbageCollectedItems() {
     SoftEntry sv;
     while ((sv = (SoftEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+      if (delegate.removeObject(sv.key) != null && statsCounter != null) {
+        statsCounter.recordEviction();
+      }
     }
   }
 
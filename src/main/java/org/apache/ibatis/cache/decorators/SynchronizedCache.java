@@ -15,14 +15,17 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
 
 /**
  * @author Clinton Begin
  */
-public class SynchronizedCache implements Cache {
+public class SynchronizedCache implements BulkCache {
 
   private final Cache delegate;
   
@@ -45,6 +48,11 @@ public class SynchronizedCache implements Cache {
     delegate.putObject(key, object);
   }
 
+  @Override
+  public synchronized void putObjects(Map<Object, Object> objects) {
+    CacheUtil.putObjects(delegate, objects);
+  }
+
   @Override
   public synchronized Object getObject(Object key) {
     return delegate.getObject(key);
@@ -0,0 +1,232 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.BulkCache;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
+
+/**
+ * Invalidates the entries that depend on given tags, the tables read by their statements, instead of the whole cache.
+ * <p>
+ * Every tag has a version that is increased when the tag is invalidated. An entry is put with the versions its tags
+ * had before its value was loaded, see {@link #stamp(Collection)}, and is a miss once any of them changed. Entries
+ * put without tags depend on every tag. Stale entries are left in the cache until the next put of their key replaces
+ * them or the cache evicts them as usual, as removing them through a {@link BlockingCache} would only release its lock.
+ *
+ * @since 3.4.7
+ */
+public class TaggedCache implements BulkCache {
+
+  private final Cache delegate;
+  private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<String, AtomicLong>();
+  private final AtomicLong anyVersion = new AtomicLong();
+
+  public TaggedCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  /**
+   * Puts a value stamped with {@link Stamp#tag(Object)}, or any other value, which then depends on every tag.
+   */
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, toEntry(value));
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    Map<Object, Object> entries = new HashMap<Object, Object>((int) (objects.size() / 0.75f) + 1);
+    for (Map.Entry<Object, Object> object : objects.entrySet()) {
+      entries.put(object.getKey(), toEntry(object.getValue()));
+    }
+    CacheUtil.putObjects(delegate, entries);
+  }
+
+  private Object toEntry(Object value) {
+    if (value == null || value instanceof Entry) {
+      return value;
+    }
+    return new Entry(value, null, null, anyVersion.get());
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    return getObject(key, null);
+  }
+
+  /**
+   * Returns the value of the given key, or null when it is stale or depends on any of the given tags.
+   */
+  public Object getObject(Object key, Collection<String> excludedTags) {
+    Entry entry = (Entry) delegate.getObject(key);
+    if (entry == null) {
+      return null;
+    }
+    if (isStale(entry) || (excludedTags != null && entry.dependsOnAny(excludedTags))) {
+      return null;
+    }
+    return entry.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Entry entry = (Entry) delegate.removeObject(key);
+    return entry == null ? null : entry.value;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  /**
+   * Makes the entries that depend on any of the given tags stale.
+   */
+  public void invalidate(Collection<String> tags) {
+    for (String tag : tags) {
+      AtomicLong version = versions.get(tag);
+      if (version == null) {
+        AtomicLong newVersion = new AtomicLong();
+        version = versions.putIfAbsent(tag, newVersion);
+        if (version == null) {
+          version = newVersion;
+        }
+      }
+      version.incrementAndGet();
+    }
+    anyVersion.incrementAndGet();
+  }
+
+  /**
+   * Records the current versions of the given tags, to be called before the value that depends on them is loaded.
+   */
+  public Stamp stamp(Collection<String> tags) {
+    if (tags.isEmpty()) {
+      return new Stamp(null, null, anyVersion.get());
+    }
+    String[] names = tags.toArray(new String[tags.size()]);
+    long[] tagVersions = new long[names.length];
+    for (int i = 0; i < names.length; i++) {
+      tagVersions[i] = versionOf(names[i]);
+    }
+    return new Stamp(names, tagVersions, 0);
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private long versionOf(String tag) {
+    AtomicLong version = versions.get(tag);
+    return version == null ? 0 : version.get();
+  }
+
+  private boolean isStale(Entry entry) {
+    if (entry.tags == null) {
+      return entry.anyVersion != anyVersion.get();
+    }
+    for (int i = 0; i < entry.tags.length; i++) {
+      if (entry.versions[i] != versionOf(entry.tags[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The versions of some tags at a point in time.
+   */
+  public static final class Stamp {
+
+    private final String[] tags;
+    private final long[] versions;
+    private final long anyVersion;
+
+    private Stamp(String[] tags, long[] versions, long anyVersion) {
+      this.tags = tags;
+      this.versions = versions;
+      this.anyVersion = anyVersion;
+    }
+
+    /**
+     * Wraps a value to be put in a {@link TaggedCache}.
+     */
+    public Object tag(Object value) {
+      return value == null ? null : new Entry(value, tags, versions, anyVersion);
+    }
+  }
+
+  private static final class Entry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Object value;
+    private final String[] tags;
+    private final long[] versions;
+    private final long anyVersion;
+
+    private Entry(Object value, String[] tags, long[] versions, long anyVersion) {
+      this.value = value;
+      this.tags = tags;
+      this.versions = versions;
+      this.anyVersion = anyVersion;
+    }
+
+    private boolean dependsOnAny(Collection<String> otherTags) {
+      if (tags == null) {
+        return !otherTags.isEmpty();
+      }
+      for (String tag : tags) {
+        if (otherTags.contains(tag)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -22,6 +23,7 @@ import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
@@ -42,12 +44,14 @@ public class TransactionalCache implements Cache {
 
   private final Cache delegate;
   private boolean clearOnCommit;
+  private final Set<String> tagsToInvalidateOnCommit;
   private final Map<Object, Object> entriesToAddOnCommit;
   private final Set<Object> entriesMissedInCache;
 
   public TransactionalCache(Cache delegate) {
     this.delegate = delegate;
     this.clearOnCommit = false;
+    this.tagsToInvalidateOnCommit = new HashSet<String>();
     this.entriesToAddOnCommit = new HashMap<Object, Object>();
     this.entriesMissedInCache = new HashSet<Object>();
   }
@@ -65,7 +69,12 @@ public class TransactionalCache implements Cache {
   @Override
   public Object getObject(Object key) {
     // issue #116
-    Object object = delegate.getObject(key);
+    Object object;
+    if (tagsToInvalidateOnCommit.isEmpty()) {
+      object = delegate.getObject(key);
+    } else {
+      object = ((TaggedCache) delegate).getObject(key, tagsToInvalidateOnCommit);
+    }
     if (object == null) {
       entriesMissedInCache.add(key);
     }
@@ -98,9 +107,25 @@ public class TransactionalCache implements Cache {
     entriesToAddOnCommit.clear();
   }
 
+  /**
+   * Invalidates the entries that depend on the given tags on commit, or clears the cache if it is not a
+   * {@link TaggedCache}.
+   *
+   * @since 3.4.7
+   */
+  public void invalidate(Collection<String> tags) {
+    if (delegate instanceof TaggedCache) {
+      tagsToInvalidateOnCommit.addAll(tags);
+    } else {
+      clear();
+    }
+  }
+
   public void commit() {
     if (clearOnCommit) {
       delegate.clear();
+    } else if (!tagsToInvalidateOnCommit.isEmpty()) {
+      ((TaggedCache) delegate).invalidate(tagsToInvalidateOnCommit);
     }
     flushPendingEntries();
     reset();
@@ -113,19 +138,22 @@ public class TransactionalCache implements Cache {
 
   private void reset() {
     clearOnCommit = false;
+    tagsToInvalidateOnCommit.clear();
     entriesToAddOnCommit.clear();
     entriesMissedInCache.clear();
   }
 
   private void flushPendingEntries() {
-    for (Map.Entry<Object, Object> entry : entriesToAddOnCommit.entrySet()) {
-      delegate.putObject(entry.getKey(), entry.getValue());
+    if (entriesToAddOnCommit.isEmpty() && entriesMissedInCache.isEmpty()) {
+      return;
     }
+    Map<Object, Object> entries = new HashMap<Object, Object>(entriesToAddOnCommit);
     for (Object entry : entriesMissedInCache) {
       if (!entriesToAddOnCommit.containsKey(entry)) {
-        delegate.putObject(entry, null);
+        entries.put(entry, null);
       }
     }
+    CacheUtil.putObjects(delegate, entries);
   }
 
   private void unlockMissedEntries() {
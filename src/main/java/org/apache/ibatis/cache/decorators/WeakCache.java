@@ -22,6 +22,7 @@ import java.util.LinkedList;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.StatsCounter;
 
 /**
  * Weak Reference cache decorator.
@@ -33,6 +34,7 @@ public class WeakCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
+  private StatsCounter statsCounter;
   private int numberOfHardLinks;
 
   public WeakCache(Cache delegate) {
@@ -72,6 +74,9 @@ public class WeakCache implements Cache {
       result = weakReference.get();
       if (result == null) {
         delegate.removeObject(key);
+        if (statsCounter != null) {
+          statsCounter.recordEviction();
+        }
       } else {
         hardLinksToAvoidGarbageCollection.addFirst(result);
         if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
@@ -95,6 +100,13 @@ public class WeakCache implements Cache {
     delegate.clear();
   }
 
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+  }
+
   @Override
   public ReadWriteLock getReadWriteLock() {
     return null;
@@ -103,7 +115,9 @@ public class WeakCache implements Cache {
   private void removeGarbageCollectedItems() {
     WeakEntry sv;
     while ((sv = (WeakEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+      if (delegate.removeObject(sv.key) != null && statsCounter != null) {
+        statsCounter.recordEviction();
+      }
     }
   }
 
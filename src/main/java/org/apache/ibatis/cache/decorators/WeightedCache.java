@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.StatsCounter;
+
+/**
+ * Weight bounded cache decorator, evicts the least recently used entries while the estimated size of
+ * the cached values exceeds {@code maxWeight} bytes.
+ * <p>
+ * When the cache is read-write, the values are the serialized bytes so their weight is exact, otherwise
+ * the retained size of the cached object graph is estimated. An entry heavier than the whole budget
+ * is not kept.
+ */
+public class WeightedCache implements Cache {
+
+  // approximate cost of the key and of the entry in the delegate
+  private static final long ENTRY_WEIGHT = 64;
+
+  private final Cache delegate;
+  private final Map<Object, Long> weights;
+  private long maxWeight;
+  private int size;
+  private long weight;
+  private long evictionCount;
+  private StatsCounter statsCounter;
+
+  public WeightedCache(Cache delegate) {
+    this.delegate = delegate;
+    this.weights = new LinkedHashMap<Object, Long>(16, .75F, true);
+    this.maxWeight = 64L * 1024 * 1024;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  /**
+   * Also bounds the number of entries when greater than 0.
+   */
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public void setMaxWeight(long maxWeight) {
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Returns the estimated size of the cached values in bytes.
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long valueWeight = ENTRY_WEIGHT + SizeEstimator.estimate(value);
+    Long previous = weights.remove(key);
+    if (previous != null) {
+      weight -= previous;
+    }
+    if (valueWeight > maxWeight) {
+      delegate.removeObject(key);
+      recordWeight();
+      return;
+    }
+    delegate.putObject(key, value);
+    weights.put(key, valueWeight);
+    weight += valueWeight;
+    evictEldest();
+    recordWeight();
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    weights.get(key); // touch
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Long removed = weights.remove(key);
+    if (removed != null) {
+      weight -= removed;
+      recordWeight();
+    }
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    weights.clear();
+    weight = 0;
+    recordWeight();
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+    recordWeight();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  private void evictEldest() {
+    Iterator<Map.Entry<Object, Long>> eldest = weights.entrySet().iterator();
+    while (weight > maxWeight || (size > 0 && weights.size() > size)) {
+      Map.Entry<Object, Long> entry = eldest.next();
+      eldest.remove();
+      weight -= entry.getValue();
+      evictionCount++;
+      delegate.removeObject(entry.getKey());
+      if (statsCounter != null) {
+        statsCounter.recordEviction();
+      }
+    }
+  }
+
+  private void recordWeight() {
+    if (statsCounter != null) {
+      statsCounter.recordWeight(weight);
+    }
+  }
+
+}
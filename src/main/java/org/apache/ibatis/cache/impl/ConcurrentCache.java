@@ -0,0 +1,304 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.StatsCounter;
+
+/**
+ * A bounded cache that can be shared by many threads without {@link org.apache.ibatis.cache.decorators.SynchronizedCache}.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap} and are read without locking. Writes are serialized on a
+ * private lock, and when the cache is full the least recently used of a few randomly sampled entries is evicted.
+ * With the {@code TINY_LFU} eviction policy, the access frequency of each key is also estimated in a small
+ * count-min sketch, and a new entry is only admitted when it was requested more often than the entry that would
+ * be evicted for it, which keeps frequently used entries when many entries are used only once.
+ * <p>
+ * Use it with {@code <cache type="CONCURRENT" size="..."/>}, the {@code eviction} attribute does not apply.
+ */
+public class ConcurrentCache implements Cache {
+
+  public static final String LRU = "LRU";
+  public static final String TINY_LFU = "TINY_LFU";
+
+  private static final int SAMPLE_SIZE = 8;
+
+  private final String id;
+  private final ConcurrentMap<Object, Node> entries = new ConcurrentHashMap<Object, Node>();
+
+  private final Object lock = new Object();
+  // guarded by lock
+  private Node[] nodes = new Node[16];
+  private int nodeCount;
+  private final Random random = new Random();
+
+  private volatile int size = 1024;
+  private volatile FrequencySketch sketch;
+  private volatile StatsCounter statsCounter;
+
+  public ConcurrentCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return entries.size();
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+    if (sketch != null) {
+      sketch = new FrequencySketch(size);
+    }
+  }
+
+  public String getEvictionPolicy() {
+    return sketch == null ? LRU : TINY_LFU;
+  }
+
+  public void setEvictionPolicy(String evictionPolicy) {
+    if (LRU.equalsIgnoreCase(evictionPolicy)) {
+      sketch = null;
+    } else if (TINY_LFU.equalsIgnoreCase(evictionPolicy)) {
+      sketch = new FrequencySketch(size);
+    } else {
+      throw new CacheException("Unknown eviction policy '" + evictionPolicy + "' for cache " + id + ", expected " + LRU + " or " + TINY_LFU);
+    }
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    FrequencySketch frequencies = sketch;
+    synchronized (lock) {
+      Node node = entries.get(key);
+      if (node != null) {
+        node.value = value;
+        node.accessTime = System.nanoTime();
+        return;
+      }
+      while (nodeCount > 0 && nodeCount >= size) {
+        Node victim = sampleVictim();
+        if (frequencies != null && frequencies.frequency(key) < frequencies.frequency(victim.key)) {
+          // the new entry is not admitted, which counts as evicting it
+          recordEviction();
+          return;
+        }
+        removeNode(victim);
+        entries.remove(victim.key);
+        recordEviction();
+      }
+      node = new Node(key, value);
+      addNode(node);
+      entries.put(key, node);
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    FrequencySketch frequencies = sketch;
+    if (frequencies != null) {
+      frequencies.increment(key);
+    }
+    Node node = entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    node.accessTime = System.nanoTime();
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    synchronized (lock) {
+      Node node = entries.remove(key);
+      if (node == null) {
+        return null;
+      }
+      removeNode(node);
+      return node.value;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (lock) {
+      entries.clear();
+      nodes = new Node[16];
+      nodeCount = 0;
+    }
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private void recordEviction() {
+    StatsCounter counter = statsCounter;
+    if (counter != null) {
+      counter.recordEviction();
+    }
+  }
+
+  private Node sampleVictim() {
+    Node victim = null;
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      Node candidate = nodes[random.nextInt(nodeCount)];
+      if (victim == null || candidate.accessTime < victim.accessTime) {
+        victim = candidate;
+      }
+    }
+    return victim;
+  }
+
+  private void addNode(Node node) {
+    if (nodeCount == nodes.length) {
+      Node[] grown = new Node[nodes.length * 2];
+      System.arraycopy(nodes, 0, grown, 0, nodeCount);
+      nodes = grown;
+    }
+    node.index = nodeCount;
+    nodes[nodeCount++] = node;
+  }
+
+  private void removeNode(Node node) {
+    Node last = nodes[--nodeCount];
+    nodes[node.index] = last;
+    last.index = node.index;
+    nodes[nodeCount] = null;
+  }
+
+  private static final class Node {
+    private final Object key;
+    private volatile Object value;
+    private volatile long accessTime;
+    // position in nodes, guarded by the lock of the cache
+    private int index;
+
+    Node(Object key, Object value) {
+      this.key = key;
+      this.value = value;
+      this.accessTime = System.nanoTime();
+    }
+  }
+
+  /**
+   * Estimates how often keys were requested recently, counters saturate at 15 and are halved once
+   * ten times more requests than counters were recorded. Updates are not atomic, losing some is harmless.
+   */
+  private static final class FrequencySketch {
+
+    private static final int[] SEEDS = { 0x97cb3127, 0xb8ee4fa5, 0x5e2a87c5, 0xc1d4bbf3 };
+    private static final int MAX_COUNT = 15;
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int size) {
+      int width = Integer.highestOneBit(Math.max(size, 8) * 2 - 1);
+      this.table = new int[SEEDS.length][width];
+      this.mask = width - 1;
+      this.sampleSize = 10 * width;
+    }
+
+    void increment(Object key) {
+      int hash = spread(key.hashCode());
+      for (int i = 0; i < SEEDS.length; i++) {
+        int index = indexOf(hash, i);
+        if (table[i][index] < MAX_COUNT) {
+          table[i][index]++;
+        }
+      }
+      if (++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    int frequency(Object key) {
+      int hash = spread(key.hashCode());
+      int frequency = MAX_COUNT;
+      for (int i = 0; i < SEEDS.length; i++) {
+        frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+      }
+      return frequency;
+    }
+
+    private void reset() {
+      additions = 0;
+      for (int[] row : table) {
+        for (int i = 0; i < row.length; i++) {
+          row[i] >>>= 1;
+        }
+      }
+    }
+
+    private int indexOf(int hash, int i) {
+      int h = hash * SEEDS[i];
+      h ^= h >>> 17;
+      return h & mask;
+    }
+
+    private static int spread(int hash) {
+      int h = hash * 0x9e3779b9;
+      return h ^ (h >>> 16);
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.cache.InvalidationBus;
+
+/**
+ * An {@link InvalidationBus} that delivers the messages synchronously to the listeners of the same JVM.
+ * <p>
+ * It connects the caches of the session factories of one JVM that share a tier, and stands in for a real message
+ * bus in tests. {@link #SHARED} is used by the caches that do not set another bus.
+ *
+ * @since 3.4.7
+ */
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+  public static final LoopbackInvalidationBus SHARED = new LoopbackInvalidationBus();
+
+  private final ConcurrentMap<String, List<Listener>> listeners = new ConcurrentHashMap<String, List<Listener>>();
+
+  @Override
+  public void publish(String cacheId, String source, Object key) {
+    List<Listener> cacheListeners = listeners.get(cacheId);
+    if (cacheListeners != null) {
+      for (Listener listener : cacheListeners) {
+        listener.onInvalidation(source, key);
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(String cacheId, Listener listener) {
+    List<Listener> cacheListeners = listeners.get(cacheId);
+    if (cacheListeners == null) {
+      List<Listener> newListeners = new CopyOnWriteArrayList<Listener>();
+      cacheListeners = listeners.putIfAbsent(cacheId, newListeners);
+      if (cacheListeners == null) {
+        cacheListeners = newListeners;
+      }
+    }
+    cacheListeners.add(listener);
+  }
+
+  @Override
+  public void unsubscribe(String cacheId, Listener listener) {
+    List<Listener> cacheListeners = listeners.get(cacheId);
+    if (cacheListeners != null) {
+      cacheListeners.remove(listener);
+    }
+  }
+
+}
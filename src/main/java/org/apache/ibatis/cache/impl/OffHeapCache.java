@@ -0,0 +1,356 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.BulkCache;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheCodec;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.StatsCounter;
+import org.apache.ibatis.cache.codec.CacheCodecs;
+import org.apache.ibatis.cache.codec.JavaSerializationCodec;
+
+/**
+ * A cache that keeps its values serialized in direct {@link ByteBuffer}s, outside of the Java heap.
+ * <p>
+ * The memory is split in blocks of {@code blockSize} bytes, taken from slabs of {@code slabSize} bytes that are
+ * allocated when first needed, up to {@code maxMemory} bytes. Each value is encoded by the codec (see
+ * {@link CacheCodecs}) into as many blocks as it needs, and the least recently used entries are evicted when there
+ * are not enough free blocks or, if the size is set, when there are more entries than that. Only the keys and a
+ * small index stay on the heap.
+ * <p>
+ * Every read decodes a new copy of the value, so the cache is always read-write and is not wrapped in a
+ * {@link org.apache.ibatis.cache.decorators.SerializedCache}. Use it with {@code <cache type="OFF_HEAP"/>}, the
+ * {@code eviction} and {@code readOnly} attributes do not apply.
+ *
+ * @since 3.4.7
+ */
+public class OffHeapCache implements BulkCache {
+
+  private static final int DEFAULT_BLOCK_SIZE = 512;
+  private static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+  private static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+  private static final int[] NO_BLOCKS = new int[0];
+
+  private final String id;
+
+  // all guarded by this
+  private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+  private final List<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+  private CacheCodec codec = new JavaSerializationCodec();
+  private int blockSize = DEFAULT_BLOCK_SIZE;
+  private int slabSize = DEFAULT_SLAB_SIZE;
+  private long maxMemory = DEFAULT_MAX_MEMORY;
+  private int size = Integer.MAX_VALUE;
+  private int blocksPerSlab;
+  private int maxBlocks;
+  private int[] freeBlocks;
+  private int freeBlockCount;
+  // blocks never used yet start at this index
+  private int nextBlock;
+  private long evictionCount;
+  private StatsCounter statsCounter;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+    layout();
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public synchronized int getSize() {
+    return entries.size();
+  }
+
+  public synchronized void setSize(int size) {
+    this.size = size;
+    while (entries.size() > size) {
+      evictEldest();
+    }
+  }
+
+  public synchronized void setCodec(String codec) {
+    this.codec = CacheCodecs.forName(codec);
+    clear();
+  }
+
+  public synchronized int getBlockSize() {
+    return blockSize;
+  }
+
+  public synchronized void setBlockSize(int blockSize) {
+    this.blockSize = blockSize;
+    layout();
+  }
+
+  public synchronized int getSlabSize() {
+    return slabSize;
+  }
+
+  public synchronized void setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+    layout();
+  }
+
+  public synchronized long getMaxMemory() {
+    return maxMemory;
+  }
+
+  public synchronized void setMaxMemory(long maxMemory) {
+    this.maxMemory = maxMemory;
+    layout();
+  }
+
+  /**
+   * Returns the off-heap memory taken by the blocks of the cached values.
+   */
+  public synchronized long getMemoryUsed() {
+    return (long) (nextBlock - freeBlockCount) * blockSize;
+  }
+
+  /**
+   * Returns the off-heap memory allocated so far, in slabs.
+   */
+  public synchronized long getMemoryAllocated() {
+    return (long) slabs.size() * blocksPerSlab * blockSize;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public synchronized void setStatsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+    recordMemoryUsed();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    byte[] bytes = encode(value);
+    synchronized (this) {
+      store(key, bytes);
+      recordMemoryUsed();
+    }
+  }
+
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    List<byte[]> encoded = new ArrayList<byte[]>(objects.size());
+    for (Object value : objects.values()) {
+      encoded.add(encode(value));
+    }
+    synchronized (this) {
+      Iterator<byte[]> bytes = encoded.iterator();
+      for (Object key : objects.keySet()) {
+        store(key, bytes.next());
+      }
+      recordMemoryUsed();
+    }
+  }
+
+  private byte[] encode(Object value) {
+    try {
+      return codec.encode(value);
+    } catch (Exception e) {
+      throw new CacheException("Error serializing object.  Cause: " + e, e);
+    }
+  }
+
+  private void store(Object key, byte[] bytes) {
+    removeEntry(key);
+    int blockCount = (bytes.length + blockSize - 1) / blockSize;
+    if (blockCount > maxBlocks) {
+      return;
+    }
+    while (!entries.isEmpty() && (entries.size() >= size || freeBlockCount + maxBlocks - nextBlock < blockCount)) {
+      evictEldest();
+    }
+    int[] blocks = blockCount == 0 ? NO_BLOCKS : new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      blocks[i] = allocateBlock();
+      int offset = i * blockSize;
+      ByteBuffer block = block(blocks[i]);
+      block.put(bytes, offset, Math.min(blockSize, bytes.length - offset));
+    }
+    entries.put(key, new Entry(blocks, bytes.length));
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    byte[] bytes;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      bytes = new byte[entry.length];
+      for (int i = 0; i < entry.blocks.length; i++) {
+        int offset = i * blockSize;
+        block(entry.blocks[i]).get(bytes, offset, Math.min(blockSize, bytes.length - offset));
+      }
+    }
+    try {
+      return codec.decode(bytes);
+    } catch (Exception e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public synchronized Object removeObject(Object key) {
+    removeEntry(key);
+    recordMemoryUsed();
+    return null;
+  }
+
+  @Override
+  public synchronized void clear() {
+    entries.clear();
+    freeBlockCount = 0;
+    nextBlock = 0;
+    recordMemoryUsed();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "OffHeapCache[" + id + "] entries: " + entries.size() + ", memory used: " + getMemoryUsed()
+        + ", memory allocated: " + getMemoryAllocated() + ", evictions: " + evictionCount;
+  }
+
+  private void layout() {
+    if (blockSize <= 0 || slabSize < blockSize || maxMemory < blockSize) {
+      throw new CacheException("Invalid off-heap cache layout, block size: " + blockSize + ", slab size: " + slabSize
+          + ", max memory: " + maxMemory);
+    }
+    entries.clear();
+    slabs.clear();
+    blocksPerSlab = slabSize / blockSize;
+    maxBlocks = (int) Math.min(maxMemory / blockSize, Integer.MAX_VALUE);
+    freeBlocks = new int[16];
+    freeBlockCount = 0;
+    nextBlock = 0;
+  }
+
+  private void evictEldest() {
+    Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+    Entry eldest = iterator.next().getValue();
+    iterator.remove();
+    freeBlocks(eldest);
+    evictionCount++;
+    if (statsCounter != null) {
+      statsCounter.recordEviction();
+    }
+  }
+
+  private void recordMemoryUsed() {
+    if (statsCounter != null) {
+      statsCounter.recordWeight(getMemoryUsed());
+    }
+  }
+
+  private void removeEntry(Object key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      freeBlocks(entry);
+    }
+  }
+
+  private void freeBlocks(Entry entry) {
+    if (freeBlockCount + entry.blocks.length > freeBlocks.length) {
+      int[] grown = new int[Math.max(freeBlocks.length * 2, freeBlockCount + entry.blocks.length)];
+      System.arraycopy(freeBlocks, 0, grown, 0, freeBlockCount);
+      freeBlocks = grown;
+    }
+    System.arraycopy(entry.blocks, 0, freeBlocks, freeBlockCount, entry.blocks.length);
+    freeBlockCount += entry.blocks.length;
+  }
+
+  private int allocateBlock() {
+    if (freeBlockCount > 0) {
+      return freeBlocks[--freeBlockCount];
+    }
+    int block = nextBlock++;
+    if (block / blocksPerSlab == slabs.size()) {
+      int blocks = (int) Math.min(blocksPerSlab, (long) maxBlocks - block);
+      slabs.add(ByteBuffer.allocateDirect(blocks * blockSize));
+    }
+    return block;
+  }
+
+  // the returned buffer is shared, it is positioned at the start of the block
+  private ByteBuffer block(int block) {
+    ByteBuffer slab = slabs.get(block / blocksPerSlab);
+    int offset = (block % blocksPerSlab) * blockSize;
+    slab.limit(offset + blockSize);
+    slab.position(offset);
+    return slab;
+  }
+
+  private static class Entry {
+    private final int[] blocks;
+    private final int length;
+
+    Entry(int[] blocks, int length) {
+      this.blocks = blocks;
+      this.length = length;
+    }
+  }
+
+}
@@ -19,13 +19,14 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.ibatis.cache.BulkCache;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
 
 /**
  * @author Clinton Begin
  */
-public class PerpetualCache implements Cache {
+public class PerpetualCache implements BulkCache {
 
   private final String id;
 
@@ -50,6 +51,11 @@ public class PerpetualCache implements Cache {
     cache.put(key, value);
   }
 
+  @Override
+  public void putObjects(Map<Object, Object> objects) {
+    cache.putAll(objects);
+  }
+
   @Override
   public Object getObject(Object key) {
     return cache.get(key);
@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.StatsCounter;
+
+/**
+ * Keeps the statistics of a cache in memory.
+ *
+ * @since 3.4.7
+ */
+public class SimpleStatsCounter implements StatsCounter {
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong putCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
+  private volatile long weight = -1;
+
+  @Override
+  public void recordHits(int count) {
+    hitCount.addAndGet(count);
+  }
+
+  @Override
+  public void recordMisses(int count) {
+    missCount.addAndGet(count);
+  }
+
+  @Override
+  public void recordPuts(int count) {
+    putCount.addAndGet(count);
+  }
+
+  @Override
+  public void recordEviction() {
+    evictionCount.incrementAndGet();
+  }
+
+  @Override
+  public void recordLoad(long loadTime) {
+    loadCount.incrementAndGet();
+    totalLoadTime.addAndGet(loadTime);
+  }
+
+  @Override
+  public void recordWeight(long weight) {
+    this.weight = weight;
+  }
+
+  @Override
+  public CacheStats snapshot() {
+    return new CacheStats(hitCount.get(), missCount.get(), putCount.get(), evictionCount.get(), loadCount.get(),
+        totalLoadTime.get(), -1, weight);
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import org.apache.ibatis.cache.StatsCounter;
+import org.apache.ibatis.cache.StatsCounterFactory;
+
+/**
+ * The default {@link StatsCounterFactory}, creates {@link SimpleStatsCounter}s.
+ *
+ * @since 3.4.7
+ */
+public class SimpleStatsCounterFactory implements StatsCounterFactory {
+
+  @Override
+  public StatsCounter newStatsCounter(String cacheId) {
+    return new SimpleStatsCounter();
+  }
+
+}
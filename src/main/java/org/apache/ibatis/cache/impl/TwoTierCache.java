@@ -0,0 +1,230 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.InvalidationBus;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * A cache that keeps a small near copy of a shared tier, for applications that run on many nodes.
+ * <p>
+ * Reads are served from the near tier, a {@link ConcurrentCache} bounded by the size of the cache, and fall back to
+ * the shared tier, the cache named by the {@code sharedCache} property (it must have a constructor that takes the id
+ * and be thread safe). Writes go to both tiers, and the invalidated key, or the whole namespace when the cache is
+ * cleared, is published on the {@link InvalidationBus} named by the {@code invalidationBus} property so the other
+ * nodes drop it from their near tier. Without that property the caches of this JVM share
+ * {@link LoopbackInvalidationBus#SHARED}.
+ * <p>
+ * A value read from the shared tier while an invalidation arrives is not kept in the near tier, so it never serves
+ * a value that was invalidated after it was read. Use it with {@code <cache type="TWO_TIER" size="..."/>}, the
+ * {@code eviction} attribute does not apply.
+ *
+ * @since 3.4.7
+ */
+public class TwoTierCache implements Cache, InitializingObject {
+
+  public static final String LOOPBACK = "LOOPBACK";
+
+  private static final int DEFAULT_NEAR_SIZE = 256;
+
+  private final String id;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ConcurrentCache near;
+  // incremented before each invalidation of the near tier
+  private final AtomicLong invalidations = new AtomicLong();
+  private String sharedCacheType;
+  private String invalidationBusType;
+  private Cache shared;
+  private InvalidationBus bus;
+
+  public TwoTierCache(String id) {
+    this.id = id;
+    this.near = new ConcurrentCache(id);
+    this.near.setSize(DEFAULT_NEAR_SIZE);
+  }
+
+  public TwoTierCache(String id, Cache shared, InvalidationBus bus) {
+    this(id);
+    this.shared = shared;
+    this.bus = bus;
+    bus.subscribe(id, new NearInvalidator(this, bus));
+  }
+
+  @Override
+  public void initialize() throws Exception {
+    if (shared == null) {
+      if (sharedCacheType == null) {
+        throw new CacheException("The sharedCache property is required by the two tier cache " + id);
+      }
+      shared = (Cache) Resources.classForName(sharedCacheType).getConstructor(String.class).newInstance(id);
+    }
+    if (bus == null) {
+      if (invalidationBusType == null || LOOPBACK.equalsIgnoreCase(invalidationBusType)) {
+        bus = LoopbackInvalidationBus.SHARED;
+      } else {
+        bus = (InvalidationBus) Resources.classForName(invalidationBusType).newInstance();
+      }
+      bus.subscribe(id, new NearInvalidator(this, bus));
+    }
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the number of entries of the shared tier.
+   */
+  @Override
+  public int getSize() {
+    return shared.getSize();
+  }
+
+  public int getNearSize() {
+    return near.getSize();
+  }
+
+  public void setSize(int size) {
+    near.setSize(size);
+  }
+
+  public void setSharedCache(String sharedCache) {
+    this.sharedCacheType = sharedCache;
+  }
+
+  public void setInvalidationBus(String invalidationBus) {
+    this.invalidationBusType = invalidationBus;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    invalidations.incrementAndGet();
+    shared.putObject(key, value);
+    near.putObject(key, value);
+    bus.publish(id, nodeId, key);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Object value = near.getObject(key);
+    if (value != null) {
+      return value;
+    }
+    long seen = invalidations.get();
+    value = shared.getObject(key);
+    if (value != null) {
+      near.putObject(key, value);
+      if (invalidations.get() != seen) {
+        // may have been invalidated before it was put
+        near.removeObject(key);
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    invalidations.incrementAndGet();
+    Object value = shared.removeObject(key);
+    near.removeObject(key);
+    bus.publish(id, nodeId, key);
+    return value;
+  }
+
+  @Override
+  public void clear() {
+    invalidations.incrementAndGet();
+    shared.clear();
+    near.clear();
+    bus.publish(id, nodeId, null);
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private void invalidateNear(String source, Object key) {
+    if (nodeId.equals(source)) {
+      return;
+    }
+    invalidations.incrementAndGet();
+    if (key == null) {
+      near.clear();
+    } else {
+      near.removeObject(key);
+    }
+  }
+
+  // does not keep the cache reachable from a bus that outlives its session factory
+  private static class NearInvalidator implements InvalidationBus.Listener {
+
+    private final String id;
+    private final WeakReference<TwoTierCache> cache;
+    private final InvalidationBus bus;
+
+    NearInvalidator(TwoTierCache cache, InvalidationBus bus) {
+      this.id = cache.getId();
+      this.cache = new WeakReference<TwoTierCache>(cache);
+      this.bus = bus;
+    }
+
+    @Override
+    public void onInvalidation(String source, Object key) {
+      TwoTierCache twoTierCache = cache.get();
+      if (twoTierCache == null) {
+        bus.unsubscribe(id, this);
+        return;
+      }
+      twoTierCache.invalidateNear(source, key);
+    }
+
+  }
+
+}
@@ -0,0 +1,214 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A cursor that fetches and maps the rows of a {@link DefaultCursor} on a background thread, up to
+ * {@code prefetchSize} rows ahead of the consumer.
+ * <p>
+ * The background thread starts when the first row is requested and is the only one to use the result set until the
+ * cursor is consumed or closed, so fetching, mapping and consuming the rows overlap. An exception thrown while
+ * fetching or mapping is thrown to the consumer once the rows mapped before it have been consumed. As the
+ * background thread uses the connection of the session, the session must not run other statements, commit or roll
+ * back until the cursor is consumed or closed. This implementation is not thread safe.
+ *
+ * @since 3.4.7
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object END = new Object();
+
+  private final DefaultCursor<T> delegate;
+  private final RowBounds rowBounds;
+  private final String name;
+  private final BlockingQueue<Object> rows;
+  private final CountDownLatch producerDone = new CountDownLatch(1);
+  private final CursorIterator cursorIterator = new CursorIterator();
+  private boolean iteratorRetrieved;
+
+  // set by the consumer to stop the background thread
+  private volatile boolean closeRequested;
+  private volatile Throwable failure;
+
+  private CursorStatus status = CursorStatus.CREATED;
+
+  private enum CursorStatus {
+    CREATED, OPEN, CLOSED, CONSUMED
+  }
+
+  /**
+   * @param name the name of the background thread
+   */
+  public PrefetchingCursor(DefaultCursor<T> delegate, RowBounds rowBounds, int prefetchSize, String name) {
+    this.delegate = delegate;
+    this.rowBounds = rowBounds;
+    this.name = name;
+    this.rows = new ArrayBlockingQueue<Object>(prefetchSize);
+  }
+
+  @Override
+  public boolean isOpen() {
+    return status == CursorStatus.OPEN;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return status == CursorStatus.CONSUMED;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return rowBounds.getOffset() + cursorIterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    iteratorRetrieved = true;
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (status == CursorStatus.CREATED) {
+      delegate.close();
+      status = CursorStatus.CLOSED;
+    } else if (status == CursorStatus.OPEN) {
+      closeRequested = true;
+      try {
+        // unblocks the background thread if it waits for room, it closes the result set when it stops
+        do {
+          rows.clear();
+        } while (!producerDone.await(10, TimeUnit.MILLISECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      status = CursorStatus.CLOSED;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected T fetchNextObject() {
+    if (status == CursorStatus.CLOSED || status == CursorStatus.CONSUMED) {
+      return null;
+    }
+    if (status == CursorStatus.CREATED) {
+      startProducer();
+      status = CursorStatus.OPEN;
+    }
+    Object next;
+    try {
+      next = rows.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new ExecutorException("Interrupted while waiting for the next row of " + name, e);
+    }
+    if (next == END) {
+      status = CursorStatus.CONSUMED;
+      Throwable e = failure;
+      if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      } else if (e instanceof Error) {
+        throw (Error) e;
+      } else if (e != null) {
+        throw new ExecutorException("Error fetching the rows of " + name + ".  Cause: " + e, e);
+      }
+      return null;
+    }
+    return (T) next;
+  }
+
+  private void startProducer() {
+    Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        produce();
+      }
+    }, "mybatis-cursor-" + name);
+    producer.setDaemon(true);
+    producer.start();
+  }
+
+  private void produce() {
+    try {
+      Iterator<T> iterator = delegate.iterator();
+      while (!closeRequested && iterator.hasNext()) {
+        rows.put(iterator.next());
+      }
+    } catch (Throwable e) {
+      failure = e;
+    } finally {
+      delegate.close();
+      try {
+        if (!closeRequested) {
+          rows.put(END);
+        }
+      } catch (InterruptedException e) {
+        // the consumer is gone
+      }
+      producerDone.countDown();
+    }
+  }
+
+  private class CursorIterator implements Iterator<T> {
+
+    T object;
+
+    int iteratorIndex = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (object == null) {
+        object = fetchNextObject();
+      }
+      return object != null;
+    }
+
+    @Override
+    public T next() {
+      T next = object;
+      if (next == null) {
+        next = fetchNextObject();
+      }
+      if (next != null) {
+        object = null;
+        iteratorIndex++;
+        return next;
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+
+}
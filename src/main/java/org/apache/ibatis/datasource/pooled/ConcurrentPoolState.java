@@ -0,0 +1,100 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+/**
+ * Statistics of a {@link ConcurrentPooledDataSource}.
+ * <p>
+ * Counters are striped and updated without locking, so the values read here are a close
+ * approximation while the pool is busy and exact once it is quiet.
+ */
+public class ConcurrentPoolState extends PoolState {
+
+  private final ConcurrentPooledDataSource pool;
+
+  final StripedCounter requestCounter = new StripedCounter();
+  final StripedCounter accumulatedRequestTimeCounter = new StripedCounter();
+  final StripedCounter accumulatedCheckoutTimeCounter = new StripedCounter();
+  final StripedCounter claimedOverdueConnectionCounter = new StripedCounter();
+  final StripedCounter accumulatedCheckoutTimeOfOverdueConnectionsCounter = new StripedCounter();
+  final StripedCounter accumulatedWaitTimeCounter = new StripedCounter();
+  final StripedCounter hadToWaitCounter = new StripedCounter();
+  final StripedCounter badConnectionCounter = new StripedCounter();
+
+  public ConcurrentPoolState(ConcurrentPooledDataSource dataSource) {
+    super(dataSource);
+    this.pool = dataSource;
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCounter.sum();
+  }
+
+  @Override
+  public long getAverageRequestTime() {
+    long requests = requestCounter.sum();
+    return requests == 0 ? 0 : accumulatedRequestTimeCounter.sum() / requests;
+  }
+
+  @Override
+  public long getAverageWaitTime() {
+    long waits = hadToWaitCounter.sum();
+    return waits == 0 ? 0 : accumulatedWaitTimeCounter.sum() / waits;
+  }
+
+  @Override
+  public long getHadToWaitCount() {
+    return hadToWaitCounter.sum();
+  }
+
+  @Override
+  public long getBadConnectionCount() {
+    return badConnectionCounter.sum();
+  }
+
+  @Override
+  public long getClaimedOverdueConnectionCount() {
+    return claimedOverdueConnectionCounter.sum();
+  }
+
+  @Override
+  public long getAverageOverdueCheckoutTime() {
+    long overdue = claimedOverdueConnectionCounter.sum();
+    return overdue == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnectionsCounter.sum() / overdue;
+  }
+
+  @Override
+  public long getAverageCheckoutTime() {
+    long requests = requestCounter.sum();
+    return requests == 0 ? 0 : accumulatedCheckoutTimeCounter.sum() / requests;
+  }
+
+  @Override
+  public int getIdleConnectionCount() {
+    return pool.idleConnections.size();
+  }
+
+  @Override
+  public int getActiveConnectionCount() {
+    return pool.activeConnections.size();
+  }
+
+  public int getWaitingThreadCount() {
+    return pool.idleConnections.getWaitingThreadCount();
+  }
+
+}
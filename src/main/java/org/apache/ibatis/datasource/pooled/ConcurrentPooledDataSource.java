@@ -0,0 +1,346 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A variant of {@link PooledDataSource} that does not serialize checkouts and returns on a single monitor.
+ * <p>
+ * Idle connections are kept in a {@link ConnectionBag} with thread affinity and lock free handoff to
+ * waiting threads, the number of open connections is bounded with a CAS counter and statistics are
+ * kept in striped counters. Configuration properties and {@link PooledConnection} semantics are the same
+ * as those of {@link PooledDataSource}.
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private final ConcurrentPoolState state = new ConcurrentPoolState(this);
+
+  final ConnectionBag idleConnections = new ConnectionBag();
+  final Map<ActiveKey, PooledConnection> activeConnections = new ConcurrentHashMap<ActiveKey, PooledConnection>();
+  // connections that are open or being opened, checked out or idle
+  private final AtomicInteger openCount = new AtomicInteger();
+
+  public ConcurrentPooledDataSource() {
+    super();
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    super(driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    super(driver, url, driverProperties);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    super(driverClassLoader, driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    super(driverClassLoader, driver, url, driverProperties);
+  }
+
+  @Override
+  public PoolState getPoolState() {
+    return state;
+  }
+
+  /*
+   * Closes all active and idle connections in the pool
+   */
+  @Override
+  public void forceCloseAll() {
+    expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    for (Map.Entry<ActiveKey, PooledConnection> entry : activeConnections.entrySet()) {
+      if (activeConnections.remove(entry.getKey()) != null) {
+        openCount.decrementAndGet();
+        closeQuietly(entry.getValue());
+      }
+    }
+    for (PooledConnection conn : idleConnections.drain()) {
+      openCount.decrementAndGet();
+      closeQuietly(conn);
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("ConcurrentPooledDataSource forcefully closed/removed all connections.");
+    }
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    if (activeConnections.remove(new ActiveKey(conn)) == null) {
+      // already reclaimed as overdue, closed twice or checked out before forceCloseAll()
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCounter.increment();
+      return;
+    }
+    // the slot of the connection is given back unless it returns to the idle connections, even if this fails
+    boolean pooled = false;
+    boolean failed = true;
+    try {
+      if (conn.isValid()) {
+        state.accumulatedCheckoutTimeCounter.add(conn.getCheckoutTime());
+        if (!conn.getRealConnection().getAutoCommit()) {
+          conn.getRealConnection().rollback();
+        }
+        if (conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+          PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
+          newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+          newConn.setStatementCache(conn.getStatementCache());
+          conn.invalidate();
+          if (idleConnections.offer(newConn, poolMaximumIdleConnections)) {
+            pooled = true;
+            if (log.isDebugEnabled()) {
+              log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
+            }
+            return;
+          }
+        }
+        conn.getRealConnection().close();
+        if (log.isDebugEnabled()) {
+          log.debug("Closed connection " + conn.getRealHashCode() + ".");
+        }
+        conn.invalidate();
+      } else {
+        if (log.isDebugEnabled()) {
+          log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+        }
+        state.badConnectionCounter.increment();
+      }
+      failed = false;
+    } finally {
+      if (!pooled) {
+        if (failed) {
+          if (log.isDebugEnabled()) {
+            log.debug("Could not return connection " + conn.getRealHashCode() + " to pool, discarding connection.");
+          }
+          state.badConnectionCounter.increment();
+          closeQuietly(conn);
+        }
+        openCount.decrementAndGet();
+        idleConnections.wakeUp();
+      }
+    }
+  }
+
+  @Override
+  protected PooledConnection popConnection(String username, String password) throws SQLException {
+    boolean countedWait = false;
+    PooledConnection conn = null;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (conn == null) {
+      conn = idleConnections.borrow();
+      if (conn != null) {
+        // Pool has available connection
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+        }
+      } else if (reserveSlot()) {
+        // Can create new connection
+        try {
+          conn = new PooledConnection(dataSource.getConnection(), this);
+        } catch (SQLException e) {
+          openCount.decrementAndGet();
+          idleConnections.wakeUp();
+          throw e;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Created connection " + conn.getRealHashCode() + ".");
+        }
+      } else {
+        conn = claimOverdueConnection();
+        if (conn == null) {
+          // Must wait
+          if (!countedWait) {
+            state.hadToWaitCounter.increment();
+            countedWait = true;
+          }
+          if (log.isDebugEnabled()) {
+            log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+          }
+          long wt = System.currentTimeMillis();
+          try {
+            conn = idleConnections.borrow(poolTimeToWait, TimeUnit.MILLISECONDS);
+          } catch (InterruptedException e) {
+            break;
+          } finally {
+            state.accumulatedWaitTimeCounter.add(System.currentTimeMillis() - wt);
+          }
+        }
+      }
+      if (conn != null) {
+        // ping to server and check the connection is valid or not
+        if (conn.isValid()) {
+          try {
+            if (!conn.getRealConnection().getAutoCommit()) {
+              conn.getRealConnection().rollback();
+            }
+          } catch (SQLException e) {
+            closeQuietly(conn);
+            openCount.decrementAndGet();
+            idleConnections.wakeUp();
+            throw e;
+          }
+          conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+          conn.setCheckoutTimestamp(System.currentTimeMillis());
+          conn.setLastUsedTimestamp(System.currentTimeMillis());
+          activeConnections.put(new ActiveKey(conn), conn);
+          state.requestCounter.increment();
+          state.accumulatedRequestTimeCounter.add(System.currentTimeMillis() - t);
+        } else {
+          if (log.isDebugEnabled()) {
+            log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+          }
+          closeQuietly(conn);
+          openCount.decrementAndGet();
+          idleConnections.wakeUp();
+          state.badConnectionCounter.increment();
+          localBadConnectionCount++;
+          conn = null;
+          if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+            if (log.isDebugEnabled()) {
+              log.debug("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+            }
+            throw new SQLException("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+          }
+        }
+      }
+    }
+
+    if (conn == null) {
+      if (log.isDebugEnabled()) {
+        log.debug("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+      }
+      throw new SQLException("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+    }
+
+    return conn;
+  }
+
+  private boolean reserveSlot() {
+    for (;;) {
+      int current = openCount.get();
+      if (current >= poolMaximumActiveConnections) {
+        return false;
+      }
+      if (openCount.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private PooledConnection claimOverdueConnection() {
+    Map.Entry<ActiveKey, PooledConnection> oldest = null;
+    for (Map.Entry<ActiveKey, PooledConnection> entry : activeConnections.entrySet()) {
+      if (oldest == null || entry.getValue().getCheckoutTimestamp() < oldest.getValue().getCheckoutTimestamp()) {
+        oldest = entry;
+      }
+    }
+    if (oldest == null) {
+      return null;
+    }
+    PooledConnection oldestActiveConnection = oldest.getValue();
+    long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
+    if (longestCheckoutTime <= poolMaximumCheckoutTime || activeConnections.remove(oldest.getKey()) == null) {
+      return null;
+    }
+    // Can claim overdue connection, its slot is handed over as is
+    state.claimedOverdueConnectionCounter.increment();
+    state.accumulatedCheckoutTimeOfOverdueConnectionsCounter.add(longestCheckoutTime);
+    state.accumulatedCheckoutTimeCounter.add(longestCheckoutTime);
+    try {
+      if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
+        oldestActiveConnection.getRealConnection().rollback();
+      }
+    } catch (SQLException e) {
+      // the connection will be validated by the caller, see PooledDataSource#popConnection()
+      log.debug("Bad connection. Could not roll back");
+    }
+    PooledConnection conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+    conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
+    conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+    conn.setStatementCache(oldestActiveConnection.getStatementCache());
+    oldestActiveConnection.invalidate();
+    if (log.isDebugEnabled()) {
+      log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+    }
+    return conn;
+  }
+
+  private void closeQuietly(PooledConnection conn) {
+    conn.invalidate();
+    Connection realConn = conn.getRealConnection();
+    try {
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+    } catch (Exception e) {
+      // ignore, the connection is closed anyway
+    }
+    try {
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  /**
+   * {@link PooledConnection} compares by the wrapped connection, but a reclaimed overdue connection
+   * is wrapped twice and both wrappers must be told apart.
+   */
+  static final class ActiveKey {
+
+    private final PooledConnection connection;
+
+    ActiveKey(PooledConnection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(connection);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ActiveKey && ((ActiveKey) obj).connection == connection;
+    }
+
+  }
+
+}
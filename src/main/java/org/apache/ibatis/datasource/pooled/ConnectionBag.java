@@ -0,0 +1,207 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock free holder of idle connections used by {@link ConcurrentPooledDataSource}.
+ * <p>
+ * Every idle connection is published in a shared queue and, additionally, in a short list owned by the
+ * thread that returned it, so a thread that repeatedly borrows and returns gets its own connection back
+ * without touching shared state. Ownership of an entry is decided by a single CAS. Threads that find the
+ * bag empty park on a {@link SynchronousQueue} and returned connections are handed to them directly.
+ */
+class ConnectionBag {
+
+  private static final int MAX_THREAD_LOCAL_ENTRIES = 16;
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+  /**
+   * Sent to a waiting thread when a slot was released without an idle connection being added,
+   * so the waiter can try to open a new connection instead of sleeping until its timeout.
+   */
+  private static final Entry WAKE_UP = new Entry(null);
+
+  static {
+    WAKE_UP.claim();
+  }
+
+  private final ConcurrentLinkedQueue<Entry> sharedEntries = new ConcurrentLinkedQueue<Entry>();
+  private final ThreadLocal<List<Entry>> threadEntries = new ThreadLocal<List<Entry>>() {
+    @Override
+    protected List<Entry> initialValue() {
+      return new ArrayList<Entry>(MAX_THREAD_LOCAL_ENTRIES);
+    }
+  };
+  private final SynchronousQueue<Entry> handoffQueue = new SynchronousQueue<Entry>(true);
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  /*
+   * Takes an idle connection without waiting.
+   *
+   * @return an idle connection or null if there is none
+   */
+  public PooledConnection borrow() {
+    List<Entry> local = threadEntries.get();
+    for (int i = local.size() - 1; i >= 0; i--) {
+      Entry entry = local.remove(i);
+      if (entry.claim()) {
+        sharedEntries.remove(entry);
+        size.decrementAndGet();
+        return entry.connection;
+      }
+    }
+    Entry entry;
+    while ((entry = sharedEntries.poll()) != null) {
+      if (entry.claim()) {
+        size.decrementAndGet();
+        return entry.connection;
+      }
+    }
+    return null;
+  }
+
+  /*
+   * Takes an idle connection, waiting for another thread to return one if the bag is empty.
+   *
+   * @return an idle connection or null if the timeout elapsed or {@link #wakeUp()} was called
+   */
+  public PooledConnection borrow(long timeout, TimeUnit unit) throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      long remaining;
+      do {
+        PooledConnection conn = borrow();
+        if (conn != null) {
+          return conn;
+        }
+        Entry entry = handoffQueue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (entry == WAKE_UP) {
+          return null;
+        }
+        if (entry != null && entry.claim()) {
+          sharedEntries.remove(entry);
+          size.decrementAndGet();
+          return entry.connection;
+        }
+        remaining = deadline - System.nanoTime();
+      } while (remaining > 0);
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /*
+   * Adds an idle connection unless the bag already holds maxSize connections.
+   *
+   * @return true if the connection was added
+   */
+  public boolean offer(PooledConnection conn, int maxSize) {
+    for (;;) {
+      int current = size.get();
+      if (current >= maxSize) {
+        return false;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        break;
+      }
+    }
+    Entry entry = new Entry(conn);
+    sharedEntries.offer(entry);
+    List<Entry> local = threadEntries.get();
+    if (local.size() >= MAX_THREAD_LOCAL_ENTRIES) {
+      local.remove(0);
+    }
+    local.add(entry);
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.isClaimed() || handoffQueue.offer(entry)) {
+        break;
+      }
+      if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(PARK_NANOS);
+      } else {
+        Thread.yield();
+      }
+    }
+    return true;
+  }
+
+  /*
+   * Wakes up one waiting thread, if any, without giving it a connection.
+   */
+  public void wakeUp() {
+    if (waiters.get() > 0) {
+      handoffQueue.offer(WAKE_UP);
+    }
+  }
+
+  /*
+   * Removes all the idle connections from the bag.
+   *
+   * @return the removed connections
+   */
+  public List<PooledConnection> drain() {
+    List<PooledConnection> drained = new ArrayList<PooledConnection>();
+    Entry entry;
+    while ((entry = sharedEntries.poll()) != null) {
+      if (entry.claim()) {
+        size.decrementAndGet();
+        drained.add(entry.connection);
+      }
+    }
+    threadEntries.get().clear();
+    return drained;
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  public int getWaitingThreadCount() {
+    return waiters.get();
+  }
+
+  private static final class Entry {
+
+    private final PooledConnection connection;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private Entry(PooledConnection connection) {
+      this.connection = connection;
+    }
+
+    private boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    private boolean isClaimed() {
+      return claimed.get();
+    }
+
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Clinton Begin
@@ -35,6 +36,9 @@ public class PoolState {
   protected long accumulatedWaitTime = 0;
   protected long hadToWaitCount = 0;
   protected long badConnectionCount = 0;
+  protected final AtomicLong statementCacheHitCounter = new AtomicLong();
+  protected final AtomicLong statementCacheMissCounter = new AtomicLong();
+  protected final AtomicLong statementCacheEvictionCounter = new AtomicLong();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
@@ -73,6 +77,23 @@ public class PoolState {
     return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
   }
 
+  public long getStatementCacheHitCount() {
+    return statementCacheHitCounter.get();
+  }
+
+  public long getStatementCacheMissCount() {
+    return statementCacheMissCounter.get();
+  }
+
+  public long getStatementCacheEvictionCount() {
+    return statementCacheEvictionCounter.get();
+  }
+
+  public double getStatementCacheHitRatio() {
+    long hits = statementCacheHitCounter.get();
+    long requests = hits + statementCacheMissCounter.get();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
 
   public synchronized int getIdleConnectionCount() {
     return idleConnections.size();
@@ -97,6 +118,7 @@ public class PoolState {
     builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
     builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
     builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+    builder.append("\n poolMaxCachedStatements        ").append(dataSource.poolMaximumCachedStatements);
     builder.append("\n ---STATUS-----------------------------------------------------");
     builder.append("\n activeConnections              ").append(getActiveConnectionCount());
     builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -108,6 +130,9 @@ public class PoolState {
     builder.append("\n hadToWait                      ").append(getHadToWaitCount());
     builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
     builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+    builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+    builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
+    builder.append("\n statementCacheEvictions        ").append(getStatementCacheEvictionCount());
     builder.append("\n===============================================================");
     return builder.toString();
   }
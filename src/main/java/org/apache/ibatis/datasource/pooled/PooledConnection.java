@@ -40,6 +40,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
 
   /*
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in
@@ -199,6 +200,24 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
 
+  /*
+   * Getter for the cache of the prepared statements of the real connection
+   *
+   * @return the cache, or null when no statement was cached yet
+   */
+  public PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /*
+   * Setter for the cache of the prepared statements of the real connection
+   *
+   * @param statementCache - the cache
+   */
+  public void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -242,6 +261,12 @@ class PooledConnection implements InvocationHandler {
           // throw an SQLException instead of a Runtime
           checkConnection();
         }
+        if (dataSource.poolMaximumCachedStatements > 0 && PooledStatementCache.isPrepareStatement(method)) {
+          if (statementCache == null) {
+            statementCache = new PooledStatementCache(dataSource.poolMaximumCachedStatements, dataSource.getPoolState());
+          }
+          return statementCache.prepareStatement(this, method, args);
+        }
         return method.invoke(realConnection, args);
       } catch (Throwable t) {
         throw ExceptionUtil.unwrapThrowable(t);
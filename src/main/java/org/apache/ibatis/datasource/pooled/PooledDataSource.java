@@ -43,7 +43,7 @@ public class PooledDataSource implements DataSource {
 
   private final PoolState state = new PoolState(this);
 
-  private final UnpooledDataSource dataSource;
+  protected final UnpooledDataSource dataSource;
 
   // OPTIONAL CONFIGURATION FIELDS
   protected int poolMaximumActiveConnections = 10;
@@ -54,8 +54,9 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolMaximumCachedStatements;
 
-  private int expectedConnectionTypeCode;
+  protected volatile int expectedConnectionTypeCode;
 
   public PooledDataSource() {
     dataSource = new UnpooledDataSource();
@@ -236,6 +237,18 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /*
+   * The maximum number of closed prepared statements kept open by each connection, so they are not
+   * prepared again by the next sessions that get the connection. 0 disables the statement cache.
+   *
+   * @param poolMaximumCachedStatements the number of statements
+   * @since 3.4.7
+   */
+  public void setPoolMaximumCachedStatements(int poolMaximumCachedStatements) {
+    this.poolMaximumCachedStatements = poolMaximumCachedStatements;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -296,6 +309,10 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  public int getPoolMaximumCachedStatements() {
+    return poolMaximumCachedStatements;
+  }
+
   /*
    * Closes all active and idle connections in the pool
    */
@@ -340,7 +357,7 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  protected int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
@@ -358,6 +375,7 @@ public class PooledDataSource implements DataSource {
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+          newConn.setStatementCache(conn.getStatementCache());
           conn.invalidate();
           if (log.isDebugEnabled()) {
             log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
@@ -383,7 +401,7 @@ public class PooledDataSource implements DataSource {
     }
   }
 
-  private PooledConnection popConnection(String username, String password) throws SQLException {
+  protected PooledConnection popConnection(String username, String password) throws SQLException {
     boolean countedWait = false;
     PooledConnection conn = null;
     long t = System.currentTimeMillis();
@@ -433,6 +451,7 @@ public class PooledDataSource implements DataSource {
               conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+              conn.setStatementCache(oldestActiveConnection.getStatementCache());
               oldestActiveConnection.invalidate();
               if (log.isDebugEnabled()) {
                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
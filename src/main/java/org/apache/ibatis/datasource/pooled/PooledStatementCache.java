@@ -0,0 +1,232 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Keeps the prepared statements of a pooled connection open after they are closed, so the sessions that get the
+ * same connection from the pool do not prepare the same SQL again.
+ * <p>
+ * A cache belongs to a real connection and follows it each time the connection is returned to the pool. A closed
+ * statement is cleared and kept idle until it is prepared again, at most {@code size} statements are kept and the
+ * least recently used one is really closed first. A statement is never handed out twice while it is open.
+ */
+class PooledStatementCache {
+
+  private static final String PREPARE_STATEMENT = "prepareStatement";
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final PoolState state;
+  private final Map<StatementKey, PreparedStatement> idleStatements;
+
+  PooledStatementCache(final int size, PoolState state) {
+    this.state = state;
+    this.idleStatements = new LinkedHashMap<StatementKey, PreparedStatement>(16, .75F, true) {
+      private static final long serialVersionUID = 7263813384640392613L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+        boolean tooBig = size() > size;
+        if (tooBig) {
+          PooledStatementCache.this.state.statementCacheEvictionCounter.incrementAndGet();
+          closeQuietly(eldest.getValue());
+        }
+        return tooBig;
+      }
+    };
+  }
+
+  static boolean isPrepareStatement(Method method) {
+    return PREPARE_STATEMENT.equals(method.getName());
+  }
+
+  PreparedStatement prepareStatement(PooledConnection connection, Method method, Object[] args) throws Throwable {
+    StatementKey key = new StatementKey(method.getParameterTypes().length, args);
+    PreparedStatement statement;
+    synchronized (this) {
+      statement = idleStatements.remove(key);
+    }
+    if (statement != null) {
+      state.statementCacheHitCounter.incrementAndGet();
+    } else {
+      state.statementCacheMissCounter.incrementAndGet();
+      try {
+        statement = (PreparedStatement) method.invoke(connection.getRealConnection(), args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+    CachedStatement handler = new CachedStatement(this, key, statement, connection.getProxyConnection());
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES, handler);
+  }
+
+  synchronized int size() {
+    return idleStatements.size();
+  }
+
+  synchronized void clear() {
+    for (Iterator<PreparedStatement> it = idleStatements.values().iterator(); it.hasNext();) {
+      closeQuietly(it.next());
+      it.remove();
+    }
+  }
+
+  private void release(StatementKey key, CachedStatement handler) {
+    PreparedStatement statement = handler.statement;
+    try {
+      if (statement.isClosed()) {
+        return;
+      }
+      ResultSet rs = statement.getResultSet();
+      if (rs != null) {
+        rs.close();
+      }
+      statement.clearParameters();
+      statement.clearWarnings();
+      if (handler.batched) {
+        statement.clearBatch();
+      }
+      if (handler.configured) {
+        statement.setQueryTimeout(0);
+        statement.setFetchSize(0);
+        statement.setMaxRows(0);
+      }
+    } catch (SQLException e) {
+      closeQuietly(statement);
+      return;
+    }
+    PreparedStatement previous;
+    synchronized (this) {
+      previous = idleStatements.put(key, statement);
+    }
+    if (previous != null) {
+      // the same SQL was prepared twice while the first statement was open
+      closeQuietly(previous);
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * Identifies the SQL and options a statement was prepared with.
+   */
+  private static final class StatementKey {
+
+    private final int variant;
+    private final Object[] args;
+    private final int hashCode;
+
+    StatementKey(int variant, Object[] args) {
+      this.variant = variant;
+      this.args = args;
+      this.hashCode = 31 * variant + Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey other = (StatementKey) obj;
+      return variant == other.variant && Arrays.deepEquals(args, other.args);
+    }
+  }
+
+  /**
+   * The statement handed out to the connection user, closing it returns the real statement to the cache.
+   */
+  private static final class CachedStatement implements InvocationHandler {
+
+    private static final String CLOSE = "close";
+
+    private final PooledStatementCache cache;
+    private final StatementKey key;
+    private final PreparedStatement statement;
+    private final Connection connection;
+    private boolean closed;
+    private boolean batched;
+    private boolean configured;
+
+    CachedStatement(PooledStatementCache cache, StatementKey key, PreparedStatement statement, Connection connection) {
+      this.cache = cache;
+      this.key = key;
+      this.statement = statement;
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        } else if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return method.invoke(statement, args);
+      }
+      if (CLOSE.equals(methodName)) {
+        if (!closed) {
+          closed = true;
+          cache.release(key, this);
+        }
+        return null;
+      } else if ("isClosed".equals(methodName)) {
+        return closed || statement.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Error accessing cached PreparedStatement. Statement is closed.");
+      }
+      if ("getConnection".equals(methodName)) {
+        return connection;
+      } else if ("addBatch".equals(methodName)) {
+        batched = true;
+      } else if ("setQueryTimeout".equals(methodName) || "setFetchSize".equals(methodName) || "setMaxRows".equals(methodName)) {
+        configured = true;
+      }
+      try {
+        return method.invoke(statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A long counter spread over several cells so that concurrent writers rarely hit the same cache line.
+ * Reads sum all the cells and are therefore only weakly consistent.
+ */
+class StripedCounter {
+
+  // 8 longs = 64 bytes, keeps each cell on its own cache line
+  private static final int PADDING = 8;
+  private static final int STRIPES = stripes();
+
+  private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+  public void increment() {
+    add(1L);
+  }
+
+  public void add(long delta) {
+    cells.getAndAdd(index(), delta);
+  }
+
+  public long sum() {
+    long sum = 0L;
+    for (int i = 0; i < STRIPES; i++) {
+      sum += cells.get(i * PADDING);
+    }
+    return sum;
+  }
+
+  private static int index() {
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32));
+    h ^= (h >>> 16);
+    h *= 0x85ebca6b;
+    h ^= (h >>> 13);
+    return (h & (STRIPES - 1)) * PADDING;
+  }
+
+  private static int stripes() {
+    int n = Runtime.getRuntime().availableProcessors() * 2;
+    int stripes = 1;
+    while (stripes < n) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.StatsCounter;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.statement.StatementUtil;
@@ -58,6 +59,7 @@ public abstract class BaseExecutor implements Executor {
   protected PerpetualCache localCache;
   protected PerpetualCache localOutputParameterCache;   // outputParameter?
   protected Configuration configuration;
+  protected StatsCounter localCacheStats;
 
   protected int queryStack;
   private boolean closed;
@@ -69,6 +71,8 @@ public abstract class BaseExecutor implements Executor {
     this.localOutputParameterCache = new PerpetualCache("LocalOutputParameterCache");
     this.closed = false;
     this.configuration = configuration;
+    // there is no configuration for the closed executor of a deserialized lazy loader
+    this.localCacheStats = configuration == null ? null : configuration.getCacheStatsCounter(Configuration.LOCAL_CACHE_STATS_ID);
     this.wrapper = this;
   }
 
@@ -153,8 +157,14 @@ public abstract class BaseExecutor implements Executor {
       queryStack++;
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
       if (list != null) {
+        if (localCacheStats != null) {
+          localCacheStats.recordHits(1);
+        }
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
       } else {
+        if (resultHandler == null && localCacheStats != null) {
+          localCacheStats.recordMisses(1);
+        }
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
       }
     } finally {
@@ -198,12 +208,9 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
-    cacheKey.update(ms.getId());                      // id
-    cacheKey.update(rowBounds.getOffset());           // offset
-    cacheKey.update(rowBounds.getLimit());            // limit
-    cacheKey.update(boundSql.getSql());               // sql
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    // id, offset, limit, sql
+    CacheKey cacheKey = new CacheKey(ms.getCacheKeyPrefix(rowBounds, boundSql.getSql()), parameterMappings.size() + 1);
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
     // mimic DefaultParameterHandler logic
     for (ParameterMapping parameterMapping : parameterMappings) {
@@ -325,12 +332,18 @@ public abstract class BaseExecutor implements Executor {
   private <E> List<E> queryFromDatabase(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
     List<E> list;
     localCache.putObject(key, EXECUTION_PLACEHOLDER);               // 缓存标志位
+    long start = System.nanoTime();
     try {
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
     } finally {
       localCache.removeObject(key);
     }
     localCache.putObject(key, list);                               // 缓存
+    // the results of a query with a result handler are not looked up in the local cache, so they are not counted
+    if (resultHandler == null && localCacheStats != null) {
+      localCacheStats.recordLoad(System.nanoTime() - start);
+      localCacheStats.recordPuts(1);
+    }
     if (ms.getStatementType() == StatementType.CALLABLE) {
       localOutputParameterCache.putObject(key, parameter);         // 如果是CALLABLE ，缓存参数
     }
@@ -116,36 +116,13 @@ public class BatchExecutor extends BaseExecutor {
       }
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);               // 获取当前Statement
-        applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);    // 获取对应的BatchResult
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
-          MappedStatement ms = batchResult.getMappedStatement();
-          List<Object> parameterObjects = batchResult.getParameterObjects();
-          KeyGenerator keyGenerator = ms.getKeyGenerator();
-          if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
-            Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
-            jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
-          } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
-            for (Object parameter : parameterObjects) {
-              keyGenerator.processAfter(this, ms, stmt, parameter);
-            }
-          }
+          executeBatch(stmt, batchResult, batchResult.getParameterObjects());
           // Close statement to close cursor #1109
           closeStatement(stmt);
         } catch (BatchUpdateException e) {
-          StringBuilder message = new StringBuilder();
-          message.append(batchResult.getMappedStatement().getId())
-              .append(" (batch index #")
-              .append(i + 1)
-              .append(")")
-              .append(" failed.");
-          if (i > 0) {
-            message.append(" ")
-                .append(i)
-                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
-          }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          throw batchFailure(i, e, results, batchResult);
         }
         results.add(batchResult);
       }
@@ -160,4 +137,39 @@ public class BatchExecutor extends BaseExecutor {
     }
   }
 
+  /**
+   * Executes the batch of the statement and sets the generated keys of the given parameter objects.
+   */
+  void executeBatch(Statement stmt, BatchResult batchResult, List<Object> parameterObjects) throws SQLException {
+    applyTransactionTimeout(stmt);
+    long start = System.nanoTime();
+    int[] updateCounts = stmt.executeBatch();
+    batchResult.addBatchExecution(updateCounts, System.nanoTime() - start);
+    MappedStatement ms = batchResult.getMappedStatement();
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+      Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
+      jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
+    } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
+      for (Object parameter : parameterObjects) {
+        keyGenerator.processAfter(this, ms, stmt, parameter);
+      }
+    }
+  }
+
+  static BatchExecutorException batchFailure(int index, BatchUpdateException e, List<BatchResult> results, BatchResult batchResult) {
+    StringBuilder message = new StringBuilder();
+    message.append(batchResult.getMappedStatement().getId())
+        .append(" (batch index #")
+        .append(index + 1)
+        .append(")")
+        .append(" failed.");
+    if (index > 0) {
+      message.append(" ")
+          .append(index)
+          .append(" prior sub executor(s) completed successfully, but will be rolled back.");
+    }
+    return new BatchExecutorException(message.toString(), e, results, batchResult);
+  }
+
 }
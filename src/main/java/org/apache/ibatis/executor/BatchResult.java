@@ -30,6 +30,10 @@ public class BatchResult {
   private final List<Object> parameterObjects;
 
   private int[] updateCounts;
+  // the update counts of each execution, concatenated when they are read
+  private List<int[]> updateCountParts;
+  private int batchCount;
+  private long elapsedNanos;
 
   public BatchResult(MappedStatement mappedStatement, String sql) {
     super();
@@ -56,20 +60,78 @@ public class BatchResult {
     return parameterObjects.get(0);
   }
 
+  /**
+   * Returns the parameter objects of the batch. When it was executed in parts because of {@code batchMaxRows} or
+   * {@code batchMaxBytes}, only those of the last part are kept.
+   */
   public List<Object> getParameterObjects() {
     return parameterObjects;
   }
 
   public int[] getUpdateCounts() {
+    if (updateCountParts != null) {
+      int length = updateCounts == null ? 0 : updateCounts.length;
+      for (int[] part : updateCountParts) {
+        length += part.length;
+      }
+      int[] allUpdateCounts = new int[length];
+      int offset = 0;
+      if (updateCounts != null) {
+        System.arraycopy(updateCounts, 0, allUpdateCounts, 0, updateCounts.length);
+        offset = updateCounts.length;
+      }
+      for (int[] part : updateCountParts) {
+        System.arraycopy(part, 0, allUpdateCounts, offset, part.length);
+        offset += part.length;
+      }
+      updateCounts = allUpdateCounts;
+      updateCountParts = null;
+    }
     return updateCounts;
   }
 
   public void setUpdateCounts(int[] updateCounts) {
     this.updateCounts = updateCounts;
+    this.updateCountParts = null;
+  }
+
+  /**
+   * Returns the number of times the batch of this statement was sent to the database.
+   */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * Returns the time spent executing the batch of this statement, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Records the execution of a part of the batch, the update counts are appended to the previous ones.
+   */
+  public void addBatchExecution(int[] updateCounts, long elapsedNanos) {
+    if (this.updateCounts == null || this.updateCounts.length == 0) {
+      this.updateCounts = updateCounts;
+    } else {
+      if (updateCountParts == null) {
+        updateCountParts = new ArrayList<int[]>();
+      }
+      updateCountParts.add(updateCounts);
+    }
+    this.batchCount++;
+    this.elapsedNanos += elapsedNanos;
   }
 
   public void addParameterObject(Object parameterObject) {
     this.parameterObjects.add(parameterObject);
   }
 
+  // releases the parameter objects of the parts already executed
+  void clearParameterObjects() {
+    this.parameterObjects.clear();
+  }
+
 }
@@ -16,18 +16,25 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.TransactionalCacheManager;
+import org.apache.ibatis.cache.decorators.ExpiringCache;
+import org.apache.ibatis.cache.decorators.TaggedCache;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -38,6 +45,8 @@ import org.apache.ibatis.transaction.Transaction;
  */
 public class CachingExecutor implements Executor {
 
+  private static final String REFRESH_PARAMETER = "_refresh";
+
   private final Executor delegate;
   private final TransactionalCacheManager tcm = new TransactionalCacheManager();
 
@@ -72,7 +81,7 @@ public class CachingExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameterObject) throws SQLException {
-    flushCacheIfRequired(ms);
+    flushCacheIfRequired(ms, parameterObject);
     return delegate.update(ms, parameterObject);
   }
 
@@ -100,8 +109,16 @@ public class CachingExecutor implements Executor {
         @SuppressWarnings("unchecked")
         List<E> list = (List<E>) tcm.getObject(cache, key);
         if (list == null) {
+          TaggedCache.Stamp stamp = stamp(cache, boundSql);
+          long start = System.nanoTime();
           list = delegate.<E> query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
-          tcm.putObject(cache, key, list); // issue #578 and #116
+          ms.getConfiguration().getCacheStatsCounter(cache.getId()).recordLoad(System.nanoTime() - start);
+          tcm.putObject(cache, key, stamp == null ? list : stamp.tag(list)); // issue #578 and #116
+        } else {
+          ExpiringCache.RefreshRequest refresh = ExpiringCache.takeRefreshRequest();
+          if (refresh != null && key.equals(refresh.getKey())) {
+            refresh.submit(new StatementRefresh(ms, rowBounds, key, bindParameterValues(ms.getConfiguration(), boundSql, parameterObject)));
+          }
         }
         return list;
       }
@@ -168,9 +185,105 @@ public class CachingExecutor implements Executor {
     }
   }
 
+  private void flushCacheIfRequired(MappedStatement ms, Object parameterObject) {
+    Cache cache = ms.getCache();
+    if (cache instanceof TaggedCache && ms.isFlushCacheRequired() && ms.getSqlCommandType() != SqlCommandType.SELECT) {
+      // only the entries that read the tables of the statement, unless none is found. The SQL of the update is built
+      // here a second time, as the executor builds its own
+      Set<String> tables = SqlTables.written(ms.getBoundSql(parameterObject).getSql());
+      if (!tables.isEmpty()) {
+        tcm.invalidate(cache, tables);
+        return;
+      }
+    }
+    flushCacheIfRequired(ms);
+  }
+
+  private static TaggedCache.Stamp stamp(Cache cache, BoundSql boundSql) {
+    return cache instanceof TaggedCache ? ((TaggedCache) cache).stamp(SqlTables.read(boundSql.getSql())) : null;
+  }
+
   @Override
   public void setExecutorWrapper(Executor executor) {
     throw new UnsupportedOperationException("This method should not be called");
   }
 
+  /**
+   * Runs a cached statement again on a transaction of its own and puts the new result in the cache.
+   */
+  /**
+   * Returns a copy of the bound SQL with the current values of its parameters, bound as additional parameters, so it
+   * can be run again without the parameter object that the caller may change or reuse. The values themselves are not
+   * copied.
+   */
+  private static BoundSql bindParameterValues(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    List<ParameterMapping> boundMappings = new ArrayList<ParameterMapping>(parameterMappings.size());
+    Object[] values = new Object[parameterMappings.size()];
+    MetaObject metaObject = null;
+    for (int i = 0; i < values.length; i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      String propertyName = parameterMapping.getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        values[i] = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        values[i] = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        values[i] = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        values[i] = metaObject.getValue(propertyName);
+      }
+      boundMappings.add(new ParameterMapping.Builder(configuration, REFRESH_PARAMETER + i, parameterMapping.getTypeHandler())
+          .javaType(parameterMapping.getJavaType())
+          .jdbcType(parameterMapping.getJdbcType())
+          .jdbcTypeName(parameterMapping.getJdbcTypeName())
+          .numericScale(parameterMapping.getNumericScale())
+          .build());
+    }
+    BoundSql boundValues = new BoundSql(configuration, boundSql.getSql(), boundMappings, null);
+    for (int i = 0; i < values.length; i++) {
+      boundValues.setAdditionalParameter(REFRESH_PARAMETER + i, values[i]);
+    }
+    return boundValues;
+  }
+
+  private static class StatementRefresh implements Runnable {
+
+    private final MappedStatement ms;
+    private final RowBounds rowBounds;
+    private final CacheKey key;
+    private final BoundSql boundSql;
+
+    StatementRefresh(MappedStatement ms, RowBounds rowBounds, CacheKey key, BoundSql boundSql) {
+      this.ms = ms;
+      this.rowBounds = rowBounds;
+      this.key = key;
+      this.boundSql = boundSql;
+    }
+
+    @Override
+    public void run() {
+      Configuration configuration = ms.getConfiguration();
+      Environment environment = configuration.getEnvironment();
+      if (environment == null) {
+        return;
+      }
+      Transaction tx = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, false);
+      Executor executor = new SimpleExecutor(configuration, tx);
+      try {
+        Cache cache = ms.getCache();
+        TaggedCache.Stamp stamp = stamp(cache, boundSql);
+        List<Object> list = executor.query(ms, null, rowBounds, Executor.NO_RESULT_HANDLER, key, boundSql);
+        cache.putObject(key, stamp == null ? list : stamp.tag(list));
+      } catch (SQLException e) {
+        throw new ExecutorException("Error refreshing the cached result of " + ms.getId() + ".  Cause: " + e, e);
+      } finally {
+        executor.close(false);
+      }
+    }
+  }
+
 }
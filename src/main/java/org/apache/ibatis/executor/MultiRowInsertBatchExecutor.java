@@ -0,0 +1,393 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * A batch executor that sends consecutive inserts of the same statement as multi-row inserts,
+ * {@code INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...}, of up to {@code multiRowInsertMaxRows} rows each, instead
+ * of one row per statement of a JDBC batch.
+ * <p>
+ * An insert is rewritten when its SQL ends with a single {@code VALUES (...)} holding all its parameters, its
+ * parameters are all IN parameters and its keys are not generated, or generated by JDBC on a database whose driver
+ * returns the keys of all the rows of a multi-row insert (MySQL, MariaDB, PostgreSQL, H2 and HSQLDB). The generated
+ * keys are then set on the parameter objects as usual. Multi-row inserts are also sent to Derby, DB2, SQL Server and
+ * SQLite, with fewer parameters per statement for the latter two. Any other update is batched as by
+ * {@link BatchExecutor}. The update counts of the rewritten inserts are 1 for each row when the database reports
+ * as many updated rows as inserted rows, {@link Statement#SUCCESS_NO_INFO} otherwise.
+ *
+ * @see Configuration#getMultiRowInsertMaxRows()
+ * @since 3.4.7
+ */
+public class MultiRowInsertBatchExecutor extends BatchExecutor {
+
+  private static final Log log = LogFactory.getLog(MultiRowInsertBatchExecutor.class);
+
+  private static final Pattern INSERT = Pattern.compile("^\\s*insert\\s", Pattern.CASE_INSENSITIVE);
+  private static final Pattern VALUES = Pattern.compile("\\bvalues\\s*\\(", Pattern.CASE_INSENSITIVE);
+  private static final String ROW_PARAMETER = "_row";
+  private static final int DEFAULT_MAX_ROWS = 1000;
+
+  private final List<PendingBatch> batches = new ArrayList<PendingBatch>();
+  private final int maxRows;
+  private Dialect dialect;
+
+  public MultiRowInsertBatchExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+    int maxRows = configuration.getMultiRowInsertMaxRows();
+    this.maxRows = maxRows > 0 ? maxRows : DEFAULT_MAX_ROWS;
+  }
+
+  @Override
+  public int doUpdate(MappedStatement ms, Object parameterObject) throws SQLException {
+    final Configuration configuration = ms.getConfiguration();
+    final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
+    final BoundSql boundSql = handler.getBoundSql();
+    final String sql = boundSql.getSql();
+    PendingBatch batch = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+    if (batch == null || !sql.equals(batch.result.getSql()) || !ms.equals(batch.result.getMappedStatement())) {
+      InsertTemplate insert = InsertTemplate.parse(ms, boundSql, getDialect(ms));
+      if (insert != null) {
+        batch = new PendingBatch(null, insert, new BatchResult(ms, sql));
+      } else {
+        Connection connection = getConnection(ms.getStatementLog());
+        Statement stmt = handler.prepare(connection, transaction.getTimeout());
+        batch = new PendingBatch(stmt, null, new BatchResult(ms, sql));
+      }
+      batches.add(batch);
+    } else if (batch.statement != null) {
+      applyTransactionTimeout(batch.statement);
+    }
+    if (batch.insert != null) {
+      batch.rows.add(parameterValues(boundSql, parameterObject));
+    } else {
+      handler.parameterize(batch.statement);
+      handler.batch(batch.statement);
+    }
+    batch.result.addParameterObject(parameterObject);
+    return BATCH_UPDATE_RETURN_VALUE;
+  }
+
+  @Override
+  public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
+    try {
+      if (isRollback) {
+        return Collections.emptyList();
+      }
+      List<BatchResult> results = new ArrayList<BatchResult>(batches.size());
+      for (int i = 0, n = batches.size(); i < n; i++) {
+        PendingBatch batch = batches.get(i);
+        BatchResult batchResult = batch.result;
+        try {
+          if (batch.insert != null) {
+            executeInserts(batch);
+          } else {
+            executeBatch(batch.statement, batchResult, batchResult.getParameterObjects());
+            closeStatement(batch.statement);
+          }
+        } catch (BatchUpdateException e) {
+          throw batchFailure(i, e, results, batchResult);
+        }
+        results.add(batchResult);
+      }
+      return results;
+    } finally {
+      for (PendingBatch batch : batches) {
+        closeStatement(batch.statement);
+      }
+      batches.clear();
+    }
+  }
+
+  /**
+   * Executes the rows of the batch as multi-row inserts, the statement is prepared again only for the last one
+   * when it has less rows.
+   */
+  private void executeInserts(PendingBatch batch) throws SQLException {
+    BatchResult batchResult = batch.result;
+    MappedStatement ms = batchResult.getMappedStatement();
+    InsertTemplate insert = batch.insert;
+    List<Object> parameterObjects = batchResult.getParameterObjects();
+    int rowsPerStatement = Math.min(maxRows, insert.maxRows);
+    Statement stmt = null;
+    int preparedRows = 0;
+    try {
+      for (int from = 0, n = batch.rows.size(); from < n; from += rowsPerStatement) {
+        int rows = Math.min(rowsPerStatement, n - from);
+        BoundSql boundSql = insert.boundSql(configuration, batch.rows.subList(from, from + rows));
+        StatementHandler handler = configuration.newStatementHandler(this, ms, null, RowBounds.DEFAULT, null, boundSql);
+        if (rows != preparedRows) {
+          closeStatement(stmt);
+          stmt = handler.prepare(getConnection(ms.getStatementLog()), transaction.getTimeout());
+          preparedRows = rows;
+        } else {
+          applyTransactionTimeout(stmt);
+        }
+        handler.parameterize(stmt);
+        handler.batch(stmt);
+        long start = System.nanoTime();
+        int[] updateCounts = stmt.executeBatch();
+        batchResult.addBatchExecution(rowUpdateCounts(updateCounts, rows), System.nanoTime() - start);
+        if (Jdbc3KeyGenerator.class.equals(ms.getKeyGenerator().getClass())) {
+          ((Jdbc3KeyGenerator) ms.getKeyGenerator()).processBatch(ms, stmt, parameterObjects.subList(from, from + rows));
+        }
+      }
+    } finally {
+      closeStatement(stmt);
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Inserted " + batch.rows.size() + " row(s) of " + ms.getId() + " with "
+          + batchResult.getBatchCount() + " multi-row statement(s)");
+    }
+  }
+
+  private static int[] rowUpdateCounts(int[] updateCounts, int rows) {
+    int[] rowUpdateCounts = new int[rows];
+    Arrays.fill(rowUpdateCounts, updateCounts.length == 1 && updateCounts[0] == rows ? 1 : Statement.SUCCESS_NO_INFO);
+    return rowUpdateCounts;
+  }
+
+  private Object[] parameterValues(BoundSql boundSql, Object parameterObject) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    Object[] values = new Object[parameterMappings.size()];
+    MetaObject metaObject = null;
+    for (int i = 0; i < values.length; i++) {
+      String propertyName = parameterMappings.get(i).getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        values[i] = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        values[i] = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        values[i] = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        values[i] = metaObject.getValue(propertyName);
+      }
+    }
+    return values;
+  }
+
+  private Dialect getDialect(MappedStatement ms) throws SQLException {
+    if (dialect == null) {
+      dialect = Dialect.of(getConnection(ms.getStatementLog()).getMetaData().getDatabaseProductName());
+    }
+    return dialect;
+  }
+
+  /**
+   * The databases that accept multi-row inserts.
+   */
+  private enum Dialect {
+    MYSQL("MySQL", 65535, true),
+    MARIADB("MariaDB", 65535, true),
+    POSTGRESQL("PostgreSQL", 32767, true),
+    H2("H2", 65535, true),
+    HSQLDB("HSQL Database Engine", 65535, true),
+    DERBY("Apache Derby", 32767, false),
+    DB2("DB2", 32767, false),
+    SQL_SERVER("Microsoft SQL Server", 2000, false),
+    SQLITE("SQLite", 999, false),
+    UNSUPPORTED("", 0, false);
+
+    private final String productName;
+    private final int maxParameters;
+    private final boolean returnsAllKeys;
+
+    Dialect(String productName, int maxParameters, boolean returnsAllKeys) {
+      this.productName = productName;
+      this.maxParameters = maxParameters;
+      this.returnsAllKeys = returnsAllKeys;
+    }
+
+    static Dialect of(String productName) {
+      if (productName != null) {
+        String name = productName.toLowerCase(Locale.ENGLISH);
+        for (Dialect dialect : values()) {
+          if (dialect != UNSUPPORTED && name.startsWith(dialect.productName.toLowerCase(Locale.ENGLISH))) {
+            return dialect;
+          }
+        }
+      }
+      return UNSUPPORTED;
+    }
+  }
+
+  /**
+   * An insert split around its {@code VALUES} row.
+   */
+  private static class InsertTemplate {
+
+    private final String sql;
+    private final String row;
+    private final List<ParameterMapping> parameterMappings;
+    private final int maxRows;
+
+    private InsertTemplate(String sql, String row, List<ParameterMapping> parameterMappings, int maxRows) {
+      this.sql = sql;
+      this.row = row;
+      this.parameterMappings = parameterMappings;
+      this.maxRows = maxRows;
+    }
+
+    /**
+     * Returns the template of the insert, or null when it cannot be rewritten.
+     */
+    static InsertTemplate parse(MappedStatement ms, BoundSql boundSql, Dialect dialect) {
+      KeyGenerator keyGenerator = ms.getKeyGenerator();
+      if (dialect == Dialect.UNSUPPORTED
+          || ms.getSqlCommandType() != SqlCommandType.INSERT
+          || ms.getStatementType() != StatementType.PREPARED
+          || !(NoKeyGenerator.class.equals(keyGenerator.getClass())
+              || (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass()) && dialect.returnsAllKeys))) {
+        return null;
+      }
+      List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+      for (ParameterMapping parameterMapping : parameterMappings) {
+        if (parameterMapping.getMode() != ParameterMode.IN) {
+          return null;
+        }
+      }
+      String sql = boundSql.getSql().trim();
+      if (!INSERT.matcher(sql).find()) {
+        return null;
+      }
+      Matcher values = VALUES.matcher(sql);
+      if (!values.find()) {
+        return null;
+      }
+      int open = values.end() - 1;
+      if (values.find()) {
+        return null;
+      }
+      int close = closingParenthesis(sql, open);
+      if (close != sql.length() - 1 || countParameters(sql, open, close) != parameterMappings.size()
+          || countParameters(sql, 0, sql.length() - 1) != parameterMappings.size()) {
+        return null;
+      }
+      int maxRows = parameterMappings.isEmpty() ? Integer.MAX_VALUE : dialect.maxParameters / parameterMappings.size();
+      if (maxRows < 2) {
+        return null;
+      }
+      return new InsertTemplate(sql, sql.substring(open), parameterMappings, maxRows);
+    }
+
+    // the index of the parenthesis that closes the one at the given index, or -1
+    private static int closingParenthesis(String sql, int open) {
+      int depth = 0;
+      boolean quoted = false;
+      for (int i = open; i < sql.length(); i++) {
+        char c = sql.charAt(i);
+        if (c == '\'') {
+          quoted = !quoted;
+        } else if (!quoted && c == '(') {
+          depth++;
+        } else if (!quoted && c == ')' && --depth == 0) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private static int countParameters(String sql, int from, int to) {
+      int count = 0;
+      boolean quoted = false;
+      for (int i = from; i <= to; i++) {
+        char c = sql.charAt(i);
+        if (c == '\'') {
+          quoted = !quoted;
+        } else if (!quoted && c == '?') {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    /**
+     * Returns the insert of the given rows, their values are bound as additional parameters.
+     */
+    BoundSql boundSql(Configuration configuration, List<Object[]> rows) {
+      StringBuilder multiRowSql = new StringBuilder(sql.length() + (rows.size() - 1) * (row.length() + 2));
+      multiRowSql.append(sql);
+      List<ParameterMapping> multiRowParameterMappings = new ArrayList<ParameterMapping>(rows.size() * parameterMappings.size());
+      for (int i = 0; i < rows.size(); i++) {
+        if (i > 0) {
+          multiRowSql.append(", ").append(row);
+        }
+        for (int j = 0; j < parameterMappings.size(); j++) {
+          ParameterMapping parameterMapping = parameterMappings.get(j);
+          multiRowParameterMappings.add(new ParameterMapping.Builder(configuration, ROW_PARAMETER + i + "_" + j, parameterMapping.getTypeHandler())
+              .javaType(parameterMapping.getJavaType())
+              .jdbcType(parameterMapping.getJdbcType())
+              .jdbcTypeName(parameterMapping.getJdbcTypeName())
+              .numericScale(parameterMapping.getNumericScale())
+              .build());
+        }
+      }
+      BoundSql boundSql = new BoundSql(configuration, multiRowSql.toString(), multiRowParameterMappings, null);
+      for (int i = 0; i < rows.size(); i++) {
+        Object[] values = rows.get(i);
+        for (int j = 0; j < values.length; j++) {
+          boundSql.setAdditionalParameter(ROW_PARAMETER + i + "_" + j, values[j]);
+        }
+      }
+      return boundSql;
+    }
+  }
+
+  private static class PendingBatch {
+    private final Statement statement;
+    private final InsertTemplate insert;
+    private final BatchResult result;
+    private final List<Object[]> rows = new ArrayList<Object[]>();
+
+    PendingBatch(Statement statement, InsertTemplate insert, BatchResult result) {
+      this.statement = statement;
+      this.insert = insert;
+      this.result = result;
+    }
+  }
+
+}
@@ -0,0 +1,210 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * A batch executor that keeps one open statement per distinct SQL, so interleaved updates (like parent and child
+ * inserts) are all batched instead of closing the batch each time the SQL changes.
+ * <p>
+ * Batches are executed in the order their SQL was first used, so the inserts of a parent table used before
+ * the inserts of its child table are executed first. Updates with different SQL must not depend on each other
+ * in any other way. All the pending batches are executed when a batch reaches {@code batchMaxRows} rows or when
+ * the estimated size of the pending parameters reaches {@code batchMaxBytes}, the statements are kept open until
+ * the next flush, query, commit or rollback. The returned {@link BatchResult}s hold the number of executed batches
+ * and the time spent executing them.
+ *
+ * @see Configuration#isMultiStatementBatch()
+ */
+public class MultiStatementBatchExecutor extends BatchExecutor {
+
+  private static final Log log = LogFactory.getLog(MultiStatementBatchExecutor.class);
+
+  // rough size of a parameter value that is neither a string nor a byte array
+  private static final int VALUE_SIZE = 8;
+
+  private final Map<MappedStatement, Map<String, PendingBatch>> batchesByStatement = new HashMap<MappedStatement, Map<String, PendingBatch>>();
+  private final List<PendingBatch> batches = new ArrayList<PendingBatch>();
+  private final int batchMaxRows;
+  private final long batchMaxBytes;
+  private long pendingBytes;
+
+  public MultiStatementBatchExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+    this.batchMaxRows = configuration.getBatchMaxRows();
+    this.batchMaxBytes = configuration.getBatchMaxBytes();
+  }
+
+  @Override
+  public int doUpdate(MappedStatement ms, Object parameterObject) throws SQLException {
+    final Configuration configuration = ms.getConfiguration();
+    final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
+    final BoundSql boundSql = handler.getBoundSql();
+    final String sql = boundSql.getSql();
+    Map<String, PendingBatch> batchesBySql = batchesByStatement.get(ms);
+    if (batchesBySql == null) {
+      batchesBySql = new HashMap<String, PendingBatch>();
+      batchesByStatement.put(ms, batchesBySql);
+    }
+    PendingBatch batch = batchesBySql.get(sql);
+    if (batch == null) {
+      Connection connection = getConnection(ms.getStatementLog());
+      Statement stmt = handler.prepare(connection, transaction.getTimeout());
+      batch = new PendingBatch(stmt, new BatchResult(ms, sql));
+      batchesBySql.put(sql, batch);
+      batches.add(batch);
+    } else {
+      applyTransactionTimeout(batch.statement);
+    }
+    handler.parameterize(batch.statement);
+    handler.batch(batch.statement);
+    batch.result.addParameterObject(parameterObject);
+    batch.pendingRows++;
+    if (batchMaxBytes > 0) {
+      pendingBytes += estimateSize(boundSql, parameterObject);
+    }
+    if ((batchMaxRows > 0 && batch.pendingRows >= batchMaxRows) || (batchMaxBytes > 0 && pendingBytes >= batchMaxBytes)) {
+      executePendingBatches(true);
+    }
+    return BATCH_UPDATE_RETURN_VALUE;
+  }
+
+  @Override
+  public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
+    try {
+      if (isRollback) {
+        return Collections.emptyList();
+      }
+      executePendingBatches(false);
+      List<BatchResult> results = new ArrayList<BatchResult>(batches.size());
+      for (PendingBatch batch : batches) {
+        results.add(batch.result);
+      }
+      return results;
+    } finally {
+      for (PendingBatch batch : batches) {
+        closeStatement(batch.statement);
+      }
+      batchesByStatement.clear();
+      batches.clear();
+      pendingBytes = 0;
+    }
+  }
+
+  /**
+   * Executes the pending part of each batch, in the order their SQL was first used.
+   *
+   * @param release whether to forget the parameter objects once their keys are set, so a long batch does not keep
+   *     every row
+   */
+  private void executePendingBatches(boolean release) throws SQLException {
+    for (int i = 0, n = batches.size(); i < n; i++) {
+      PendingBatch batch = batches.get(i);
+      if (batch.pendingRows == 0) {
+        continue;
+      }
+      BatchResult batchResult = batch.result;
+      List<Object> parameterObjects = batchResult.getParameterObjects();
+      List<Object> pendingParameterObjects = parameterObjects.subList(parameterObjects.size() - batch.pendingRows, parameterObjects.size());
+      try {
+        executeBatch(batch.statement, batchResult, pendingParameterObjects);
+      } catch (BatchUpdateException e) {
+        throw batchFailure(i, e, batchResults(i), batchResult);
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("Executed batch of " + batch.pendingRows + " row(s) of " + batchResult.getMappedStatement().getId());
+      }
+      batch.pendingRows = 0;
+      if (release) {
+        batchResult.clearParameterObjects();
+      }
+    }
+    pendingBytes = 0;
+  }
+
+  private List<BatchResult> batchResults(int count) {
+    List<BatchResult> results = new ArrayList<BatchResult>(count);
+    for (int i = 0; i < count; i++) {
+      results.add(batches.get(i).result);
+    }
+    return results;
+  }
+
+  private long estimateSize(BoundSql boundSql, Object parameterObject) {
+    long size = 0;
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      String propertyName = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      if (value instanceof CharSequence) {
+        size += 2L * ((CharSequence) value).length();
+      } else if (value instanceof byte[]) {
+        size += ((byte[]) value).length;
+      } else {
+        size += VALUE_SIZE;
+      }
+    }
+    return size;
+  }
+
+  private static class PendingBatch {
+    private final Statement statement;
+    private final BatchResult result;
+    private int pendingRows;
+
+    PendingBatch(Statement statement, BatchResult result) {
+      this.statement = statement;
+      this.result = result;
+    }
+  }
+
+}
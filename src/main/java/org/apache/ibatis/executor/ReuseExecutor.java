@@ -19,7 +19,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,10 +39,23 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
 
   // 缓存生成的Statement
-  private final Map<String, Statement> statementMap = new HashMap<String, Statement>();
+  private final Map<String, Statement> statementMap;
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    final int maxStatements = configuration.getReuseExecutorMaxStatements();
+    this.statementMap = new LinkedHashMap<String, Statement>(16, .75F, true) {
+      private static final long serialVersionUID = -1187412493226356468L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+        boolean tooBig = maxStatements > 0 && size() > maxStatements;
+        if (tooBig) {
+          closeStatement(eldest.getValue());
+        }
+        return tooBig;
+      }
+    };
   }
 
   @Override
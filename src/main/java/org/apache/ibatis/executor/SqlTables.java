@@ -0,0 +1,179 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the tables a SQL statement reads or writes, as the tags of a {@link org.apache.ibatis.cache.decorators.TaggedCache}.
+ * <p>
+ * The statement is only tokenized, not parsed, so the result may include names that are not tables, such as
+ * common table expressions, but every table named after FROM, JOIN, INSERT INTO, UPDATE, DELETE FROM, MERGE INTO,
+ * REPLACE INTO or TRUNCATE TABLE is found. Names are lower cased and stripped of their schema.
+ */
+final class SqlTables {
+
+  private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+      "select", "where", "on", "using", "join", "inner", "left", "right", "full", "outer", "cross", "natural",
+      "straight_join", "group", "order", "having", "limit", "offset", "union", "intersect", "except", "minus",
+      "window", "fetch", "for", "lateral", "as", "with", "set", "values", "partition", "tablesample", "into",
+      "when", "then", "else", "end", "and", "or", "not", "connect", "start", "pivot", "unpivot", "returning",
+      "only", "default", "output"));
+
+  private SqlTables() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns the tables read by the statement, or an empty set if none is found.
+   */
+  static Set<String> read(String sql) {
+    return read(tokenize(sql));
+  }
+
+  /**
+   * Returns the tables written, and also those read, by the statement, or an empty set if none is found.
+   */
+  static Set<String> written(String sql) {
+    List<String> tokens = tokenize(sql);
+    Set<String> tables = read(tokens);
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if ("insert".equals(token) || "merge".equals(token) || "replace".equals(token)) {
+        addTable(tokens, skip(tokens, i + 1, "into"), tables);
+      } else if ("delete".equals(token)) {
+        addTableList(tokens, skip(tokens, i + 1, "from"), tables);
+      } else if ("truncate".equals(token)) {
+        addTable(tokens, skip(tokens, i + 1, "table"), tables);
+      } else if ("update".equals(token) && (i == 0 || !"for".equals(tokens.get(i - 1)) && !"key".equals(tokens.get(i - 1)))) {
+        addTableList(tokens, i + 1, tables);
+      }
+    }
+    return tables;
+  }
+
+  private static Set<String> read(List<String> tokens) {
+    Set<String> tables = new HashSet<String>();
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if ("from".equals(token)) {
+        addTableList(tokens, i + 1, tables);
+      } else if ("join".equals(token) || "straight_join".equals(token)) {
+        addTable(tokens, i + 1, tables);
+      }
+    }
+    return tables;
+  }
+
+  private static int skip(List<String> tokens, int index, String optional) {
+    return index < tokens.size() && optional.equals(tokens.get(index)) ? index + 1 : index;
+  }
+
+  private static void addTableList(List<String> tokens, int index, Set<String> tables) {
+    int i = index;
+    while (addTable(tokens, i, tables)) {
+      i++;
+      if (i < tokens.size() && "as".equals(tokens.get(i))) {
+        i += 2;
+      } else if (isName(tokens, i)) {
+        i++;
+      }
+      if (i >= tokens.size() || !",".equals(tokens.get(i))) {
+        return;
+      }
+      i++;
+    }
+  }
+
+  private static boolean addTable(List<String> tokens, int index, Set<String> tables) {
+    if (!isName(tokens, index)) {
+      return false;
+    }
+    String name = tokens.get(index);
+    tables.add(name.substring(name.lastIndexOf('.') + 1));
+    return true;
+  }
+
+  private static boolean isName(List<String> tokens, int index) {
+    if (index >= tokens.size()) {
+      return false;
+    }
+    String token = tokens.get(index);
+    return isNameChar(token.charAt(0)) && !KEYWORDS.contains(token);
+  }
+
+  private static List<String> tokenize(String sql) {
+    List<String> tokens = new ArrayList<String>();
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        i = sql.indexOf('\n', i);
+        i = i < 0 ? length : i;
+      } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        i = sql.indexOf("*/", i + 2);
+        i = i < 0 ? length : i + 2;
+      } else if (c == '\'') {
+        i = skipQuoted(sql, i, '\'');
+      } else if (c == '"' || c == '`' || c == '[') {
+        // a quoted name, possibly qualified
+        StringBuilder name = new StringBuilder();
+        while (i < length && (sql.charAt(i) == '"' || sql.charAt(i) == '`' || sql.charAt(i) == '[')) {
+          char close = sql.charAt(i) == '[' ? ']' : sql.charAt(i);
+          int end = skipQuoted(sql, i, close);
+          name.append(sql, i + 1, end - 1);
+          i = end;
+          if (i < length && sql.charAt(i) == '.') {
+            name.append('.');
+            i++;
+          }
+        }
+        while (i < length && isNameChar(sql.charAt(i))) {
+          name.append(sql.charAt(i++));
+        }
+        tokens.add(name.length() == 0 ? "\"" : name.toString().toLowerCase(Locale.ENGLISH));
+      } else if (isNameChar(c)) {
+        int start = i;
+        while (i < length && (isNameChar(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        tokens.add(sql.substring(start, i).toLowerCase(Locale.ENGLISH));
+      } else {
+        tokens.add(String.valueOf(c));
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  private static int skipQuoted(String sql, int start, char close) {
+    int end = sql.indexOf(close, start + 1);
+    return end < 0 ? sql.length() : end + 1;
+  }
+
+  private static boolean isNameChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+  }
+
+}
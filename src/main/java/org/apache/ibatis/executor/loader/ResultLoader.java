@@ -68,12 +68,17 @@ public class ResultLoader {
   }
 
   public Object loadResult() throws SQLException {
-    List<Object> list = selectList();
+    List<Object> list = selectList(parameterObject, cacheKey, boundSql);
+    return extractResult(list);
+  }
+
+  Object extractResult(List<Object> list) {
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
 
-  private <E> List<E> selectList() throws SQLException {
+  // the cache key is created when null and a bound sql is given, for a batch of properties
+  <E> List<E> selectList(Object parameterObject, CacheKey cacheKey, BoundSql boundSql) throws SQLException {
     Executor localExecutor = executor;
     // 如果当前线程不是创建这个对象的线程 或者执行器已经关闭
     // 则新建一个执行器
@@ -81,6 +86,9 @@ public class ResultLoader {
       localExecutor = newExecutor();
     }
     try {
+      if (cacheKey == null && boundSql != null) {
+        cacheKey = localExecutor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
+      }
       return localExecutor.<E> query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
       if (localExecutor != executor) {  // 如果线程变更过，则关闭新生成的localExecutor
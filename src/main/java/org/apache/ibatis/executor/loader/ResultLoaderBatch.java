@@ -0,0 +1,246 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.loader.ResultLoaderMap.LoadPair;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The lazy loaded properties of one result list that are loaded by the same nested select.
+ * <p>
+ * When one of them is loaded, up to {@code batchSize} of the pending ones are loaded with a single query, where the
+ * {@code column = ?} condition of the nested select is replaced by {@code column IN (?, ?, ...)}, and the rows are
+ * given to each property by the value of that column. This applies to nested selects that take a single simple
+ * parameter, have a single {@code column = ?} condition, no {@code OR}, grouping, union or row limit, and map that
+ * column to a property of their result. Any other nested select is loaded for each property.
+ *
+ * @since 3.4.7
+ */
+public class ResultLoaderBatch {
+
+  private static final Pattern KEY_CONDITION = Pattern.compile("([\\w.]+)\\s*=\\s*\\?");
+  private static final Pattern UNSUPPORTED = Pattern.compile(
+      "\\b(or|limit|offset|fetch|rownum|top|group\\s+by|having|union)\\b", Pattern.CASE_INSENSITIVE);
+  private static final String KEY_PARAMETER = "_batchKey";
+
+  private final Configuration configuration;
+  private final String sql;
+  private final int keyStart;
+  private final int keyEnd;
+  private final String keyColumn;
+  private final String keyProperty;
+  private final ParameterMapping keyMapping;
+  private final int batchSize;
+  private final Set<LoadPair> pending = new LinkedHashSet<LoadPair>();
+  private boolean disabled;
+
+  private ResultLoaderBatch(MappedStatement mappedStatement, String sql, Matcher keyCondition, String keyProperty,
+      ParameterMapping keyMapping, int batchSize) {
+    this.configuration = mappedStatement.getConfiguration();
+    this.sql = sql;
+    this.keyStart = keyCondition.start();
+    this.keyEnd = keyCondition.end();
+    this.keyColumn = keyCondition.group(1);
+    this.keyProperty = keyProperty;
+    this.keyMapping = keyMapping;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Returns a batch for the nested select, or null when it cannot be loaded in batch.
+   *
+   * @param boundSql the nested select for one of the properties
+   */
+  public static ResultLoaderBatch forStatement(MappedStatement mappedStatement, BoundSql boundSql, int batchSize) {
+    if (batchSize < 2
+        || mappedStatement.getSqlCommandType() != SqlCommandType.SELECT
+        || mappedStatement.getStatementType() == StatementType.CALLABLE
+        || mappedStatement.getResultSets() != null
+        || mappedStatement.getResultMaps().size() != 1
+        || boundSql.getParameterMappings().size() != 1
+        || boundSql.getParameterMappings().get(0).getMode() != ParameterMode.IN) {
+      return null;
+    }
+    String sql = boundSql.getSql();
+    if (sql.indexOf('?') != sql.lastIndexOf('?') || UNSUPPORTED.matcher(sql).find()) {
+      return null;
+    }
+    Matcher keyCondition = KEY_CONDITION.matcher(sql);
+    if (!keyCondition.find()) {
+      return null;
+    }
+    String keyProperty = keyProperty(mappedStatement, keyCondition.group(1));
+    if (keyProperty == null) {
+      return null;
+    }
+    return new ResultLoaderBatch(mappedStatement, sql, keyCondition, keyProperty, boundSql.getParameterMappings().get(0), batchSize);
+  }
+
+  // the property the key column is mapped to
+  private static String keyProperty(MappedStatement mappedStatement, String keyColumn) {
+    Configuration configuration = mappedStatement.getConfiguration();
+    String column = keyColumn.substring(keyColumn.lastIndexOf('.') + 1);
+    ResultMap resultMap = mappedStatement.getResultMaps().get(0);
+    for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+      if (column.equalsIgnoreCase(resultMapping.getColumn())
+          && resultMapping.getNestedQueryId() == null && resultMapping.getNestedResultMapId() == null) {
+        return resultMapping.getProperty();
+      }
+    }
+    if (resultMap.getMappedColumns().contains(column.toUpperCase(Locale.ENGLISH))
+        || configuration.getTypeHandlerRegistry().hasTypeHandler(resultMap.getType())
+        || (resultMap.getAutoMapping() == null
+            ? configuration.getAutoMappingBehavior() == AutoMappingBehavior.NONE : !resultMap.getAutoMapping())) {
+      return null;
+    }
+    MetaClass metaClass = MetaClass.forClass(resultMap.getType(), configuration.getReflectorFactory());
+    String property = metaClass.findProperty(column, configuration.isMapUnderscoreToCamelCase());
+    return property != null && metaClass.hasGetter(property) ? property : null;
+  }
+
+  /**
+   * Returns true if the property that the nested select loads can be loaded in this batch.
+   */
+  public boolean accepts(BoundSql boundSql, Object parameterObject) {
+    return sql.equals(boundSql.getSql())
+        && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
+  }
+
+  synchronized void add(LoadPair pair) {
+    pending.add(pair);
+  }
+
+  synchronized void withdraw(LoadPair pair) {
+    pending.remove(pair);
+  }
+
+  /**
+   * Loads the property and the pending ones of the batch, whose values are handed over to them without taking the
+   * locks of their objects.
+   */
+  void load(LoadPair trigger) throws SQLException {
+    List<LoadPair> pairs = claim(trigger);
+    if (pairs == null) {
+      // loaded by another thread or after a failed batch
+      trigger.setValue(trigger.getResultLoader().loadResult());
+      return;
+    }
+    Map<Object, Object> keys = new LinkedHashMap<Object, Object>();
+    for (LoadPair pair : pairs) {
+      Object key = pair.getResultLoader().parameterObject;
+      keys.put(normalize(key), key);
+    }
+    Map<Object, List<Object>> rows = select(trigger.getResultLoader(), keys);
+    if (rows == null) {
+      synchronized (this) {
+        disabled = true;
+      }
+      trigger.setValue(trigger.getResultLoader().loadResult());
+      return;
+    }
+    for (LoadPair pair : pairs) {
+      ResultLoader resultLoader = pair.getResultLoader();
+      List<Object> list = rows.get(normalize(resultLoader.parameterObject));
+      Object value = resultLoader.extractResult(list == null ? new ArrayList<Object>() : new ArrayList<Object>(list));
+      if (pair == trigger) {
+        pair.setValue(value);
+      } else {
+        pair.offerValue(value);
+      }
+    }
+  }
+
+  private synchronized List<LoadPair> claim(LoadPair trigger) {
+    if (disabled || !pending.remove(trigger)) {
+      return null;
+    }
+    List<LoadPair> pairs = new ArrayList<LoadPair>();
+    pairs.add(trigger);
+    Iterator<LoadPair> iterator = pending.iterator();
+    while (pairs.size() < batchSize && iterator.hasNext()) {
+      pairs.add(iterator.next());
+      iterator.remove();
+    }
+    return pairs;
+  }
+
+  // the rows of each key, or null if a row has another key, i.e. the condition was not what it seemed
+  private Map<Object, List<Object>> select(ResultLoader resultLoader, Map<Object, Object> keys) throws SQLException {
+    StringBuilder batchSql = new StringBuilder(sql.length() + keys.size() * 3);
+    batchSql.append(sql, 0, keyStart).append(keyColumn).append(" IN (");
+    List<ParameterMapping> parameterMappings = new ArrayList<ParameterMapping>(keys.size());
+    List<Object> values = new ArrayList<Object>(keys.values());
+    for (int i = 0; i < values.size(); i++) {
+      batchSql.append(i == 0 ? "?" : ", ?");
+      parameterMappings.add(new ParameterMapping.Builder(configuration, KEY_PARAMETER + i, keyMapping.getTypeHandler())
+          .javaType(keyMapping.getJavaType())
+          .jdbcType(keyMapping.getJdbcType())
+          .build());
+    }
+    batchSql.append(')').append(sql, keyEnd, sql.length());
+    BoundSql boundSql = new BoundSql(configuration, batchSql.toString(), parameterMappings, null);
+    for (int i = 0; i < values.size(); i++) {
+      boundSql.setAdditionalParameter(KEY_PARAMETER + i, values.get(i));
+    }
+    List<Object> list = resultLoader.selectList(null, null, boundSql);
+    Map<Object, List<Object>> rows = new HashMap<Object, List<Object>>();
+    for (Object row : list) {
+      Object key = row == null ? null : normalize(configuration.newMetaObject(row).getValue(keyProperty));
+      List<Object> keyRows = rows.get(key);
+      if (keyRows == null) {
+        if (!keys.containsKey(key)) {
+          return null;
+        }
+        keyRows = new ArrayList<Object>();
+        rows.put(key, keyRows);
+      }
+      keyRows.add(row);
+    }
+    return rows;
+  }
+
+  // the key read by the parent and the property of the rows may be integers of different types
+  private static Object normalize(Object key) {
+    if (key instanceof Integer || key instanceof Short || key instanceof Byte) {
+      return Long.valueOf(((Number) key).longValue());
+    }
+    return key;
+  }
+
+}
@@ -50,13 +50,26 @@ public class ResultLoaderMap {
   private final Map<String, LoadPair> loaderMap = new HashMap<String, LoadPair>();
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
+    addLoader(property, metaResultObject, resultLoader, null);
+  }
+
+  /**
+   * @param batch the batch the property is loaded with, or null to load it alone
+   * @since 3.4.7
+   */
+  public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader, ResultLoaderBatch batch) {
     String upperFirst = getUppercaseFirstProperty(property);
     if (!upperFirst.equalsIgnoreCase(property) && loaderMap.containsKey(upperFirst)) {
       throw new ExecutorException("Nested lazy loaded result property '" + property +
               "' for query id '" + resultLoader.mappedStatement.getId() +
               " already exists in the result map. The leftmost property of all lazy loaded properties must be unique within a result map.");
     }
-    loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
+    LoadPair pair = new LoadPair(property, metaResultObject, resultLoader);
+    if (batch != null) {
+      pair.batch = batch;
+      batch.add(pair);
+    }
+    loaderMap.put(upperFirst, pair);
   }
 
   public final Map<String, LoadPair> getProperties() {
@@ -86,7 +99,10 @@ public class ResultLoaderMap {
   }
 
   public void remove(String property) {
-    loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    if (pair != null && pair.batch != null) {
+      pair.batch.withdraw(pair);
+    }
   }
 
   public void loadAll() throws SQLException {
@@ -145,6 +161,14 @@ public class ResultLoaderMap {
      * Parameter of the sql statement.
      */
     private Serializable mappedParameter;  // 入参
+    /**
+     * Batch which loads the property with the same property of other objects.
+     */
+    private transient ResultLoaderBatch batch;
+    /**
+     * Value loaded by the batch when another property was loaded, set when this one is.
+     */
+    private transient volatile LoadedValue loadedValue;
 
     private LoadPair(final String property, MetaObject metaResultObject, ResultLoader resultLoader) {
       this.property = property;
@@ -218,7 +242,30 @@ public class ResultLoaderMap {
                 old.parameterObject, old.targetType, old.cacheKey, old.boundSql);
       }
 
-      this.metaResultObject.setValue(property, this.resultLoader.loadResult());
+      final LoadedValue loaded = this.loadedValue;
+      if (loaded != null) {
+        this.metaResultObject.setValue(property, loaded.value);
+      } else if (this.batch != null && this.serializationCheck != null) {
+        this.batch.load(this);
+      } else {
+        this.metaResultObject.setValue(property, this.resultLoader.loadResult());
+      }
+    }
+
+    ResultLoader getResultLoader() {
+      return resultLoader;
+    }
+
+    void setValue(Object value) {
+      metaResultObject.setValue(property, value);
+    }
+
+    /**
+     * Hands over a value loaded with another property. It is set when this property is loaded, so it is applied under
+     * the lock of its own object and is dropped if the property was set since.
+     */
+    void offerValue(Object value) {
+      loadedValue = new LoadedValue(value);
     }
 
     private Configuration getConfiguration() {
@@ -284,6 +331,14 @@ public class ResultLoaderMap {
     }
   }
 
+  private static final class LoadedValue {
+    private final Object value;
+
+    LoadedValue(Object value) {
+      this.value = value;
+    }
+  }
+
   private static final class ClosedExecutor extends BaseExecutor {
 
     public ClosedExecutor() {
@@ -0,0 +1,100 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a result set with a known column layout to a flat bean.
+ * <p>
+ * The column indexes, type handlers and setter invokers are resolved once, when a result map is first applied
+ * to a given column layout, so each row is mapped without going through {@link org.apache.ibatis.reflection.MetaObject}.
+ * Instances are immutable and shared by all the statements that use the same result map and column layout.
+ *
+ * @see DefaultResultSetHandler
+ */
+public class CompiledRowMapper {
+
+  /**
+   * Marks a result map and column layout that cannot be mapped by a compiled row mapper.
+   */
+  static final CompiledRowMapper NOT_COMPILABLE = new CompiledRowMapper(null, null, new ArrayList<Step>(), false);
+
+  private final ObjectFactory objectFactory;
+  private final Class<?> type;
+  private final Step[] steps;
+  private final boolean returnInstanceForEmptyRow;
+
+  CompiledRowMapper(ObjectFactory objectFactory, Class<?> type, List<Step> steps, boolean returnInstanceForEmptyRow) {
+    this.objectFactory = objectFactory;
+    this.type = type;
+    this.steps = steps.toArray(new Step[steps.size()]);
+    this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+  }
+
+  public Object getRowValue(ResultSet rs) throws SQLException {
+    final Object rowValue = objectFactory.create(type);
+    boolean foundValues = false;
+    for (Step step : steps) {
+      final Object value = step.typeHandler.getResult(rs, step.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || step.callSetterOnNull) {
+        step.setValue(rowValue, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  static class Step {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final Invoker setter;
+    private final boolean callSetterOnNull;
+
+    Step(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, boolean callSetterOnNull) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = setter;
+      this.callSetterOnNull = callSetterOnNull;
+    }
+
+    private void setValue(Object object, Object value) {
+      try {
+        try {
+          setter.invoke(object, new Object[] { value });
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + property + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+}
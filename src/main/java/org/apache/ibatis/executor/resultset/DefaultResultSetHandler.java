@@ -20,10 +20,12 @@ import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderBatch;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
@@ -36,15 +38,21 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -54,12 +62,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * @author Clinton Begin
@@ -71,6 +84,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERED = new Object();
 
+  // set while a nested select runs for the nested query executor, its own nested selects run one after the other
+  private static final ThreadLocal<Boolean> IN_NESTED_QUERY = new ThreadLocal<Boolean>();
+
   private final Executor executor;
   private final Configuration configuration;
   private final MappedStatement mappedStatement;
@@ -91,6 +107,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<String, ResultMapping>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<CacheKey, List<PendingRelation>>();
 
+  // lazy loaded nested selects, null when they are not loaded in batch
+  private final Map<String, ResultLoaderBatch> lazyLoadBatches = new HashMap<String, ResultLoaderBatch>();
+
+  // eager nested selects running on the nested query executor, null when they run as the rows are mapped
+  private List<PendingNestedQuery> pendingNestedQueries;
+  private Map<List<Object>, Future<Object>> nestedQueryFutures;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<String, List<UnMappedColumnAutoMapping>>();
 
@@ -103,6 +126,44 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingNestedQuery {
+    private final MetaObject metaObject;
+    private final String property;
+    private final Future<Object> value;
+
+    PendingNestedQuery(MetaObject metaObject, String property, Future<Object> value) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.value = value;
+    }
+  }
+
+  private static class NestedQueryTask implements Callable<Object> {
+    private final ResultLoader resultLoader;
+    private final Thread mappingThread = Thread.currentThread();
+
+    NestedQueryTask(ResultLoader resultLoader) {
+      this.resultLoader = resultLoader;
+    }
+
+    @Override
+    public Object call() throws SQLException {
+      // may run on the mapping thread when the executor is busy
+      boolean nested = IN_NESTED_QUERY.get() != null;
+      IN_NESTED_QUERY.set(Boolean.TRUE);
+      try {
+        return resultLoader.loadResult();
+      } finally {
+        if (!nested) {
+          IN_NESTED_QUERY.remove();
+          if (Thread.currentThread() != mappingThread) {
+            ErrorContext.instance().reset();
+          }
+        }
+      }
+    }
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
@@ -184,6 +245,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<Object>();
+    if (canRunNestedQueriesInParallel()) {
+      pendingNestedQueries = new ArrayList<PendingNestedQuery>();
+      nestedQueryFutures = new HashMap<List<Object>, Future<Object>>();
+    }
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);      // 获取结果集
@@ -214,6 +279,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    awaitNestedQueries();
     return collapseSingleResultList(multipleResults);
   }
 
@@ -232,10 +298,57 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<E>(this, resultMap, rsw, rowBounds);
+    DefaultCursor<E> cursor = new DefaultCursor<E>(this, resultMap, rsw, rowBounds);
+    int prefetchSize = configuration.getCursorPrefetchSize();
+    // nested selects would run on the session's executor from the background thread
+    if (prefetchSize > 0 && !hasNestedQueries(resultMap, new HashSet<String>())) {
+      Integer fetchSize = mappedStatement.getFetchSize() != null ? mappedStatement.getFetchSize() : configuration.getDefaultFetchSize();
+      if (fetchSize != null && fetchSize > prefetchSize) {
+        // keeps a whole fetch mapped ahead, so the next fetch starts while it is consumed
+        prefetchSize = fetchSize;
+      }
+      return new PrefetchingCursor<E>(cursor, rowBounds, prefetchSize, mappedStatement.getId());
+    }
+    return cursor;
+  }
+
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> visited) {
+    if (!visited.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    List<String> nestedResultMapIds = new ArrayList<String>();
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      if (resultMapping.getNestedResultMapId() != null) {
+        nestedResultMapIds.add(resultMapping.getNestedResultMapId());
+      }
+    }
+    if (resultMap.getDiscriminator() != null) {
+      nestedResultMapIds.addAll(resultMap.getDiscriminator().getDiscriminatorMap().values());
+    }
+    for (String nestedResultMapId : nestedResultMapIds) {
+      if (configuration.hasResultMap(nestedResultMapId)
+          && hasNestedQueries(configuration.getResultMap(nestedResultMapId), visited)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   // 获取resultSet
+  // the nested selects run on their own connections, so they only see what the session sees when it commits every
+  // statement and no transaction manager enlists its connection in a wider transaction
+  private boolean canRunNestedQueriesInParallel() throws SQLException {
+    if (configuration.getNestedQueryThreads() <= 0 || resultHandler != null
+        || mappedStatement.getSqlCommandType() != SqlCommandType.SELECT || IN_NESTED_QUERY.get() != null) {
+      return false;
+    }
+    Transaction transaction = executor.getTransaction();
+    return transaction instanceof JdbcTransaction && transaction.getConnection().getAutoCommit();
+  }
+
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
     ResultSet rs = stmt.getResultSet();
     // 如果取到的值为null
@@ -353,9 +466,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
     skipRows(rsw.getResultSet(), rowBounds);    // 跳过起始偏移量之内的数据
+    boolean resolveRowMapper = configuration.isUseCompiledRowMappers();
+    CompiledRowMapper rowMapper = null;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap);
+      if (resolveRowMapper) {
+        // resolved on the first row as automapping may report unknown columns
+        rowMapper = getCompiledRowMapper(rsw, resultMap);
+        resolveRowMapper = false;
+      }
+      Object rowValue;
+      if (rowMapper != null) {
+        rowValue = rowMapper.getRowValue(rsw.getResultSet());
+      } else {
+        ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
+        rowValue = getRowValue(rsw, discriminatedResultMap);
+      }
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
     }
   }
@@ -412,6 +537,71 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final String key = resultMap.getId() + ":" + rsw.getColumnLayoutKey();
+    CompiledRowMapper rowMapper = configuration.getCompiledRowMapper(key);
+    if (rowMapper == null) {
+      rowMapper = compileRowMapper(rsw, resultMap);
+      configuration.addCompiledRowMapper(key, rowMapper);
+    }
+    return rowMapper == CompiledRowMapper.NOT_COMPILABLE ? null : rowMapper;
+  }
+
+  // Only flat beans are compiled, everything else keeps going through MetaObject
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (resultMap.getDiscriminator() != null
+        || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || resultType.isInterface()
+        || Map.class.isAssignableFrom(resultType)
+        || Collection.class.isAssignableFrom(resultType)
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class
+        || hasTypeHandlerForResultObject(rsw, resultType)) {
+      return CompiledRowMapper.NOT_COMPILABLE;
+    }
+    final Reflector reflector = reflectorFactory.findForClass(resultType);
+    if (!reflector.hasDefaultConstructor()) {
+      return CompiledRowMapper.NOT_COMPILABLE;
+    }
+    final List<CompiledRowMapper.Step> steps = new ArrayList<CompiledRowMapper.Step>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultType));
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+        if (!isSimpleProperty(mapping.property)) {
+          return CompiledRowMapper.NOT_COMPILABLE;
+        }
+        steps.add(new CompiledRowMapper.Step(rsw.getColumnIndex(mapping.column), mapping.typeHandler, mapping.property,
+            reflector.getSetInvoker(mapping.property), configuration.isCallSettersOnNulls() && !mapping.primitive));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedResultMapId() != null || propertyMapping.getResultSet() != null || propertyMapping.isCompositeResult()) {
+        return CompiledRowMapper.NOT_COMPILABLE;
+      }
+      final String column = propertyMapping.getColumn();
+      final String property = propertyMapping.getProperty();
+      if (column == null || property == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!isSimpleProperty(property) || !reflector.hasSetter(property)) {
+        return CompiledRowMapper.NOT_COMPILABLE;
+      }
+      steps.add(new CompiledRowMapper.Step(rsw.getColumnIndex(column), propertyMapping.getTypeHandler(), property,
+          reflector.getSetInvoker(property), configuration.isCallSettersOnNulls() && !reflector.getSetterType(property).isPrimitive()));
+    }
+    return new CompiledRowMapper(objectFactory, resultType, steps, configuration.isReturnInstanceForEmptyRow());
+  }
+
+  private boolean isSimpleProperty(String property) {
+    return property.indexOf('.') < 0 && property.indexOf('[') < 0;
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -785,7 +975,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       } else {
         final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
         if (propertyMapping.isLazy()) {   // 如果延迟加载
-          lazyLoader.addLoader(property, metaResultObject, resultLoader);
+          lazyLoader.addLoader(property, metaResultObject, resultLoader, lazyLoadBatch(nestedQuery, nestedBoundSql, nestedQueryParameterObject));
+          value = DEFERED;
+        } else if (pendingNestedQueries != null && nestedQuery.getSqlCommandType() == SqlCommandType.SELECT
+            && nestedQuery.getStatementType() != StatementType.CALLABLE) {
+          submitNestedQuery(metaResultObject, property, Arrays.<Object>asList(key, targetType), resultLoader);
           value = DEFERED;
         } else {
           value = resultLoader.loadResult();                // 否则直接加载
@@ -795,6 +989,68 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private void submitNestedQuery(MetaObject metaResultObject, String property, List<Object> queryKey, ResultLoader resultLoader) {
+    Future<Object> future = nestedQueryFutures.get(queryKey);
+    if (future == null) {
+      future = configuration.getNestedQueryExecutor().submit(new NestedQueryTask(resultLoader));
+      nestedQueryFutures.put(queryKey, future);
+    }
+    pendingNestedQueries.add(new PendingNestedQuery(metaResultObject, property, future));
+  }
+
+  // sets the properties loaded by the nested selects submitted while the rows were mapped
+  private void awaitNestedQueries() throws SQLException {
+    if (pendingNestedQueries == null) {
+      return;
+    }
+    try {
+      for (PendingNestedQuery pending : pendingNestedQueries) {
+        Object value = getNestedQueryValue(pending.value);
+        if (value != null || (configuration.isCallSettersOnNulls() && !pending.metaObject.getSetterType(pending.property).isPrimitive())) {
+          pending.metaObject.setValue(pending.property, value);
+        }
+      }
+    } finally {
+      for (PendingNestedQuery pending : pendingNestedQueries) {
+        pending.value.cancel(false);
+      }
+      pendingNestedQueries = null;
+      nestedQueryFutures = null;
+    }
+  }
+
+  private Object getNestedQueryValue(Future<Object> future) throws SQLException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for the nested selects of " + mappedStatement.getId(), e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExecutorException("Error running a nested select of " + mappedStatement.getId() + ".  Cause: " + cause, cause);
+    }
+  }
+
+  private ResultLoaderBatch lazyLoadBatch(MappedStatement nestedQuery, BoundSql nestedBoundSql, Object nestedQueryParameterObject) {
+    int batchSize = configuration.getLazyLoadBatchSize();
+    if (batchSize < 2) {
+      return null;
+    }
+    ResultLoaderBatch batch = lazyLoadBatches.get(nestedQuery.getId());
+    if (batch == null && !lazyLoadBatches.containsKey(nestedQuery.getId())) {
+      batch = ResultLoaderBatch.forStatement(nestedQuery, nestedBoundSql, batchSize);
+      lazyLoadBatches.put(nestedQuery.getId(), batch);
+    }
+    return batch != null && batch.accepts(nestedBoundSql, nestedQueryParameterObject) ? batch : null;
+  }
+
   // 获取结果集中对应resultMapping以及columnPrefix的值
   // 其类型为parameterType
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
@@ -1044,9 +1300,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
   private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
+    // sized for the id of the result map and a column and value per mapping or column
+    final CacheKey cacheKey = new CacheKey(1 + 2 * (resultMappings.isEmpty() ? rsw.getColumnNames().size() : resultMappings.size()));
+    cacheKey.update(resultMap.getId());
     if (resultMappings.isEmpty()) {                          // 如果为空，表示么有配置
       if (Map.class.isAssignableFrom(resultMap.getType())) {
         createRowKeyForMap(rsw, cacheKey);                   // 根据结果集来构建
@@ -1065,12 +1322,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // 将parentRowKey update到rowKey上
   private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
     if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
-      }
+      CacheKey combinedKey = new CacheKey(rowKey, 1);
       combinedKey.update(parentRowKey);
       return combinedKey;
     }
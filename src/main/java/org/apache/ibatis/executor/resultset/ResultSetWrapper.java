@@ -48,6 +48,7 @@ public class ResultSetWrapper {
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<String, Map<Class<?>, TypeHandler<?>>>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<String, List<String>>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<String, List<String>>();
+  private String columnLayoutKey;
 
   // 填充数据结构
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
@@ -75,6 +76,38 @@ public class ResultSetWrapper {
     return Collections.unmodifiableList(classNames);
   }
 
+  /**
+   * Gets the 1-based index of the first column with the given name, ignoring case.
+   *
+   * @param columnName
+   * @return the column index or -1 if there is no such column
+   */
+  public int getColumnIndex(String columnName) {
+    for (int i = 0 ; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets a string that identifies the names and types of the columns of the result set.
+   * Two result sets with the same layout are mapped in the same way by a given result map.
+   *
+   * @return the layout key
+   */
+  public String getColumnLayoutKey() {
+    if (columnLayoutKey == null) {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0 ; i < columnNames.size(); i++) {
+        builder.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':').append(classNames.get(i)).append(',');
+      }
+      columnLayoutKey = builder.toString();
+    }
+    return columnLayoutKey;
+  }
+
   // 根据columnName来获取jdbcType
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0 ; i < columnNames.size(); i++) {
@@ -23,14 +23,22 @@ import java.util.Properties;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.StatsCounter;
 import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.decorators.AsyncCommitCache;
 import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.decorators.ExpiringCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TaggedCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.SimpleStatsCounter;
+import org.apache.ibatis.cache.impl.TwoTierCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 
@@ -46,6 +54,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private StatsCounter statsCounter;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -89,19 +98,49 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * Sets the counter that records the statistics of the cache and of its eviction policy.
+   *
+   * @since 3.4.7
+   */
+  public CacheBuilder statsCounter(StatsCounter statsCounter) {
+    this.statsCounter = statsCounter;
+    return this;
+  }
+
   public Cache build() {
     setDefaultImplementations();
+    boolean tableInvalidation = properties != null && "TABLE".equalsIgnoreCase(properties.getProperty("invalidation"));
+    if (tableInvalidation && TwoTierCache.class.equals(implementation)) {
+      // the versions of the tables are kept in each JVM, so an update would not invalidate the objects of other nodes
+      throw new CacheException("Table invalidation is not supported by the two tier cache " + id);
+    }
     Cache cache = newBaseCacheInstance(implementation, id);
     setCacheProperties(cache);
+    setStatsCounter(cache);
     // issue #352, do not apply decorators to custom caches
     if (PerpetualCache.class.equals(cache.getClass())) {
       for (Class<? extends Cache> decorator : decorators) {   // 构建适配缓存器
         cache = newCacheDecoratorInstance(decorator, cache);
         setCacheProperties(cache);
+        setStatsCounter(cache);
       }
-      cache = setStandardDecorators(cache);
+      cache = setStandardDecorators(cache, true, readWrite);
+    } else if (ConcurrentCache.class.equals(cache.getClass()) || TwoTierCache.class.equals(cache.getClass())) {
+      // evicts and guards its entries itself, so neither eviction decorators nor SynchronizedCache are needed
+      cache = setStandardDecorators(cache, false, readWrite);
+    } else if (OffHeapCache.class.equals(cache.getClass())) {
+      // also stores serialized copies itself, so SerializedCache is not needed either
+      cache = setStandardDecorators(cache, false, false);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
-      cache = new LoggingCache(cache);
+      cache = new LoggingCache(cache, statsCounter());
+    }
+    if (properties != null && Boolean.parseBoolean(properties.getProperty("asyncCommit"))) {
+      cache = new AsyncCommitCache(cache);
+      setCacheProperties(cache);
+    }
+    if (tableInvalidation) {
+      cache = new TaggedCache(cache);
     }
     return cache;
   }
@@ -116,23 +155,33 @@ public class CacheBuilder {
   }
 
   //修饰器模式
-  private Cache setStandardDecorators(Cache cache) {
+  private Cache setStandardDecorators(Cache cache, boolean synchronize, boolean serialize) {
     try {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
       if (size != null && metaCache.hasSetter("size")) {
         metaCache.setValue("size", size);
       }
       if (clearInterval != null) {
-        cache = new ScheduledCache(cache);
-        ((ScheduledCache) cache).setClearInterval(clearInterval);
+        if (properties != null && "ENTRY".equalsIgnoreCase(properties.getProperty("expiration"))) {
+          cache = new ExpiringCache(cache);
+          ((ExpiringCache) cache).setTtl(clearInterval);
+          setCacheProperties(cache);
+        } else {
+          cache = new ScheduledCache(cache);
+          ((ScheduledCache) cache).setClearInterval(clearInterval);
+        }
       }
-      if (readWrite) {
+      if (serialize) {
         cache = new SerializedCache(cache);
+        setCacheProperties(cache);
+      }
+      cache = new LoggingCache(cache, statsCounter());
+      if (synchronize) {
+        cache = new SynchronizedCache(cache);
       }
-      cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
       if (blocking) {
         cache = new BlockingCache(cache);
+        setCacheProperties(cache);
       }
       return cache;
     } catch (Exception e) {
@@ -140,6 +189,21 @@ public class CacheBuilder {
     }
   }
 
+  private StatsCounter statsCounter() {
+    if (statsCounter == null) {
+      statsCounter = new SimpleStatsCounter();
+    }
+    return statsCounter;
+  }
+
+  // eviction policies record their evictions and weight in the same counter as LoggingCache
+  private void setStatsCounter(Cache cache) {
+    MetaObject metaCache = SystemMetaObject.forObject(cache);
+    if (metaCache.hasSetter("statsCounter")) {
+      metaCache.setValue("statsCounter", statsCounter());
+    }
+  }
+
   // 为cache设置属性
   private void setCacheProperties(Cache cache) {
     if (properties != null) {
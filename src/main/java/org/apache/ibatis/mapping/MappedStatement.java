@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -27,6 +28,7 @@ import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
 
 /**
  * @author Clinton Begin
@@ -56,6 +58,7 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private volatile CacheKeyPrefix cacheKeyPrefix;
 
   MappedStatement() {
     // constructor disabled
@@ -310,6 +313,24 @@ public final class MappedStatement {
     return boundSql;
   }
 
+  /**
+   * Returns a cache key made of the id of this statement, the bounds and the SQL, to start the cache keys of its
+   * queries with, see {@link CacheKey#CacheKey(CacheKey, int)}.
+   * <p>
+   * The last prefix is kept and returned again while the bounds and the SQL stay the same, so the SQL of the
+   * keys is the same instance and their common part is hashed once.
+   *
+   * @since 3.4.7
+   */
+  public CacheKey getCacheKeyPrefix(RowBounds rowBounds, String sql) {
+    CacheKeyPrefix prefix = cacheKeyPrefix;
+    if (prefix == null || !prefix.matches(rowBounds, sql)) {
+      prefix = new CacheKeyPrefix(id, rowBounds, sql);
+      cacheKeyPrefix = prefix;
+    }
+    return prefix.key;
+  }
+
   private static String[] delimitedStringToArray(String in) {
     if (in == null || in.trim().length() == 0) {
       return null;
@@ -318,4 +339,27 @@ public final class MappedStatement {
     }
   }
 
+  private static final class CacheKeyPrefix {
+    private final int offset;
+    private final int limit;
+    private final String sql;
+    private final CacheKey key;
+
+    private CacheKeyPrefix(String id, RowBounds rowBounds, String sql) {
+      this.offset = rowBounds.getOffset();
+      this.limit = rowBounds.getLimit();
+      this.sql = sql;
+      this.key = new CacheKey(4);
+      key.update(id);
+      key.updateInt(offset);
+      key.updateInt(limit);
+      key.update(sql);
+    }
+
+    private boolean matches(RowBounds rowBounds, String sql) {
+      return offset == rowBounds.getOffset() && limit == rowBounds.getLimit()
+          && (this.sql == sql || this.sql != null && this.sql.equals(sql));
+    }
+  }
+
 }
@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Intercepts the calls to a target for all the interceptors of a chain with a single proxy.
+ * <p>
+ * The interceptors of each method are resolved once per target class into a {@link Dispatch}. A call to a method
+ * that no interceptor intercepts goes straight to the target, the others go through each interceptor of the method
+ * in the order of nested {@link Plugin}s, the last added first. {@link Invocation#getTarget()} is always the
+ * target itself.
+ *
+ * @since 3.4.7
+ */
+class FusedPlugin implements InvocationHandler {
+
+  private final Object target;
+  private final Map<Method, Interceptor[]> interceptorsByMethod;
+
+  private FusedPlugin(Object target, Map<Method, Interceptor[]> interceptorsByMethod) {
+    this.target = target;
+    this.interceptorsByMethod = interceptorsByMethod;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    try {
+      Interceptor[] interceptors = interceptorsByMethod.get(method);
+      if (interceptors == null) {
+        return method.invoke(target, args);
+      }
+      return interceptors[0].intercept(new ChainedInvocation(target, method, args, interceptors, 1));
+    } catch (Exception e) {
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+
+  /**
+   * Resolves the interceptors of each method of a target class.
+   *
+   * @param interceptors the interceptors in the order they were added to the chain
+   */
+  static Dispatch dispatch(Class<?> type, List<Interceptor> interceptors, Plugin.Memo memo) {
+    Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+    Map<Method, List<Interceptor>> interceptorLists = new HashMap<Method, List<Interceptor>>();
+    for (int i = interceptors.size() - 1; i >= 0; i--) {
+      Interceptor interceptor = interceptors.get(i);
+      Map<Class<?>, Set<Method>> signatureMap = memo.getSignatureMap(interceptor.getClass());
+      for (Class<?> c : Plugin.getAllInterfaces(type, signatureMap)) {
+        interfaces.add(c);
+        for (Method method : signatureMap.get(c)) {
+          List<Interceptor> interceptorList = interceptorLists.get(method);
+          if (interceptorList == null) {
+            interceptorList = new ArrayList<Interceptor>();
+            interceptorLists.put(method, interceptorList);
+          }
+          interceptorList.add(interceptor);
+        }
+      }
+    }
+    Map<Method, Interceptor[]> interceptorsByMethod = new HashMap<Method, Interceptor[]>();
+    for (Map.Entry<Method, List<Interceptor>> entry : interceptorLists.entrySet()) {
+      interceptorsByMethod.put(entry.getKey(), entry.getValue().toArray(new Interceptor[entry.getValue().size()]));
+    }
+    return new Dispatch(type, interfaces.toArray(new Class<?>[interfaces.size()]), interceptorsByMethod);
+  }
+
+  static class Dispatch {
+
+    private final Constructor<?> proxyConstructor;
+    private final Map<Method, Interceptor[]> interceptorsByMethod;
+
+    private Dispatch(Class<?> type, Class<?>[] interfaces, Map<Method, Interceptor[]> interceptorsByMethod) {
+      this.interceptorsByMethod = interceptorsByMethod;
+      if (interfaces.length == 0) {
+        this.proxyConstructor = null;
+      } else {
+        try {
+          this.proxyConstructor = Proxy.getProxyClass(type.getClassLoader(), interfaces).getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+          throw new PluginException("Could not create the proxy class of " + type + ". Cause: " + e, e);
+        }
+      }
+    }
+
+    Object wrap(Object target) {
+      if (proxyConstructor == null) {
+        return target;
+      }
+      try {
+        return proxyConstructor.newInstance(new FusedPlugin(target, interceptorsByMethod));
+      } catch (Exception e) {
+        throw new PluginException("Could not create the proxy of " + target.getClass() + ". Cause: " + e, e);
+      }
+    }
+
+  }
+
+  private static class ChainedInvocation extends Invocation {
+
+    private final Interceptor[] interceptors;
+    private final int next;
+
+    ChainedInvocation(Object target, Method method, Object[] args, Interceptor[] interceptors, int next) {
+      super(target, method, args);
+      this.interceptors = interceptors;
+      this.next = next;
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      if (next == interceptors.length) {
+        return super.proceed();
+      }
+      try {
+        return interceptors[next].intercept(new ChainedInvocation(getTarget(), getMethod(), getArgs(), interceptors, next + 1));
+      } catch (InvocationTargetException e) {
+        throw e;
+      } catch (IllegalAccessException e) {
+        throw e;
+      } catch (Throwable e) {
+        // keeps the exception thrown by an inner interceptor, as a nested proxy does
+        throw new InvocationTargetException(e);
+      }
+    }
+
+  }
+
+}
@@ -18,6 +18,8 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Clinton Begin
@@ -25,16 +27,44 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<Interceptor>();
+  private final ConcurrentMap<Class<?>, FusedPlugin.Dispatch> dispatches = new ConcurrentHashMap<Class<?>, FusedPlugin.Dispatch>();
+  private final Plugin.Memo memo = new Plugin.Memo();
+  private boolean fused;
 
   public Object pluginAll(Object target) {
-    for (Interceptor interceptor : interceptors) {
-      target = interceptor.plugin(target);
+    if (fused) {
+      return fusedDispatch(target.getClass()).wrap(target);
     }
-    return target;
+    return Plugin.pluginAll(target, interceptors, memo);
   }
 
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    dispatches.clear();
+  }
+
+  public boolean isFused() {
+    return fused;
+  }
+
+  /**
+   * Wraps each target in a single proxy that calls the interceptors of the chain, instead of calling
+   * {@link Interceptor#plugin(Object)} on each interceptor. Only suitable for interceptors whose {@code plugin} method
+   * is {@code Plugin.wrap(target, this)}.
+   *
+   * @since 3.4.7
+   */
+  public void setFused(boolean fused) {
+    this.fused = fused;
+  }
+
+  private FusedPlugin.Dispatch fusedDispatch(Class<?> type) {
+    FusedPlugin.Dispatch dispatch = dispatches.get(type);
+    if (dispatch == null) {
+      dispatch = FusedPlugin.dispatch(type, interceptors, memo);
+      dispatches.putIfAbsent(type, dispatch);
+    }
+    return dispatch;
   }
   
   public List<Interceptor> getInterceptors() {
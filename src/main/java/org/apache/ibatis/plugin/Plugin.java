@@ -15,13 +15,17 @@
  */
 package org.apache.ibatis.plugin;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -30,6 +34,9 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  // the memo of the interceptor chain wrapping a target on this thread, a wrap outside of a chain resolves everything
+  private static final ThreadLocal<Memo> currentMemo = new ThreadLocal<Memo>();
+
   private final Object target;
   private final Interceptor interceptor;
   private final Map<Class<?>, Set<Method>> signatureMap;
@@ -41,14 +48,22 @@ public class Plugin implements InvocationHandler {
   }
 
   public static Object wrap(Object target, Interceptor interceptor) {
-    Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);    // 根据interceptor类上的注解去 获取方法
-    Class<?> type = target.getClass();
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);             // 获取 应当被interceptor intercept的接口
-    if (interfaces.length > 0) {       // 如果存在需要被intercept的
-      return Proxy.newProxyInstance(   // 返回一个新的代理对象，其类型是target的类型
-          type.getClassLoader(),
-          interfaces,
-          new Plugin(target, interceptor, signatureMap));
+    Memo memo = currentMemo.get();
+    Map<Class<?>, Set<Method>> signatureMap;    // 根据interceptor类上的注解去 获取方法
+    Constructor<?> proxyConstructor;
+    if (memo == null) {
+      signatureMap = resolveSignatureMap(interceptor.getClass());
+      proxyConstructor = new ProxyType(target.getClass(), getAllInterfaces(target.getClass(), signatureMap)).constructor;
+    } else {
+      signatureMap = memo.getSignatureMap(interceptor.getClass());
+      proxyConstructor = memo.getProxyConstructor(target.getClass(), interceptor.getClass(), signatureMap);
+    }
+    if (proxyConstructor != null) {       // 如果存在需要被intercept的
+      try {
+        return proxyConstructor.newInstance(new Plugin(target, interceptor, signatureMap));
+      } catch (Exception e) {
+        throw new PluginException("Could not create the proxy of " + target.getClass() + ". Cause: " + e, e);
+      }
     }
     return target;
   }
@@ -66,13 +81,34 @@ public class Plugin implements InvocationHandler {
     }
   }
 
+  /**
+   * Calls {@link Interceptor#plugin(Object)} on each interceptor, the wraps they make reuse the signature maps and
+   * proxy classes of the memo.
+   */
+  static Object pluginAll(Object target, List<Interceptor> interceptors, Memo memo) {
+    Memo previous = currentMemo.get();
+    currentMemo.set(memo);
+    try {
+      for (Interceptor interceptor : interceptors) {
+        target = interceptor.plugin(target);
+      }
+      return target;
+    } finally {
+      if (previous == null) {
+        currentMemo.remove();
+      } else {
+        currentMemo.set(previous);
+      }
+    }
+  }
+
   // 获取interceptor类上的Intercepts注解
   // 并解析其中的Signature，封装成结果
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
-    Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
+  private static Map<Class<?>, Set<Method>> resolveSignatureMap(Class<?> interceptorType) {
+    Intercepts interceptsAnnotation = interceptorType.getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
-      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptor.getClass().getName());      
+      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptorType.getName());      
     }
     Signature[] sigs = interceptsAnnotation.value();
     Map<Class<?>, Set<Method>> signatureMap = new HashMap<Class<?>, Set<Method>>();
@@ -93,7 +129,7 @@ public class Plugin implements InvocationHandler {
   }
 
   // 返回type所有父接口中，且其存在于signatureMap中的接口
-  private static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
+  static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
     Set<Class<?>> interfaces = new HashSet<Class<?>>();
     while (type != null) {
       for (Class<?> c : type.getInterfaces()) {
@@ -106,4 +142,61 @@ public class Plugin implements InvocationHandler {
     return interfaces.toArray(new Class<?>[interfaces.size()]);
   }
 
+  /**
+   * The signature maps by interceptor class, and the proxy classes by interceptor class and target class, of an
+   * {@link InterceptorChain}. Kept by the chain rather than statically so they do not outlive its configuration, nor
+   * keep the classes of a redeployed application loaded.
+   */
+  static final class Memo {
+
+    private final ConcurrentMap<Class<?>, Map<Class<?>, Set<Method>>> signatureMaps = new ConcurrentHashMap<Class<?>, Map<Class<?>, Set<Method>>>();
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, ProxyType>> proxyTypes = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, ProxyType>>();
+
+    Map<Class<?>, Set<Method>> getSignatureMap(Class<?> interceptorType) {
+      Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(interceptorType);
+      if (signatureMap == null) {
+        signatureMap = resolveSignatureMap(interceptorType);
+        signatureMaps.putIfAbsent(interceptorType, signatureMap);
+      }
+      return signatureMap;
+    }
+
+    // the proxy class of the interfaces of the type the interceptor intercepts, null if there is none
+    private Constructor<?> getProxyConstructor(Class<?> type, Class<?> interceptorType, Map<Class<?>, Set<Method>> signatureMap) {
+      ConcurrentMap<Class<?>, ProxyType> types = proxyTypes.get(interceptorType);
+      if (types == null) {
+        types = new ConcurrentHashMap<Class<?>, ProxyType>();
+        ConcurrentMap<Class<?>, ProxyType> existing = proxyTypes.putIfAbsent(interceptorType, types);
+        if (existing != null) {
+          types = existing;
+        }
+      }
+      ProxyType proxyType = types.get(type);
+      if (proxyType == null) {
+        proxyType = new ProxyType(type, getAllInterfaces(type, signatureMap));           // 获取 应当被interceptor intercept的接口
+        types.putIfAbsent(type, proxyType);
+      }
+      return proxyType.constructor;
+    }
+
+  }
+
+  private static class ProxyType {
+
+    private final Constructor<?> constructor;
+
+    ProxyType(Class<?> type, Class<?>[] interfaces) {
+      if (interfaces.length == 0) {
+        constructor = null;
+      } else {
+        try {
+          constructor = Proxy.getProxyClass(type.getClassLoader(), interfaces).getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+          throw new PluginException("Could not create the proxy class of " + type + ". Cause: " + e, e);
+        }
+      }
+    }
+
+  }
+
 }
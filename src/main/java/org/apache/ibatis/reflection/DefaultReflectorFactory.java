@@ -18,11 +18,32 @@ package org.apache.ibatis.reflection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
+import org.apache.ibatis.reflection.invoker.ReflectionInvokerFactory;
+
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<Class<?>, Reflector>();
 
+  private InvokerFactory invokerFactory;
+
   public DefaultReflectorFactory() {
+    this(new ReflectionInvokerFactory());
+  }
+
+  public DefaultReflectorFactory(InvokerFactory invokerFactory) {
+    this.invokerFactory = invokerFactory;
+  }
+
+  public InvokerFactory getInvokerFactory() {
+    return invokerFactory;
+  }
+
+  /**
+   * Sets the factory of the invokers of the reflectors created from now on.
+   */
+  public void setInvokerFactory(InvokerFactory invokerFactory) {
+    this.invokerFactory = invokerFactory;
   }
 
   @Override
@@ -41,12 +62,12 @@ public class DefaultReflectorFactory implements ReflectorFactory {
             // synchronized (type) removed see issue #461
       Reflector cached = reflectorMap.get(type);
       if (cached == null) {
-        cached = new Reflector(type);          //创建Reflector的时候会初始化数据
+        cached = new Reflector(type, invokerFactory);          //创建Reflector的时候会初始化数据
         reflectorMap.put(type, cached);
       }
       return cached;
     } else {
-      return new Reflector(type);
+      return new Reflector(type, invokerFactory);
     }
   }
 
@@ -16,11 +16,13 @@
 package org.apache.ibatis.reflection;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
 
+import org.apache.ibatis.reflection.invoker.GeneratedInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
@@ -129,6 +131,12 @@ public class MetaClass {
         _field.setAccessible(true);
         Field field = (Field) _field.get(invoker);                              // 获取invoker的field属性
         return TypeParameterResolver.resolveFieldType(field, reflector.getType());
+      } else if (invoker instanceof GeneratedInvoker) {
+        Member member = ((GeneratedInvoker) invoker).getMember();
+        if (member instanceof Method) {
+          return TypeParameterResolver.resolveReturnType((Method) member, reflector.getType());
+        }
+        return TypeParameterResolver.resolveFieldType((Field) member, reflector.getType());
       }
     } catch (NoSuchFieldException e) {
     } catch (IllegalAccessException e) {
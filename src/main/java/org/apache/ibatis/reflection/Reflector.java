@@ -32,10 +32,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
-import org.apache.ibatis.reflection.invoker.MethodInvoker;
-import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.InvokerFactory;
+import org.apache.ibatis.reflection.invoker.ReflectionInvokerFactory;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 
 /**
@@ -47,6 +46,7 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
 public class Reflector {
 
   private final Class<?> type;
+  private final InvokerFactory invokerFactory;
   private final String[] readablePropertyNames;
   private final String[] writeablePropertyNames;
   private final Map<String, Invoker> setMethods = new HashMap<String, Invoker>();
@@ -58,7 +58,12 @@ public class Reflector {
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<String, String>();
 
   public Reflector(Class<?> clazz) {
+    this(clazz, new ReflectionInvokerFactory());
+  }
+
+  public Reflector(Class<?> clazz, InvokerFactory invokerFactory) {
     type = clazz;
+    this.invokerFactory = invokerFactory;
     addDefaultConstructor(clazz);
     addGetMethods(clazz);
     addSetMethods(clazz);
@@ -146,7 +151,7 @@ public class Reflector {
 
   private void addGetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      getMethods.put(name, new MethodInvoker(method));
+      getMethods.put(name, invokerFactory.newMethodInvoker(method));
       Type returnType = TypeParameterResolver.resolveReturnType(method, type);
       getTypes.put(name, typeToClass(returnType));
     }
@@ -225,7 +230,7 @@ public class Reflector {
 
   private void addSetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      setMethods.put(name, new MethodInvoker(method));
+      setMethods.put(name, invokerFactory.newMethodInvoker(method));
       Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
       setTypes.put(name, typeToClass(paramTypes[0]));
     }
@@ -287,7 +292,7 @@ public class Reflector {
 
   private void addSetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      setMethods.put(field.getName(), new SetFieldInvoker(field));
+      setMethods.put(field.getName(), invokerFactory.newSetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
       setTypes.put(field.getName(), typeToClass(fieldType));
     }
@@ -295,7 +300,7 @@ public class Reflector {
 
   private void addGetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      getMethods.put(field.getName(), new GetFieldInvoker(field));
+      getMethods.put(field.getName(), invokerFactory.newGetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
       getTypes.put(field.getName(), typeToClass(fieldType));
     }
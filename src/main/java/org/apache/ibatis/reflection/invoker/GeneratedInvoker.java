@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.Member;
+
+/**
+ * Base class of the invokers generated by {@link JavassistInvokerFactory}.
+ */
+public abstract class GeneratedInvoker implements Invoker {
+
+  private final Member member;
+  private final Class<?> type;
+
+  protected GeneratedInvoker(Member member, Class<?> type) {
+    this.member = member;
+    this.type = type;
+  }
+
+  /**
+   * @return the accessed {@link java.lang.reflect.Method} or {@link java.lang.reflect.Field}
+   */
+  public Member getMember() {
+    return member;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+}
@@ -0,0 +1,266 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.HashMap;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * {@link InvokerFactory} that generates, with Javassist, a class per property accessor that calls the getter,
+ * setter or field directly instead of going through reflection.
+ * <p>
+ * Only public, non static members of public classes can be called from generated code. Any other member,
+ * or any member whose invoker cannot be generated, is accessed through reflection as
+ * {@link ReflectionInvokerFactory} does. When Javassist is not on the classpath every invoker is reflective.
+ */
+public class JavassistInvokerFactory implements InvokerFactory {
+
+  private static final Log log = LogFactory.getLog(JavassistInvokerFactory.class);
+
+  private final InvokerFactory fallback = new ReflectionInvokerFactory();
+  private final InvokerGenerator generator;
+
+  public JavassistInvokerFactory() {
+    InvokerGenerator invokerGenerator = null;
+    try {
+      Resources.classForName("javassist.ClassPool");
+      invokerGenerator = new InvokerGenerator();
+    } catch (Throwable e) {
+      log.debug("Javassist is not available, properties will be accessed through reflection.");
+    }
+    this.generator = invokerGenerator;
+  }
+
+  @Override
+  public Invoker newMethodInvoker(Method method) {
+    Invoker invoker = null;
+    if (generator != null && isAccessible(method)) {
+      Class<?>[] paramTypes = method.getParameterTypes();
+      if (paramTypes.length == 0 && method.getReturnType() != void.class && isPublic(method.getReturnType())) {
+        invoker = generator.generate(method, method.getReturnType(), "",
+            "return " + box(method.getReturnType(), "bean." + method.getName() + "()") + ";", true);
+      } else if (paramTypes.length == 1 && isPublic(paramTypes[0])) {
+        invoker = generator.generate(method, paramTypes[0], checkArgument(paramTypes[0], "args[0]"),
+            "bean." + method.getName() + "(" + unbox(paramTypes[0], "args[0]") + "); return null;", true);
+      }
+    }
+    return invoker != null ? invoker : fallback.newMethodInvoker(method);
+  }
+
+  @Override
+  public Invoker newGetFieldInvoker(Field field) {
+    Invoker invoker = null;
+    if (generator != null && isAccessible(field) && isPublic(field.getType())) {
+      invoker = generator.generate(field, field.getType(), "",
+          "return " + box(field.getType(), "bean." + field.getName()) + ";", false);
+    }
+    return invoker != null ? invoker : fallback.newGetFieldInvoker(field);
+  }
+
+  @Override
+  public Invoker newSetFieldInvoker(Field field) {
+    Invoker invoker = null;
+    if (generator != null && isAccessible(field) && !Modifier.isFinal(field.getModifiers()) && isPublic(field.getType())) {
+      invoker = generator.generate(field, field.getType(), checkArgument(field.getType(), "args[0]"),
+          "bean." + field.getName() + " = " + unbox(field.getType(), "args[0]") + "; return null;", false);
+    }
+    return invoker != null ? invoker : fallback.newSetFieldInvoker(field);
+  }
+
+  private static boolean isAccessible(Member member) {
+    int modifiers = member.getModifiers();
+    return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !member.isSynthetic()
+        && isPublic(member.getDeclaringClass());
+  }
+
+  private static boolean isPublic(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    for (Class<?> c = type; c != null; c = c.getDeclaringClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return !type.isAnonymousClass() && !type.isLocalClass();
+  }
+
+  private static String box(Class<?> type, String expression) {
+    if (type.isPrimitive()) {
+      return wrapperOf(type).getName() + ".valueOf(" + expression + ")";
+    }
+    return expression;
+  }
+
+  private static String unbox(Class<?> type, String expression) {
+    if (type.isPrimitive()) {
+      return "((" + wrapperOf(type).getName() + ") " + expression + ")." + type.getName() + "Value()";
+    }
+    return "(" + sourceName(type) + ") " + expression;
+  }
+
+  /**
+   * A primitive is only set from its own wrapper, so a {@code Long} is not silently narrowed to an {@code int}, a
+   * mismatch fails with the exception reflection throws.
+   */
+  private static String checkArgument(Class<?> type, String expression) {
+    if (type.isPrimitive()) {
+      return "if (!(" + expression + " instanceof " + wrapperOf(type).getName() + ")) {"
+          + " throw new java.lang.IllegalArgumentException(\"argument type mismatch\"); }";
+    }
+    return "";
+  }
+
+  private static Class<?> wrapperOf(Class<?> type) {
+    if (type == boolean.class) {
+      return Boolean.class;
+    } else if (type == char.class) {
+      return Character.class;
+    } else if (type == byte.class) {
+      return Byte.class;
+    } else if (type == short.class) {
+      return Short.class;
+    } else if (type == int.class) {
+      return Integer.class;
+    } else if (type == long.class) {
+      return Long.class;
+    } else if (type == float.class) {
+      return Float.class;
+    } else {
+      return Double.class;
+    }
+  }
+
+  private static String sourceName(Class<?> type) {
+    if (type.isArray()) {
+      return sourceName(type.getComponentType()) + "[]";
+    }
+    return type.getName();
+  }
+
+  /**
+   * Kept apart from the factory so Javassist classes are only loaded when Javassist is available.
+   */
+  private static class InvokerGenerator {
+
+    private static final String PACKAGE = JavassistInvokerFactory.class.getPackage().getName() + ".generated.";
+
+    private final Map<ClassLoader, InvokerClassLoader> classLoaders = new HashMap<ClassLoader, InvokerClassLoader>();
+    private int counter;
+
+    synchronized Invoker generate(Member member, Class<?> type, String check, String statement, boolean wrapExceptions) {
+      Class<?> declaringClass = member.getDeclaringClass();
+      try {
+        InvokerClassLoader classLoader = getClassLoader(declaringClass.getClassLoader());
+        ClassPool pool = classLoader.pool;
+        CtClass ctClass = pool.makeClass(PACKAGE + declaringClass.getSimpleName() + "$" + member.getName() + "$Invoker" + (++counter));
+        try {
+          ctClass.setSuperclass(pool.get(GeneratedInvoker.class.getName()));
+          CtConstructor constructor = CtNewConstructor.make(
+              new CtClass[] { pool.get(Member.class.getName()), pool.get(Class.class.getName()) }, new CtClass[0],
+              "{ super($1, $2); }", ctClass);
+          ctClass.addConstructor(constructor);
+          StringBuilder body = new StringBuilder();
+          body.append("public java.lang.Object invoke(java.lang.Object target, java.lang.Object[] args)");
+          body.append(" throws java.lang.IllegalAccessException, java.lang.reflect.InvocationTargetException {");
+          body.append(sourceName(declaringClass)).append(" bean = (").append(sourceName(declaringClass)).append(") target;");
+          // checked outside of the try, a mismatched argument is not an exception thrown by the accessor
+          body.append(check);
+          if (wrapExceptions) {
+            // same as Method.invoke(), exceptions thrown by the accessor are wrapped
+            body.append("try {").append(statement).append("} catch (java.lang.Throwable t) {");
+            body.append("throw new java.lang.reflect.InvocationTargetException(t); }");
+          } else {
+            body.append(statement);
+          }
+          body.append("}");
+          ctClass.addMethod(CtNewMethod.make(body.toString(), ctClass));
+          Class<?> invokerClass = classLoader.define(ctClass.getName(), ctClass.toBytecode());
+          return (Invoker) invokerClass.getConstructor(Member.class, Class.class).newInstance(member, type);
+        } finally {
+          ctClass.detach();
+        }
+      } catch (Throwable e) {
+        if (log.isDebugEnabled()) {
+          log.debug("Could not generate an invoker for " + member + ", it will be accessed through reflection. Cause: " + e);
+        }
+        return null;
+      }
+    }
+
+    private InvokerClassLoader getClassLoader(ClassLoader parent) {
+      if (parent == null) {
+        parent = Invoker.class.getClassLoader();
+      }
+      InvokerClassLoader classLoader = classLoaders.get(parent);
+      if (classLoader == null) {
+        classLoader = new InvokerClassLoader(parent);
+        classLoaders.put(parent, classLoader);
+      }
+      return classLoader;
+    }
+
+  }
+
+  /**
+   * Defines the generated invokers as children of the class loader of the accessed class, {@link GeneratedInvoker}
+   * is always resolved from the class loader that loaded MyBatis.
+   */
+  private static class InvokerClassLoader extends ClassLoader {
+
+    private final ClassPool pool = new ClassPool(false);
+
+    InvokerClassLoader(ClassLoader parent) {
+      super(parent);
+      pool.appendClassPath(new LoaderClassPath(parent));
+      pool.appendClassPath(new LoaderClassPath(Invoker.class.getClassLoader()));
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (GeneratedInvoker.class.getName().equals(name)) {
+        return GeneratedInvoker.class;
+      } else if (Invoker.class.getName().equals(name)) {
+        return Invoker.class;
+      }
+      return super.loadClass(name, resolve);
+    }
+
+    Class<?> define(String name, byte[] bytecode) {
+      return defineClass(name, bytecode, 0, bytecode.length);
+    }
+
+  }
+
+}
@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+/**
+ * An OGNL expression of a dynamic SQL node ({@code test}, {@code collection} or {@code bind} value) that is
+ * prepared once, when the statement is parsed, and evaluated on every execution.
+ *
+ * @see ExpressionCompiler
+ */
+public abstract class CompiledExpression {
+
+  private final String expression;
+
+  protected CompiledExpression(String expression) {
+    this.expression = expression;
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  public abstract Object getValue(Object root);
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+}
@@ -29,10 +29,12 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final ParsedSqlCache parsedSqlCache;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.parsedSqlCache = configuration.getParsedSqlCacheSize() > 0 ? new ParsedSqlCache(configuration, configuration.getParsedSqlCacheSize()) : null;
   }
 
   @Override
@@ -40,14 +42,26 @@ public class DynamicSqlSource implements SqlSource {
     //创建context
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());   // DynamicSqlSource会传入入参  RawSqlSource不会
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql boundSql;
+    if (parsedSqlCache == null) {
+      SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+      SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());   // DynamicSqlSource会传入入参  RawSqlSource不会
+      boundSql = sqlSource.getBoundSql(parameterObject);
+    } else {
+      boundSql = parsedSqlCache.getBoundSql(context.getSql(), parameterType, context.getBindings(), parameterObject);
+    }
     for (Map.Entry<String, Object> entry : context.getBindings().entrySet()) {   // DynamicSqlSource会向BoundSql里面注入context里面的参数
       boundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
     }
     return boundSql;
   }
 
+  /**
+   * Returns the cache of the parsed SQL texts, or {@code null} when the parsedSqlCacheSize setting is 0.
+   */
+  public ParsedSqlCache getParsedSqlCache() {
+    return parsedSqlCache;
+  }
+
 }
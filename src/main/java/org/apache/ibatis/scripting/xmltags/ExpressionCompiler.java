@@ -0,0 +1,639 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import ognl.OgnlOps;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.GeneratedInvoker;
+import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Compiles the OGNL expressions of dynamic SQL nodes into a tree that is evaluated without creating an OGNL context.
+ * <p>
+ * Only the subset of OGNL that is common in mappers is compiled: property paths, literals, the comparison and logical
+ * operators, and the {@code size()}, {@code isEmpty()}, {@code length()}, {@code trim()}, {@code toString()} and
+ * {@code equals(..)} methods. Operators are evaluated by {@link OgnlOps}, so results are the same as those of OGNL.
+ * Any other expression is evaluated by OGNL, and so is a compiled expression when it meets a value it does not handle
+ * (a null or unknown target, a property that is not read through a getter, an exception...).
+ */
+public class ExpressionCompiler {
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private final Configuration configuration;
+
+  public ExpressionCompiler(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * @return an expression that is always evaluated by OGNL
+   */
+  public static CompiledExpression ognl(String expression) {
+    return new OgnlExpression(expression);
+  }
+
+  public CompiledExpression compile(String expression) {
+    if (expression == null) {
+      return ognl(expression);
+    }
+    try {
+      return new TreeExpression(expression, new Parser(expression).parse());
+    } catch (UnsupportedExpressionException e) {
+      return ognl(expression);
+    }
+  }
+
+  private static class OgnlExpression extends CompiledExpression {
+
+    OgnlExpression(String expression) {
+      super(expression);
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      return OgnlCache.getValue(getExpression(), root);
+    }
+  }
+
+  private static class TreeExpression extends CompiledExpression {
+
+    private final Node node;
+
+    TreeExpression(String expression, Node node) {
+      super(expression);
+      this.node = node;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      try {
+        return node.evaluate(root);
+      } catch (RuntimeException e) {
+        // let OGNL either handle the case or report the error
+        return OgnlCache.getValue(getExpression(), root);
+      }
+    }
+  }
+
+  /**
+   * Thrown while parsing an expression that cannot be compiled and while evaluating a node on a value it does not
+   * handle. It is never seen outside of this class.
+   */
+  private static class UnsupportedExpressionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  private static final UnsupportedExpressionException UNSUPPORTED = new UnsupportedExpressionException();
+
+  private abstract static class Node {
+    abstract Object evaluate(Object root);
+  }
+
+  private static class Literal extends Node {
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      return value;
+    }
+  }
+
+  private static class And extends Node {
+    private final Node left;
+    private final Node right;
+
+    And(Node left, Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      Object value = left.evaluate(root);
+      return OgnlOps.booleanValue(value) ? right.evaluate(root) : value;
+    }
+  }
+
+  private static class Or extends Node {
+    private final Node left;
+    private final Node right;
+
+    Or(Node left, Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      Object value = left.evaluate(root);
+      return OgnlOps.booleanValue(value) ? value : right.evaluate(root);
+    }
+  }
+
+  private static class Not extends Node {
+    private final Node operand;
+
+    Not(Node operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      return OgnlOps.booleanValue(operand.evaluate(root)) ? Boolean.FALSE : Boolean.TRUE;
+    }
+  }
+
+  private static class Comparison extends Node {
+    private final String operator;
+    private final Node left;
+    private final Node right;
+
+    Comparison(String operator, Node left, Node right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      Object v1 = left.evaluate(root);
+      Object v2 = right.evaluate(root);
+      boolean result;
+      if ("==".equals(operator)) {
+        result = OgnlOps.equal(v1, v2);
+      } else if ("!=".equals(operator)) {
+        result = !OgnlOps.equal(v1, v2);
+      } else if ("<".equals(operator)) {
+        result = OgnlOps.less(v1, v2);
+      } else if (">".equals(operator)) {
+        result = OgnlOps.greater(v1, v2);
+      } else if ("<=".equals(operator)) {
+        result = !OgnlOps.greater(v1, v2);
+      } else {
+        result = !OgnlOps.less(v1, v2);
+      }
+      return result ? Boolean.TRUE : Boolean.FALSE;
+    }
+  }
+
+  /**
+   * First property of a path, read from the root as {@link DynamicContext.ContextAccessor} does.
+   */
+  private class RootProperty extends Node {
+    private final String name;
+
+    RootProperty(String name) {
+      this.name = name;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      return getProperty(root, name);
+    }
+  }
+
+  private class Property extends Node {
+    private final Node target;
+    private final String name;
+
+    Property(Node target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      return getProperty(target.evaluate(root), name);
+    }
+  }
+
+  private static class MethodCall extends Node {
+    private final Node target;
+    private final String name;
+    private final Node argument;
+
+    MethodCall(Node target, String name, Node argument) {
+      this.target = target;
+      this.name = name;
+      this.argument = argument;
+    }
+
+    @Override
+    Object evaluate(Object root) {
+      Object object = target.evaluate(root);
+      if (object == null) {
+        throw UNSUPPORTED;
+      }
+      if ("equals".equals(name)) {
+        return object.equals(argument.evaluate(root)) ? Boolean.TRUE : Boolean.FALSE;
+      } else if ("toString".equals(name)) {
+        return object.toString();
+      } else if ("size".equals(name)) {
+        if (object instanceof Collection) {
+          return ((Collection<?>) object).size();
+        } else if (object instanceof Map) {
+          return ((Map<?, ?>) object).size();
+        }
+      } else if ("isEmpty".equals(name)) {
+        if (object instanceof Collection) {
+          return ((Collection<?>) object).isEmpty();
+        } else if (object instanceof Map) {
+          return ((Map<?, ?>) object).isEmpty();
+        } else if (object instanceof String) {
+          return ((String) object).length() == 0;
+        }
+      } else if ("length".equals(name)) {
+        if (object instanceof CharSequence) {
+          return ((CharSequence) object).length();
+        }
+      } else if ("trim".equals(name)) {
+        if (object instanceof String) {
+          return ((String) object).trim();
+        }
+      }
+      throw UNSUPPORTED;
+    }
+  }
+
+  private Object getProperty(Object target, String name) {
+    if (target == null) {
+      throw UNSUPPORTED;
+    }
+    if (target instanceof DynamicContext.ContextMap) {
+      Map<?, ?> map = (Map<?, ?>) target;
+      Object result = map.get(name);
+      if (result != null || map.containsKey(name)) {
+        return result;
+      }
+      Object parameterObject = map.get(DynamicContext.PARAMETER_OBJECT_KEY);
+      if (parameterObject instanceof Map) {
+        return ((Map<?, ?>) parameterObject).get(name);
+      }
+      return null;
+    }
+    if (target instanceof Map) {
+      // same special properties as OGNL's MapPropertyAccessor
+      Map<?, ?> map = (Map<?, ?>) target;
+      if ("size".equals(name)) {
+        return map.size();
+      } else if ("keys".equals(name) || "keySet".equals(name)) {
+        return map.keySet();
+      } else if ("values".equals(name)) {
+        return map.values();
+      } else if ("isEmpty".equals(name)) {
+        return map.isEmpty() ? Boolean.TRUE : Boolean.FALSE;
+      }
+      return map.get(name);
+    }
+    if (target instanceof Collection) {
+      if ("size".equals(name)) {
+        return ((Collection<?>) target).size();
+      } else if ("isEmpty".equals(name)) {
+        return ((Collection<?>) target).isEmpty() ? Boolean.TRUE : Boolean.FALSE;
+      }
+      throw UNSUPPORTED;
+    }
+    if (target.getClass().isArray()) {
+      if ("length".equals(name)) {
+        return Array.getLength(target);
+      }
+      throw UNSUPPORTED;
+    }
+    Reflector reflector = configuration.getReflectorFactory().findForClass(target.getClass());
+    if (!reflector.hasGetter(name)) {
+      throw UNSUPPORTED;
+    }
+    Invoker invoker = reflector.getGetInvoker(name);
+    if (invoker instanceof GetFieldInvoker
+        || (invoker instanceof GeneratedInvoker && ((GeneratedInvoker) invoker).getMember() instanceof Field)) {
+      // OGNL does not read fields the same way
+      throw UNSUPPORTED;
+    }
+    try {
+      return invoker.invoke(target, NO_ARGS);
+    } catch (Exception e) {
+      throw UNSUPPORTED;
+    }
+  }
+
+  private class Parser {
+
+    private final String expression;
+    private int position;
+    private Object token;
+    private boolean string;
+
+    Parser(String expression) {
+      this.expression = expression;
+    }
+
+    Node parse() {
+      next();
+      Node node = parseOr();
+      if (token != null) {
+        throw UNSUPPORTED;
+      }
+      return node;
+    }
+
+    private Node parseOr() {
+      Node node = parseAnd();
+      while (accept("||")) {
+        node = new Or(node, parseAnd());
+      }
+      return node;
+    }
+
+    private Node parseAnd() {
+      Node node = parseEquality();
+      while (accept("&&")) {
+        node = new And(node, parseEquality());
+      }
+      return node;
+    }
+
+    private Node parseEquality() {
+      Node node = parseRelational();
+      while (isOperator("==") || isOperator("!=")) {
+        String operator = (String) token;
+        next();
+        node = new Comparison(operator, node, parseRelational());
+      }
+      return node;
+    }
+
+    private Node parseRelational() {
+      Node node = parseUnary();
+      while (isOperator("<") || isOperator(">") || isOperator("<=") || isOperator(">=")) {
+        String operator = (String) token;
+        next();
+        node = new Comparison(operator, node, parseUnary());
+      }
+      return node;
+    }
+
+    private Node parseUnary() {
+      if (accept("!")) {
+        return new Not(parseUnary());
+      }
+      return parsePrimary();
+    }
+
+    private Node parsePrimary() {
+      if (token == null) {
+        throw UNSUPPORTED;
+      }
+      if (string || !(token instanceof String)) {
+        Node literal = new Literal(token);
+        next();
+        return literal;
+      }
+      if (accept("(")) {
+        Node node = parseOr();
+        expect(")");
+        return node;
+      }
+      String name = (String) token;
+      if ("true".equals(name) || "false".equals(name) || "null".equals(name)) {
+        next();
+        return new Literal("null".equals(name) ? null : Boolean.valueOf(name));
+      }
+      Node node = new RootProperty(identifier());
+      while (accept(".")) {
+        name = identifier();
+        if (accept("(")) {
+          List<Node> arguments = new ArrayList<Node>();
+          if (!accept(")")) {
+            do {
+              arguments.add(parseOr());
+            } while (accept(","));
+            expect(")");
+          }
+          node = newMethodCall(node, name, arguments);
+        } else {
+          node = new Property(node, name);
+        }
+      }
+      return node;
+    }
+
+    private Node newMethodCall(Node target, String name, List<Node> arguments) {
+      if ("equals".equals(name) && arguments.size() == 1) {
+        return new MethodCall(target, name, arguments.get(0));
+      } else if (arguments.isEmpty() && ("size".equals(name) || "isEmpty".equals(name) || "length".equals(name)
+          || "trim".equals(name) || "toString".equals(name))) {
+        return new MethodCall(target, name, null);
+      }
+      throw UNSUPPORTED;
+    }
+
+    private String identifier() {
+      if (token == null || string || !(token instanceof String) || !isIdentifier((String) token)
+          || "true".equals(token) || "false".equals(token) || "null".equals(token)) {
+        throw UNSUPPORTED;
+      }
+      String name = (String) token;
+      next();
+      return name;
+    }
+
+    private boolean isOperator(String operator) {
+      return !string && operator.equals(token);
+    }
+
+    private boolean accept(String operator) {
+      if (isOperator(operator)) {
+        next();
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(String operator) {
+      if (!accept(operator)) {
+        throw UNSUPPORTED;
+      }
+    }
+
+    private void next() {
+      string = false;
+      while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+      if (position >= expression.length()) {
+        token = null;
+        return;
+      }
+      char c = expression.charAt(position);
+      if (Character.isJavaIdentifierStart(c)) {
+        int start = position;
+        while (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position))) {
+          position++;
+        }
+        token = keyword(expression.substring(start, position));
+      } else if (c >= '0' && c <= '9') {
+        token = number();
+      } else if (c == '\'' || c == '"') {
+        token = string(c);
+        string = true;
+      } else {
+        token = operator();
+      }
+    }
+
+    private String keyword(String word) {
+      if ("and".equals(word)) {
+        return "&&";
+      } else if ("or".equals(word)) {
+        return "||";
+      } else if ("not".equals(word)) {
+        return "!";
+      } else if ("eq".equals(word)) {
+        return "==";
+      } else if ("neq".equals(word)) {
+        return "!=";
+      } else if ("lt".equals(word)) {
+        return "<";
+      } else if ("gt".equals(word)) {
+        return ">";
+      } else if ("lte".equals(word)) {
+        return "<=";
+      } else if ("gte".equals(word)) {
+        return ">=";
+      } else if ("in".equals(word) || "instanceof".equals(word) || "new".equals(word) || "shl".equals(word)
+          || "shr".equals(word) || "ushr".equals(word) || "band".equals(word) || "bor".equals(word)
+          || "xor".equals(word)) {
+        throw UNSUPPORTED;
+      }
+      return word;
+    }
+
+    private Object number() {
+      int start = position;
+      while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+        position++;
+      }
+      boolean decimal = false;
+      if (position < expression.length() && expression.charAt(position) == '.') {
+        position++;
+        int fractionStart = position;
+        while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+          position++;
+        }
+        if (position == fractionStart) {
+          throw UNSUPPORTED;
+        }
+        decimal = true;
+      }
+      String text = expression.substring(start, position);
+      if (!decimal && text.length() > 1 && text.charAt(0) == '0') {
+        // octal
+        throw UNSUPPORTED;
+      }
+      boolean isLong = false;
+      if (!decimal && position < expression.length() && (expression.charAt(position) == 'L' || expression.charAt(position) == 'l')) {
+        position++;
+        isLong = true;
+      }
+      if (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position))) {
+        // other suffixes and exponents
+        throw UNSUPPORTED;
+      }
+      try {
+        if (decimal) {
+          return Double.valueOf(text);
+        }
+        return isLong ? (Object) Long.valueOf(text) : (Object) Integer.valueOf(text);
+      } catch (NumberFormatException e) {
+        throw UNSUPPORTED;
+      }
+    }
+
+    private Object string(char quote) {
+      StringBuilder builder = new StringBuilder();
+      position++;
+      while (true) {
+        if (position >= expression.length()) {
+          throw UNSUPPORTED;
+        }
+        char c = expression.charAt(position++);
+        if (c == quote) {
+          break;
+        }
+        if (c == '\\') {
+          if (position >= expression.length()) {
+            throw UNSUPPORTED;
+          }
+          char escaped = expression.charAt(position++);
+          if (escaped == 'n') {
+            builder.append('\n');
+          } else if (escaped == 't') {
+            builder.append('\t');
+          } else if (escaped == 'r') {
+            builder.append('\r');
+          } else if (escaped == '\\' || escaped == '\'' || escaped == '"') {
+            builder.append(escaped);
+          } else {
+            throw UNSUPPORTED;
+          }
+        } else {
+          builder.append(c);
+        }
+      }
+      if (quote == '\'' && builder.length() == 1) {
+        // OGNL reads a single quoted character as a char
+        return Character.valueOf(builder.charAt(0));
+      }
+      return builder.toString();
+    }
+
+    private String operator() {
+      String[] operators = { "==", "!=", "<=", ">=", "&&", "||", "<", ">", "!", "(", ")", ".", "," };
+      for (String operator : operators) {
+        if (expression.startsWith(operator, position)) {
+          position += operator.length();
+          return operator;
+        }
+      }
+      throw UNSUPPORTED;
+    }
+
+    private boolean isIdentifier(String word) {
+      return Character.isJavaIdentifierStart(word.charAt(0));
+    }
+  }
+
+}
@@ -30,6 +30,23 @@ public class ExpressionEvaluator {
 
   public boolean evaluateBoolean(String expression, Object parameterObject) {
     Object value = OgnlCache.getValue(expression, parameterObject);       //计算expression的值
+    return toBoolean(value);
+  }
+
+  public boolean evaluateBoolean(CompiledExpression expression, Object parameterObject) {
+    return toBoolean(expression.getValue(parameterObject));
+  }
+
+  public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
+    Object value = OgnlCache.getValue(expression, parameterObject);
+    return toIterable(expression, value);
+  }
+
+  public Iterable<?> evaluateIterable(CompiledExpression expression, Object parameterObject) {
+    return toIterable(expression.getExpression(), expression.getValue(parameterObject));
+  }
+
+  private boolean toBoolean(Object value) {
     if (value instanceof Boolean) {   // 如果是boolean，直接返回
       return (Boolean) value;
     }
@@ -39,8 +56,7 @@ public class ExpressionEvaluator {
     return value != null;
   }
 
-  public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+  private Iterable<?> toIterable(String expression, Object value) {
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
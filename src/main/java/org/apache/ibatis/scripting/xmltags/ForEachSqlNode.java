@@ -28,7 +28,7 @@ public class ForEachSqlNode implements SqlNode {
   public static final String ITEM_PREFIX = "__frch_";
 
   private final ExpressionEvaluator evaluator;
-  private final String collectionExpression;
+  private final CompiledExpression collectionExpression;
   private final SqlNode contents;
   private final String open;
   private final String close;
@@ -38,6 +38,10 @@ public class ForEachSqlNode implements SqlNode {
   private final Configuration configuration;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
+    this(configuration, contents, ExpressionCompiler.ognl(collectionExpression), index, item, open, close, separator);
+  }
+
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, CompiledExpression collectionExpression, String index, String item, String open, String close, String separator) {
     this.evaluator = new ExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
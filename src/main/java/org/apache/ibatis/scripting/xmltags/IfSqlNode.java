@@ -20,10 +20,14 @@ package org.apache.ibatis.scripting.xmltags;
  */
 public class IfSqlNode implements SqlNode {
   private final ExpressionEvaluator evaluator;
-  private final String test;
+  private final CompiledExpression test;
   private final SqlNode contents;
 
   public IfSqlNode(SqlNode contents, String test) {
+    this(contents, ExpressionCompiler.ognl(test));
+  }
+
+  public IfSqlNode(SqlNode contents, CompiledExpression test) {
     this.test = test;
     this.contents = contents;
     this.evaluator = new ExpressionEvaluator();
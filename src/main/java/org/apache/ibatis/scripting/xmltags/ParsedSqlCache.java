@@ -0,0 +1,163 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Keeps the parse of the SQL texts generated by a {@link DynamicSqlSource}, so the #{} parameters of a text that
+ * was already seen are not tokenized and resolved again.
+ * <p>
+ * The parameter mappings of a text only depend on the parameter type and on the types of the values bound by
+ * the dynamic nodes (like foreach items) that the parameters refer to, so an entry is reused only while those
+ * are unchanged. At most {@code maxSize} texts are kept, the least recently used one is evicted first.
+ */
+public class ParsedSqlCache {
+
+  private final Configuration configuration;
+  private final int maxSize;
+  private final Map<String, ParsedSql> parsedSqls;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  public ParsedSqlCache(Configuration configuration, final int maxSize) {
+    this.configuration = configuration;
+    this.maxSize = maxSize;
+    this.parsedSqls = new LinkedHashMap<String, ParsedSql>(16, .75F, true) {
+      private static final long serialVersionUID = -3484917391564317214L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
+        boolean tooBig = size() > maxSize;
+        if (tooBig) {
+          evictionCount.incrementAndGet();
+        }
+        return tooBig;
+      }
+    };
+  }
+
+  public BoundSql getBoundSql(String sql, Class<?> parameterType, Map<String, Object> bindings, Object parameterObject) {
+    ParsedSql parsedSql;
+    synchronized (parsedSqls) {
+      parsedSql = parsedSqls.get(sql);
+    }
+    if (parsedSql != null && parsedSql.matches(parameterType, bindings)) {
+      hitCount.incrementAndGet();
+      return parsedSql.sqlSource.getBoundSql(parameterObject);
+    }
+    missCount.incrementAndGet();
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    SqlSource sqlSource = sqlSourceParser.parse(sql, parameterType, bindings);
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    parsedSql = new ParsedSql(sqlSource, parameterType, boundSql.getParameterMappings(), bindings);
+    synchronized (parsedSqls) {
+      parsedSqls.put(sql, parsedSql);
+    }
+    return boundSql;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getSize() {
+    synchronized (parsedSqls) {
+      return parsedSqls.size();
+    }
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  public double getHitRatio() {
+    long hits = hitCount.get();
+    long requests = hits + missCount.get();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  public void clear() {
+    synchronized (parsedSqls) {
+      parsedSqls.clear();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ParsedSqlCache[size=" + getSize() + ", maxSize=" + maxSize + ", hits=" + getHitCount()
+        + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+  }
+
+  private class ParsedSql {
+
+    private final SqlSource sqlSource;
+    private final Class<?> parameterType;
+    private final String[] properties;
+    // type of each bound value that a parameter refers to, null when the parameter is not a bound value
+    private final Class<?>[] boundTypes;
+
+    ParsedSql(SqlSource sqlSource, Class<?> parameterType, List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+      this.sqlSource = sqlSource;
+      this.parameterType = parameterType;
+      this.properties = new String[parameterMappings.size()];
+      this.boundTypes = new Class<?>[parameterMappings.size()];
+      MetaObject metaBindings = configuration.newMetaObject(bindings);
+      for (int i = 0; i < properties.length; i++) {
+        properties[i] = parameterMappings.get(i).getProperty();
+        boundTypes[i] = metaBindings.hasGetter(properties[i]) ? metaBindings.getGetterType(properties[i]) : null;
+      }
+    }
+
+    boolean matches(Class<?> parameterType, Map<String, Object> bindings) {
+      if (this.parameterType != parameterType) {
+        return false;
+      }
+      MetaObject metaBindings = properties.length == 0 ? null : configuration.newMetaObject(bindings);
+      for (int i = 0; i < properties.length; i++) {
+        if (metaBindings.hasGetter(properties[i])) {
+          if (boundTypes[i] != metaBindings.getGetterType(properties[i])) {
+            return false;
+          }
+        } else if (boundTypes[i] != null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
@@ -21,16 +21,20 @@ package org.apache.ibatis.scripting.xmltags;
 public class VarDeclSqlNode implements SqlNode {
 
   private final String name;
-  private final String expression;
+  private final CompiledExpression expression;
 
   public VarDeclSqlNode(String var, String exp) {
+    this(var, ExpressionCompiler.ognl(exp));
+  }
+
+  public VarDeclSqlNode(String var, CompiledExpression exp) {
     name = var;
     expression = exp;
   }
 
   @Override
   public boolean apply(DynamicContext context) {
-    final Object value = OgnlCache.getValue(expression, context.getBindings());   // 解析表达式的值
+    final Object value = expression.getValue(context.getBindings());   // 解析表达式的值
     context.bind(name, value);                                                    // 存入context中
     return true;
   }
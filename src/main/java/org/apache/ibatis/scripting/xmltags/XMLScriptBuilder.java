@@ -37,6 +37,7 @@ public class XMLScriptBuilder extends BaseBuilder {
   private final XNode context;
   private boolean isDynamic;
   private final Class<?> parameterType;
+  private final ExpressionCompiler expressionCompiler;
   private final Map<String, NodeHandler> nodeHandlerMap = new HashMap<String, NodeHandler>();
 
   public XMLScriptBuilder(Configuration configuration, XNode context) {
@@ -47,6 +48,7 @@ public class XMLScriptBuilder extends BaseBuilder {
     super(configuration);
     this.context = context;
     this.parameterType = parameterType;
+    this.expressionCompiler = new ExpressionCompiler(configuration);
     initNodeHandlerMap();
   }
 
@@ -102,6 +104,13 @@ public class XMLScriptBuilder extends BaseBuilder {
     return new MixedSqlNode(contents);
   }
 
+  private CompiledExpression compileExpression(String expression) {
+    if (configuration.isCompileDynamicSql()) {
+      return expressionCompiler.compile(expression);
+    }
+    return ExpressionCompiler.ognl(expression);
+  }
+
   //handler是用来产生SQLNode，并放入context
   //其中不同类型的SQLNode可以根据不同的规则产生一些sql语句，放入context
   //将这些所有的产生的sql合在一起，就是SQLSource
@@ -118,7 +127,7 @@ public class XMLScriptBuilder extends BaseBuilder {
     public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
       final String name = nodeToHandle.getStringAttribute("name");                  //获取name
       final String expression = nodeToHandle.getStringAttribute("value");           //获取表达式的值
-      final VarDeclSqlNode node = new VarDeclSqlNode(name, expression);
+      final VarDeclSqlNode node = new VarDeclSqlNode(name, compileExpression(expression));
       targetContents.add(node);
     }
   }
@@ -180,7 +189,7 @@ public class XMLScriptBuilder extends BaseBuilder {
       String open = nodeToHandle.getStringAttribute("open");
       String close = nodeToHandle.getStringAttribute("close");
       String separator = nodeToHandle.getStringAttribute("separator");   // 解析配置的属性值
-      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, compileExpression(collection), index, item, open, close, separator);
       targetContents.add(forEachSqlNode);
     }
   }
@@ -194,7 +203,7 @@ public class XMLScriptBuilder extends BaseBuilder {
     public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
       MixedSqlNode mixedSqlNode = parseDynamicTags(nodeToHandle);
       String test = nodeToHandle.getStringAttribute("test");
-      IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, test);
+      IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, compileExpression(test));
       targetContents.add(ifSqlNode);
     }
   }
@@ -19,11 +19,22 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
@@ -31,17 +42,30 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.StatsCounter;
+import org.apache.ibatis.cache.StatsCounterFactory;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
+import org.apache.ibatis.cache.impl.SimpleStatsCounterFactory;
+import org.apache.ibatis.cache.impl.TwoTierCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.MultiRowInsertBatchExecutor;
+import org.apache.ibatis.executor.MultiStatementBatchExecutor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -49,6 +73,7 @@ import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
@@ -96,6 +121,15 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public class Configuration {
 
+  /**
+   * The id under which the statistics of the local (first level) caches are recorded.
+   *
+   * @since 3.4.7
+   */
+  public static final String LOCAL_CACHE_STATS_ID = "localCache";
+
+  private static final int NESTED_QUERY_QUEUE_SIZE_PER_THREAD = 16;
+
   protected Environment environment;
 
   protected boolean safeRowBoundsEnabled;
@@ -109,6 +143,17 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean useCompiledRowMappers;
+  protected boolean compileDynamicSql;
+  protected int parsedSqlCacheSize;
+  protected boolean multiStatementBatch;
+  protected int batchMaxRows;
+  protected long batchMaxBytes;
+  protected int multiRowInsertMaxRows;
+  protected int reuseExecutorMaxStatements;
+  protected int cursorPrefetchSize;
+  protected int lazyLoadBatchSize;
+  protected int nestedQueryThreads;
 
   protected String logPrefix;
   protected Class <? extends Log> logImpl;
@@ -129,6 +174,7 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected StatsCounterFactory cacheStatsCounterFactory = new SimpleStatsCounterFactory();
 
   protected String databaseId;
   /**
@@ -140,6 +186,7 @@ public class Configuration {
   protected Class<?> configurationFactory;
 
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
+  private volatile ThreadPoolExecutor nestedQueryExecutor;
   protected final InterceptorChain interceptorChain = new InterceptorChain();
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
@@ -166,6 +213,16 @@ public class Configuration {
    */
   protected final Map<String, String> cacheRefMap = new HashMap<String, String>();
 
+  /*
+   * Row mappers compiled by DefaultResultSetHandler, keyed by result map id and column layout.
+   */
+  protected final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<String, CompiledRowMapper>();
+
+  /*
+   * Statistics of the second level caches keyed by cache id, and of the local caches under LOCAL_CACHE_STATS_ID.
+   */
+  protected final Map<String, StatsCounter> cacheStatsCounters = new ConcurrentHashMap<String, StatsCounter>();
+
   public Configuration(Environment environment) {
     this();
     this.environment = environment;
@@ -177,6 +234,7 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("JNDI", JndiDataSourceFactory.class);
     typeAliasRegistry.registerAlias("POOLED", PooledDataSourceFactory.class);
+    typeAliasRegistry.registerAlias("CONCURRENT_POOLED", ConcurrentPooledDataSourceFactory.class);
     typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
     typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
@@ -184,6 +242,10 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("WEIGHTED", WeightedCache.class);
+    typeAliasRegistry.registerAlias("CONCURRENT", ConcurrentCache.class);
+    typeAliasRegistry.registerAlias("OFF_HEAP", OffHeapCache.class);
+    typeAliasRegistry.registerAlias("TWO_TIER", TwoTierCache.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -259,6 +321,179 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  public boolean isUseCompiledRowMappers() {
+    return useCompiledRowMappers;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setUseCompiledRowMappers(boolean useCompiledRowMappers) {
+    this.useCompiledRowMappers = useCompiledRowMappers;
+  }
+
+  public boolean isCompileDynamicSql() {
+    return compileDynamicSql;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setCompileDynamicSql(boolean compileDynamicSql) {
+    this.compileDynamicSql = compileDynamicSql;
+  }
+
+  public int getParsedSqlCacheSize() {
+    return parsedSqlCacheSize;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setParsedSqlCacheSize(int parsedSqlCacheSize) {
+    this.parsedSqlCacheSize = parsedSqlCacheSize;
+  }
+
+  public boolean isMultiStatementBatch() {
+    return multiStatementBatch;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setMultiStatementBatch(boolean multiStatementBatch) {
+    this.multiStatementBatch = multiStatementBatch;
+  }
+
+  public int getBatchMaxRows() {
+    return batchMaxRows;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setBatchMaxRows(int batchMaxRows) {
+    this.batchMaxRows = batchMaxRows;
+  }
+
+  public long getBatchMaxBytes() {
+    return batchMaxBytes;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setBatchMaxBytes(long batchMaxBytes) {
+    this.batchMaxBytes = batchMaxBytes;
+  }
+
+  public int getMultiRowInsertMaxRows() {
+    return multiRowInsertMaxRows;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setMultiRowInsertMaxRows(int multiRowInsertMaxRows) {
+    this.multiRowInsertMaxRows = multiRowInsertMaxRows;
+  }
+
+  public int getReuseExecutorMaxStatements() {
+    return reuseExecutorMaxStatements;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setReuseExecutorMaxStatements(int reuseExecutorMaxStatements) {
+    this.reuseExecutorMaxStatements = reuseExecutorMaxStatements;
+  }
+
+  public boolean isFusedPlugins() {
+    return interceptorChain.isFused();
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setFusedPlugins(boolean fusedPlugins) {
+    interceptorChain.setFused(fusedPlugins);
+  }
+
+  public int getCursorPrefetchSize() {
+    return cursorPrefetchSize;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setCursorPrefetchSize(int cursorPrefetchSize) {
+    this.cursorPrefetchSize = cursorPrefetchSize;
+  }
+
+  public int getLazyLoadBatchSize() {
+    return lazyLoadBatchSize;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setLazyLoadBatchSize(int lazyLoadBatchSize) {
+    this.lazyLoadBatchSize = lazyLoadBatchSize;
+  }
+
+  public int getNestedQueryThreads() {
+    return nestedQueryThreads;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setNestedQueryThreads(int nestedQueryThreads) {
+    this.nestedQueryThreads = nestedQueryThreads;
+  }
+
+  /**
+   * Returns the executor the eager nested selects of a result run on when {@code nestedQueryThreads} is set.
+   * A nested select that finds the queue full runs on the thread that maps the result.
+   *
+   * @throws ExecutorException if the pooled data source of the environment cannot give a connection to each thread
+   *     on top of the one of the session that waits for them
+   * @since 3.4.7
+   */
+  public ExecutorService getNestedQueryExecutor() {
+    DataSource dataSource = environment == null ? null : environment.getDataSource();
+    if (dataSource instanceof PooledDataSource
+        && ((PooledDataSource) dataSource).getPoolMaximumActiveConnections() <= nestedQueryThreads) {
+      throw new ExecutorException("The nested selects need nestedQueryThreads + 1 = " + (nestedQueryThreads + 1)
+          + " connections, but poolMaximumActiveConnections is "
+          + ((PooledDataSource) dataSource).getPoolMaximumActiveConnections());
+    }
+    ThreadPoolExecutor executor = nestedQueryExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = nestedQueryExecutor;
+        if (executor == null) {
+          executor = new ThreadPoolExecutor(nestedQueryThreads, nestedQueryThreads, 60, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(nestedQueryThreads * NESTED_QUERY_QUEUE_SIZE_PER_THREAD),
+              new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                  Thread thread = new Thread(runnable, "mybatis-nested-query-" + count.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              }, new ThreadPoolExecutor.CallerRunsPolicy());
+          executor.allowCoreThreadTimeOut(true);
+          nestedQueryExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -356,6 +591,20 @@ public class Configuration {
     this.proxyFactory = proxyFactory;
   }
 
+  public StatsCounterFactory getCacheStatsCounterFactory() {
+    return cacheStatsCounterFactory;
+  }
+
+  /**
+   * @since 3.4.7
+   */
+  public void setCacheStatsCounterFactory(StatsCounterFactory cacheStatsCounterFactory) {
+    if (cacheStatsCounterFactory == null) {
+      cacheStatsCounterFactory = new SimpleStatsCounterFactory();
+    }
+    this.cacheStatsCounterFactory = cacheStatsCounterFactory;
+  }
+
   public boolean isAggressiveLazyLoading() {
     return aggressiveLazyLoading;
   }
@@ -571,7 +820,11 @@ public class Configuration {
     executorType = executorType == null ? defaultExecutorType : executorType;
     executorType = executorType == null ? ExecutorType.SIMPLE : executorType;
     Executor executor;
-    if (ExecutorType.BATCH == executorType) {
+    if (ExecutorType.BATCH == executorType && multiStatementBatch) {
+      executor = new MultiStatementBatchExecutor(this, transaction);
+    } else if (ExecutorType.BATCH == executorType && multiRowInsertMaxRows > 0) {
+      executor = new MultiRowInsertBatchExecutor(this, transaction);
+    } else if (ExecutorType.BATCH == executorType) {
       executor = new BatchExecutor(this, transaction);
     } else if (ExecutorType.REUSE == executorType) {
       executor = new ReuseExecutor(this, transaction);
@@ -625,6 +878,45 @@ public class Configuration {
     return caches.containsKey(id);
   }
 
+  /**
+   * Returns the counter recording the statistics of a cache, creating it with the
+   * {@link #getCacheStatsCounterFactory() cacheStatsCounterFactory} on first use.
+   *
+   * @param cacheId the id of a second level cache, or {@link #LOCAL_CACHE_STATS_ID} for the local caches of all sessions
+   * @since 3.4.7
+   */
+  public StatsCounter getCacheStatsCounter(String cacheId) {
+    StatsCounter statsCounter = cacheStatsCounters.get(cacheId);
+    if (statsCounter == null) {
+      synchronized (cacheStatsCounters) {
+        statsCounter = cacheStatsCounters.get(cacheId);
+        if (statsCounter == null) {
+          statsCounter = cacheStatsCounterFactory.newStatsCounter(cacheId);
+          cacheStatsCounters.put(cacheId, statsCounter);
+        }
+      }
+    }
+    return statsCounter;
+  }
+
+  /**
+   * Returns the statistics of every cache, sorted by cache id. The local caches of all sessions are added up under
+   * {@link #LOCAL_CACHE_STATS_ID}, with an unknown size.
+   *
+   * @since 3.4.7
+   */
+  public Map<String, CacheStats> getCacheStats() {
+    Map<String, CacheStats> stats = new LinkedHashMap<String, CacheStats>();
+    for (String cacheId : new TreeSet<String>(cacheStatsCounters.keySet())) {
+      CacheStats snapshot = cacheStatsCounters.get(cacheId).snapshot();
+      if (caches.containsKey(cacheId)) {
+        snapshot = snapshot.withSize(caches.get(cacheId).getSize());
+      }
+      stats.put(cacheId, snapshot);
+    }
+    return stats;
+  }
+
   public void addResultMap(ResultMap rm) {
     resultMaps.put(rm.getId(), rm);
     checkLocallyForDiscriminatedNestedResultMaps(rm);
@@ -767,6 +1059,14 @@ public class Configuration {
     cacheRefMap.put(namespace, referencedNamespace);
   }
 
+  public CompiledRowMapper getCompiledRowMapper(String key) {
+    return compiledRowMappers.get(key);
+  }
+
+  public void addCompiledRowMapper(String key, CompiledRowMapper rowMapper) {
+    compiledRowMappers.put(key, rowMapper);
+  }
+
   /*
    * Parses all the unprocessed statement nodes in the cache. It is recommended
    * to call this method once all the mappers are added as it provides fail-fast
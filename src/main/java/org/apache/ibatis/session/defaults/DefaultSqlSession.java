@@ -261,8 +261,12 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public void close() {
     try {
-      executor.close(isCommitOrRollbackRequired(false));
-      closeCursors();
+      // stops the threads that prefetch the rows of a cursor before the connection is released
+      try {
+        closeCursors();
+      } finally {
+        executor.close(isCommitOrRollbackRequired(false));
+      }
       dirty = false;
     } finally {
       ErrorContext.instance().reset();
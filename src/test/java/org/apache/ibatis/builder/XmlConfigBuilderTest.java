@@ -30,6 +30,7 @@ import java.util.Set;
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.impl.SimpleStatsCounterFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -96,6 +97,19 @@ public class XmlConfigBuilderTest {
     assertThat(config.isSafeResultHandlerEnabled()).isTrue();
     assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(XMLLanguageDriver.class);
     assertThat(config.isCallSettersOnNulls()).isFalse();
+    assertThat(config.isUseCompiledRowMappers()).isFalse();
+    assertThat(config.isCompileDynamicSql()).isFalse();
+    assertThat(config.getParsedSqlCacheSize()).isEqualTo(0);
+    assertThat(config.isMultiStatementBatch()).isFalse();
+    assertThat(config.getBatchMaxRows()).isEqualTo(0);
+    assertThat(config.getBatchMaxBytes()).isEqualTo(0L);
+    assertThat(config.getMultiRowInsertMaxRows()).isEqualTo(0);
+    assertThat(config.getReuseExecutorMaxStatements()).isEqualTo(0);
+    assertThat(config.isFusedPlugins()).isFalse();
+    assertThat(config.getCursorPrefetchSize()).isEqualTo(0);
+    assertThat(config.getLazyLoadBatchSize()).isEqualTo(0);
+    assertThat(config.getNestedQueryThreads()).isEqualTo(0);
+    assertThat(config.getCacheStatsCounterFactory()).isInstanceOf(SimpleStatsCounterFactory.class);
     assertNull(config.getLogPrefix());
     assertNull(config.getLogImpl());
     assertNull(config.getConfigurationFactory());
@@ -189,6 +203,13 @@ public class XmlConfigBuilderTest {
       assertThat(config.isSafeResultHandlerEnabled()).isFalse();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(RawLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isTrue();
+      assertThat(config.isUseCompiledRowMappers()).isTrue();
+      assertThat(config.isCompileDynamicSql()).isTrue();
+      assertThat(config.getParsedSqlCacheSize()).isEqualTo(64);
+      assertThat(config.isMultiStatementBatch()).isTrue();
+      assertThat(config.getBatchMaxRows()).isEqualTo(1000);
+      assertThat(config.getBatchMaxBytes()).isEqualTo(1048576L);
+      assertThat(config.getReuseExecutorMaxStatements()).isEqualTo(50);
       assertThat(config.getLogPrefix()).isEqualTo("mybatis_");
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.scripting.xmltags.CompiledExpression;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
+import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
+import org.apache.ibatis.scripting.xmltags.OgnlCache;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class ExpressionCompilerTest {
+
+  private static final String[] EXPRESSIONS = {
+      "true", "false", "null", "'a'", "''", "1", "0", "2.5", "10L",
+      "id", "username", "password", "id != null", "id == 1", "id eq 1", "id != 0 and username != null",
+      "username == 'cbegin'", "username != ''", "password == null or password == ''", "!(id > 1)", "not id",
+      "id >= 1", "id <= 1", "id lt 2", "id gt 2", "username.length() > 3", "username.trim().length()",
+      "username.equals('cbegin')", "favouriteSection", "favouriteSection == 'NEWS'",
+      "list", "list.size() > 0", "list != null and !list.isEmpty()", "array.length", "map.size", "map.a", "map.missing == null",
+      "author.username", "author.id == 1", "blog.author.username", "blog.author.username != null",
+      "_parameter != null", "_parameter.id", "id + 1", "username.substring(1)", "list[0]", "id in {1, 2}"
+  };
+
+  private final ExpressionCompiler compiler = new ExpressionCompiler(new Configuration());
+
+  @Test
+  public void shouldEvaluateLikeOgnl() {
+    for (Object root : roots()) {
+      for (String expression : EXPRESSIONS) {
+        Object expected;
+        try {
+          expected = OgnlCache.getValue(expression, root);
+        } catch (RuntimeException e) {
+          try {
+            compiler.compile(expression).getValue(root);
+            fail("Should have failed evaluating '" + expression + "' like OGNL");
+          } catch (RuntimeException expectedException) {
+            // both failed
+          }
+          continue;
+        }
+        assertEquals("Evaluating '" + expression + "'", expected, compiler.compile(expression).getValue(root));
+      }
+    }
+  }
+
+  @Test
+  public void shouldReturnOperandsOfLogicalOperatorsLikeOgnl() {
+    Map<String, Object> root = new HashMap<String, Object>();
+    root.put("a", "x");
+    root.put("b", null);
+    assertEquals("x", compiler.compile("b or a").getValue(root));
+    assertNull(compiler.compile("b and a").getValue(root));
+    assertEquals(Boolean.TRUE, compiler.compile("!b").getValue(root));
+  }
+
+  @Test
+  public void shouldKeepExpression() {
+    CompiledExpression expression = compiler.compile("id != null");
+    assertEquals("id != null", expression.getExpression());
+    assertEquals("id != null", ExpressionCompiler.ognl("id != null").getExpression());
+  }
+
+  @Test
+  public void shouldEvaluateCompiledNodes() {
+    Configuration configuration = new Configuration();
+    configuration.setCompileDynamicSql(true);
+    ExpressionCompiler compiler = new ExpressionCompiler(configuration);
+    SqlNode item = new StaticTextSqlNode("#{item}");
+    SqlNode root = new MixedSqlNode(Arrays.<SqlNode>asList(
+        new StaticTextSqlNode("SELECT * FROM AUTHOR WHERE ID IN"),
+        new ForEachSqlNode(configuration, item, compiler.compile("list"), null, "item", "(", ")", ","),
+        new IfSqlNode(new StaticTextSqlNode("AND USERNAME = #{username}"), compiler.compile("username != null and username != ''"))));
+    DynamicSqlSource sqlSource = new DynamicSqlSource(configuration, root);
+
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("list", Arrays.asList(1, 2));
+    parameter.put("username", "cbegin");
+    BoundSql first = sqlSource.getBoundSql(parameter);
+    assertEquals("SELECT * FROM AUTHOR WHERE ID IN (  ? , ? ) AND USERNAME = ?", first.getSql());
+    assertEquals(3, first.getParameterMappings().size());
+    assertEquals(Integer.class, first.getParameterMappings().get(0).getJavaType());
+
+    parameter.put("username", "");
+    assertEquals("SELECT * FROM AUTHOR WHERE ID IN (  ? , ? )", sqlSource.getBoundSql(parameter).getSql());
+  }
+
+  private List<Object> roots() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS);
+    Author anonymous = new Author(0, null, "", null, null, null);
+    List<Object> roots = new ArrayList<Object>();
+    roots.add(author);
+    roots.add(anonymous);
+    for (Author each : Arrays.asList(author, anonymous)) {
+      Map<String, Object> map = new HashMap<String, Object>();
+      map.put("a", "b");
+      Map<String, Object> parameter = new HashMap<String, Object>();
+      parameter.put("id", each.getId());
+      parameter.put("username", each.getUsername());
+      parameter.put("password", each.getPassword());
+      parameter.put("list", each.getId() == 0 ? new ArrayList<Object>() : Arrays.asList("x", "y"));
+      parameter.put("array", new int[each.getId()]);
+      parameter.put("map", map);
+      parameter.put("author", each);
+      parameter.put("blog", new Blog(1, "title", each, null));
+      roots.add(parameter);
+      roots.add(new DynamicContext(new Configuration(), parameter).getBindings());
+      roots.add(new DynamicContext(new Configuration(), each).getBindings());
+    }
+    return roots;
+  }
+
+}
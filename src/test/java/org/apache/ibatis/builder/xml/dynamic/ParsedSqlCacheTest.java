@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
+import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
+import org.apache.ibatis.scripting.xmltags.ParsedSqlCache;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class ParsedSqlCacheTest {
+
+  @Test
+  public void shouldNotCacheByDefault() {
+    DynamicSqlSource sqlSource = new DynamicSqlSource(new Configuration(), new StaticTextSqlNode("SELECT * FROM AUTHOR WHERE ID = #{id}"));
+    assertNull(sqlSource.getParsedSqlCache());
+  }
+
+  @Test
+  public void shouldReuseParsedSql() {
+    DynamicSqlSource sqlSource = createSqlSource(16);
+    Map<String, Object> parameter = parameter(Arrays.asList(1, 2), "cbegin");
+    BoundSql first = sqlSource.getBoundSql(parameter);
+    BoundSql second = sqlSource.getBoundSql(parameter);
+    assertEquals("SELECT * FROM AUTHOR WHERE ID IN (  ? , ? ) AND USERNAME = ?", second.getSql());
+    assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(2, second.getAdditionalParameter(ForEachSqlNode.ITEM_PREFIX + "item_1"));
+
+    ParsedSqlCache cache = sqlSource.getParsedSqlCache();
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getSize());
+    assertEquals(0.5, cache.getHitRatio(), 0);
+  }
+
+  @Test
+  public void shouldParseAgainWhenBoundTypesChange() {
+    DynamicSqlSource sqlSource = createSqlSource(16);
+    BoundSql first = sqlSource.getBoundSql(parameter(Arrays.asList(1, 2), "cbegin"));
+    assertEquals(Integer.class, first.getParameterMappings().get(0).getJavaType());
+    BoundSql second = sqlSource.getBoundSql(parameter(Arrays.asList("1", "2"), "cbegin"));
+    assertEquals(first.getSql(), second.getSql());
+    assertEquals(String.class, second.getParameterMappings().get(0).getJavaType());
+    assertEquals("2", second.getAdditionalParameter(ForEachSqlNode.ITEM_PREFIX + "item_1"));
+    assertEquals(0, sqlSource.getParsedSqlCache().getHitCount());
+    assertEquals(2, sqlSource.getParsedSqlCache().getMissCount());
+    assertEquals(1, sqlSource.getParsedSqlCache().getSize());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedSql() {
+    DynamicSqlSource sqlSource = createSqlSource(2);
+    Map<String, Object> one = parameter(Arrays.asList(1), null);
+    Map<String, Object> two = parameter(Arrays.asList(1, 2), null);
+    Map<String, Object> three = parameter(Arrays.asList(1, 2, 3), null);
+    sqlSource.getBoundSql(one);
+    sqlSource.getBoundSql(two);
+    sqlSource.getBoundSql(one);
+    sqlSource.getBoundSql(three);
+    ParsedSqlCache cache = sqlSource.getParsedSqlCache();
+    assertEquals(2, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    sqlSource.getBoundSql(one);
+    assertEquals(2, cache.getHitCount());
+    sqlSource.getBoundSql(two);
+    assertEquals(4, cache.getMissCount());
+  }
+
+  private DynamicSqlSource createSqlSource(int cacheSize) {
+    Configuration configuration = new Configuration();
+    configuration.setParsedSqlCacheSize(cacheSize);
+    SqlNode root = new MixedSqlNode(Arrays.<SqlNode>asList(
+        new StaticTextSqlNode("SELECT * FROM AUTHOR WHERE ID IN"),
+        new ForEachSqlNode(configuration, new StaticTextSqlNode("#{item}"), "list", null, "item", "(", ")", ","),
+        new IfSqlNode(new StaticTextSqlNode("AND USERNAME = #{username}"), "username != null")));
+    return new DynamicSqlSource(configuration, root);
+  }
+
+  private Map<String, Object> parameter(Object list, String username) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("list", list);
+    parameter.put("username", username);
+    return parameter;
+  }
+
+}
@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.ibatis.cache.decorators.AsyncCommitCache;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Test;
+
+public class AsyncCommitCacheTest {
+
+  @Test
+  public void shouldPutTheCommittedObjectsInTheBackground() throws Exception {
+    AsyncCommitCache cache = new AsyncCommitCache(new SerializedCache(new PerpetualCache("default")));
+    TransactionalCache txCache = new TransactionalCache(cache);
+    assertNull(txCache.getObject("missed"));
+    txCache.putObject("a", "1");
+    txCache.putObject("b", "2");
+    txCache.commit();
+    awaitPendingCommits(cache);
+    assertEquals("1", cache.getObject("a"));
+    assertEquals("2", cache.getObject("b"));
+    assertEquals(3, cache.getSize());
+  }
+
+  @Test
+  public void shouldDropTheObjectsQueuedBeforeAClear() throws Exception {
+    final CountDownLatch putting = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AsyncCommitCache cache = new AsyncCommitCache(new PerpetualCache("default") {
+      @Override
+      public void putObjects(Map<Object, Object> objects) {
+        if (objects.containsKey("first")) {
+          putting.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        super.putObjects(objects);
+      }
+    });
+    cache.putObjects(objects("first"));
+    putting.await();
+    cache.putObjects(objects("second"));
+    Thread clearing = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        cache.clear();
+      }
+    });
+    clearing.start();
+    while (clearing.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    clearing.join();
+    awaitPendingCommits(cache);
+    assertNull(cache.getObject("first"));
+    assertNull(cache.getObject("second"));
+  }
+
+  @Test
+  public void shouldPutTheObjectsOfAFullQueueInTheCommittingThread() {
+    AsyncCommitCache cache = new AsyncCommitCache(new PerpetualCache("default"));
+    cache.setCommitQueueSize(1);
+    for (int i = 0; i < 100; i++) {
+      cache.putObjects(objects(i));
+    }
+    assertTrue(cache.getPendingCommitCount() <= 2);
+  }
+
+  @Test
+  public void shouldPassBulkPutsThroughTheStandardDecorators() {
+    final Map<Object, Object> received = new HashMap<Object, Object>();
+    Cache cache = new SynchronizedCache(new LoggingCache(new SerializedCache(new PerpetualCache("default") {
+      @Override
+      public void putObject(Object key, Object value) {
+        fail("Should have put the objects at once");
+      }
+
+      @Override
+      public void putObjects(Map<Object, Object> objects) {
+        received.putAll(objects);
+        super.putObjects(objects);
+      }
+    })));
+    CacheUtil.putObjects(cache, objects("a"));
+    assertTrue(received.get("a") instanceof byte[]);
+    assertEquals("a", cache.getObject("a"));
+  }
+
+  @Test
+  public void shouldBeBuiltForAsyncCommit() {
+    Properties properties = new Properties();
+    properties.setProperty("asyncCommit", "true");
+    properties.setProperty("commitQueueSize", "16");
+    Cache cache = new CacheBuilder("default").properties(properties).build();
+    assertEquals(AsyncCommitCache.class, cache.getClass());
+    assertEquals(16, ((AsyncCommitCache) cache).getCommitQueueSize());
+  }
+
+  private static Map<Object, Object> objects(Object key) {
+    return new HashMap<Object, Object>(Collections.singletonMap(key, key));
+  }
+
+  private static void awaitPendingCommits(AsyncCommitCache cache) throws InterruptedException {
+    while (cache.getPendingCommitCount() > 0) {
+      Thread.sleep(1);
+    }
+  }
+
+}
@@ -0,0 +1,245 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.codec.BinaryCodec;
+import org.apache.ibatis.cache.codec.JavaSerializationCodec;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Test;
+
+public class BinaryCodecTest {
+
+  private final BinaryCodec codec = new BinaryCodec();
+
+  @Test
+  public void shouldCopySimpleValues() throws Exception {
+    Timestamp timestamp = new Timestamp(1234567890123L);
+    timestamp.setNanos(123456789);
+    Object[] values = { null, true, false, "", "hello", "été 日本 😀", 0, -1, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, Long.MIN_VALUE, 42L, (short) -7, (byte) 200, 'x', '€', 1.5f, Float.NaN, -0.0d,
+        Double.MAX_VALUE, new BigInteger("-123456789012345678901234567890"), new BigDecimal("-1234.5678"),
+        new Date(), new java.sql.Date(86400000L), new Time(3600000L), timestamp, Section.NEWS };
+    for (Object value : values) {
+      assertEquals(value, copy(value));
+    }
+    assertEquals(123456789, ((Timestamp) copy(timestamp)).getNanos());
+    assertArrayEquals(new byte[] { 1, -2, 3 }, (byte[]) copy(new byte[] { 1, -2, 3 }));
+  }
+
+  @Test
+  public void shouldCopyCollections() throws Exception {
+    List<Object> list = new ArrayList<Object>(Arrays.<Object>asList(1, "two", null));
+    Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+    map.put("b", list);
+    map.put("a", new HashSet<Object>(Arrays.asList("x", "y")));
+    map.put(null, new LinkedList<Object>(Arrays.asList(3L)));
+    map.put(4, new HashMap<Object, Object>(Collections.singletonMap("k", "v")));
+    map.put(5, new LinkedHashSet<Object>(Arrays.asList("z", "w")));
+    map.put(6, new String[] { "s", null });
+    @SuppressWarnings("unchecked")
+    Map<Object, Object> copy = (Map<Object, Object>) copy(map);
+    assertEquals(LinkedHashMap.class, copy.getClass());
+    assertEquals(new ArrayList<Object>(map.keySet()), new ArrayList<Object>(copy.keySet()));
+    assertEquals(list, copy.get("b"));
+    assertNotSame(list, copy.get("b"));
+    assertEquals(map.get("a"), copy.get("a"));
+    assertEquals(map.get(null), copy.get(null));
+    assertEquals(map.get(4), copy.get(4));
+    assertEquals(Arrays.asList("z", "w"), new ArrayList<Object>((LinkedHashSet<?>) copy.get(5)));
+    assertArrayEquals((String[]) map.get(6), (String[]) copy.get(6));
+  }
+
+  @Test
+  public void shouldCopyBeans() throws Exception {
+    List<Author> authors = new ArrayList<Author>();
+    for (int i = 0; i < 10; i++) {
+      authors.add(new Author(i, "user" + i, "pass" + i, "user" + i + "@example.com", i % 2 == 0 ? null : "bio" + i,
+          Section.values()[i % Section.values().length]));
+    }
+    Object copy = copy(authors);
+    assertEquals(authors, copy);
+    assertNotSame(authors.get(0), ((List<?>) copy).get(0));
+  }
+
+  @Test
+  public void shouldKeepSharedReferencesAndCycles() throws Exception {
+    Node parent = new Node();
+    parent.name = "parent";
+    Node child = new Node();
+    child.name = "child";
+    child.parent = parent;
+    child.transientValue = "lost";
+    parent.children.add(child);
+    parent.children.add(child);
+    Node copy = (Node) copy(parent);
+    assertEquals("parent", copy.name);
+    assertEquals(2, copy.children.size());
+    Node childCopy = copy.children.get(0);
+    assertSame(childCopy, copy.children.get(1));
+    assertSame(copy, childCopy.parent);
+    assertEquals("child", childCopy.name);
+    assertEquals(0L, childCopy.counter);
+    assertNull(childCopy.transientValue);
+  }
+
+  @Test
+  public void shouldCopyInheritedAndPrimitiveFields() throws Exception {
+    Primitives value = new Primitives();
+    value.name = "inherited";
+    value.i = -5;
+    value.l = Long.MAX_VALUE;
+    value.b = true;
+    value.d = 0.1;
+    value.f = -2.5f;
+    value.s = Short.MIN_VALUE;
+    value.by = -1;
+    value.c = 'ÿ';
+    Primitives copy = (Primitives) copy(value);
+    assertEquals("inherited", copy.name);
+    assertEquals(-5, copy.i);
+    assertEquals(Long.MAX_VALUE, copy.l);
+    assertTrue(copy.b);
+    assertEquals(0.1, copy.d, 0);
+    assertEquals(-2.5f, copy.f, 0);
+    assertEquals(Short.MIN_VALUE, copy.s);
+    assertEquals(-1, copy.by);
+    assertEquals('ÿ', copy.c);
+  }
+
+  @Test
+  public void shouldFallBackToJavaSerialization() throws Exception {
+    TreeMap<String, Object> treeMap = new TreeMap<String, Object>(Collections.reverseOrder());
+    treeMap.put("a", 1);
+    treeMap.put("b", new int[] { 1, 2 });
+    @SuppressWarnings("unchecked")
+    TreeMap<String, Object> copy = (TreeMap<String, Object>) copy(treeMap);
+    assertEquals("b", copy.firstKey());
+    assertArrayEquals(new int[] { 1, 2 }, (int[]) copy.get("b"));
+    List<String> unmodifiable = Collections.unmodifiableList(Arrays.asList("x"));
+    assertEquals(unmodifiable, copy(unmodifiable));
+    NoDefaultConstructor noDefaultConstructor = new NoDefaultConstructor("value");
+    assertEquals("value", ((NoDefaultConstructor) copy(noDefaultConstructor)).value);
+  }
+
+  @Test
+  public void shouldCopyJdkClassesWithInaccessibleFields() throws Exception {
+    AtomicInteger counter = new AtomicInteger(42);
+    assertEquals(42, ((AtomicInteger) copy(counter)).get());
+  }
+
+  @Test(expected = NotSerializableException.class)
+  public void shouldNotCopyNonSerializableValues() throws Exception {
+    codec.encode(Arrays.asList(new Object()));
+  }
+
+  @Test
+  public void shouldWriteFewerBytesThanJavaSerialization() throws Exception {
+    List<Author> authors = new ArrayList<Author>();
+    for (int i = 0; i < 100; i++) {
+      authors.add(new Author(i, "user" + i, "pass" + i, "user" + i + "@example.com", "bio" + i, Section.NEWS));
+    }
+    assertTrue(codec.encode(authors).length < new JavaSerializationCodec().encode(authors).length);
+  }
+
+  @Test
+  public void shouldSelectCodecWithCacheProperty() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("codec", "BINARY");
+    Cache cache = new CacheBuilder("default").readWrite(true).properties(properties).build();
+    Author author = new Author(1, "user", "pass", "user@example.com", "bio", Section.NEWS);
+    cache.putObject(1, author);
+    assertEquals(author, cache.getObject(1));
+    assertNotSame(cache.getObject(1), cache.getObject(1));
+
+    PerpetualCache delegate = new PerpetualCache("default");
+    SerializedCache serializedCache = new SerializedCache(delegate);
+    serializedCache.setCodec(BinaryCodec.class.getName());
+    serializedCache.putObject(1, author);
+    assertArrayEquals(codec.encode(author), (byte[]) delegate.getObject(1));
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRejectUnknownCodec() {
+    new SerializedCache(new PerpetualCache("default")).setCodec("org.example.UnknownCodec");
+  }
+
+  private Object copy(Object value) throws Exception {
+    return codec.decode(codec.encode(value));
+  }
+
+  static class Node implements Serializable {
+    private static final long serialVersionUID = 1L;
+    String name;
+    Node parent;
+    List<Node> children = new ArrayList<Node>();
+    long counter;
+    transient String transientValue;
+  }
+
+  static class Named implements Serializable {
+    private static final long serialVersionUID = 1L;
+    String name;
+  }
+
+  static class Primitives extends Named {
+    private static final long serialVersionUID = 1L;
+    int i;
+    long l;
+    boolean b;
+    double d;
+    float f;
+    short s;
+    byte by;
+    char c;
+  }
+
+  static class NoDefaultConstructor implements Serializable {
+    private static final long serialVersionUID = 1L;
+    final String value;
+
+    NoDefaultConstructor(String value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.After;
+import org.junit.Test;
+
+public class BlockingCacheTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldLoadAMissingKeyOnceForConcurrentMisses() throws Exception {
+    final BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    final AtomicInteger loads = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<Future<Object>>();
+    for (int i = 0; i < 8; i++) {
+      results.add(executor.submit(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          start.await();
+          Object value = cache.getObject("key");
+          if (value == null) {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            value = "value";
+            cache.putObject("key", value);
+          }
+          return value;
+        }
+      }));
+    }
+    start.countDown();
+    for (Future<Object> result : results) {
+      assertEquals("value", result.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldHandTheLoadOverWhenItEndsWithoutValue() throws Exception {
+    final BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    Future<Object> waiter = executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return cache.getObject("key");
+      }
+    });
+    Thread.sleep(50);
+    assertFalse(waiter.isDone());
+    cache.removeObject("key");
+    assertNull(waiter.get(5, TimeUnit.SECONDS));
+    // the waiter is loading the key now
+    assertEquals(1, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldNotEndTheLoadOfAnotherThreadOnRemove() throws Exception {
+    final BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return cache.removeObject("key");
+      }
+    }).get();
+    assertEquals(1, cache.getPendingLoadCount());
+    cache.removeObject("key");
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldNotBlockTheLoadingThread() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    assertNull(cache.getObject("key"));
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    cache.putObject("other", "value");
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldEndTheLoadsOfBulkPuts() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("a"));
+    assertNull(cache.getObject("b"));
+    Map<Object, Object> objects = new HashMap<Object, Object>();
+    objects.put("a", "1");
+    objects.put("b", null);
+    cache.putObjects(objects);
+    assertEquals(0, cache.getPendingLoadCount());
+    assertEquals("1", cache.getObject("a"));
+  }
+
+  @Test
+  public void shouldTakeOverALoadAfterTimeout() throws Exception {
+    final BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setTimeout(100);
+    assertNull(cache.getObject("key"));
+    long start = System.currentTimeMillis();
+    assertNull(executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return cache.getObject("key");
+      }
+    }).get(5, TimeUnit.SECONDS));
+    assertTrue(System.currentTimeMillis() - start >= 100);
+    assertEquals(1, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldNotCoalesceMissesBeyondMaxPendingLoads() throws Exception {
+    final BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setMaxPendingLoads(1);
+    assertNull(cache.getObject("key1"));
+    assertNull(executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return cache.getObject("key2");
+      }
+    }).get(5, TimeUnit.SECONDS));
+    assertEquals(1, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldBeConfiguredWithCacheProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("timeout", "500");
+    properties.setProperty("maxPendingLoads", "16");
+    Cache cache = new CacheBuilder("default").blocking(true).properties(properties).build();
+    assertEquals(BlockingCache.class, cache.getClass());
+    assertEquals(500L, SystemMetaObject.forObject(cache).getValue("timeout"));
+    assertEquals(16, SystemMetaObject.forObject(cache).getValue("maxPendingLoads"));
+  }
+
+}
@@ -90,6 +90,81 @@ public class CacheKeyTest {
     assertTrue(key1.equals(key2));
   }
 
+  @Test
+  public void shouldGrowBeyondTheExpectedUpdates() {
+    CacheKey key1 = new CacheKey(1);
+    CacheKey key2 = new CacheKey();
+    for (int i = 0; i < 20; i++) {
+      key1.update("value" + i);
+      key2.update("value" + i);
+    }
+    assertEquals(20, key1.getUpdateCount());
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals(key1.toString(), key2.toString());
+  }
+
+  @Test
+  public void shouldTestPrimitiveUpdatesEqualBoxedUpdates() {
+    CacheKey key1 = new CacheKey();
+    key1.updateInt(Integer.MAX_VALUE);
+    key1.updateLong(-3L);
+    CacheKey key2 = new CacheKey(new Object[] { Integer.valueOf(Integer.MAX_VALUE), Long.valueOf(-3L) });
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertFalse(key1.equals(new CacheKey(new Object[] { Long.valueOf(Integer.MAX_VALUE), Long.valueOf(-3L) })));
+  }
+
+  @Test
+  public void shouldTestCharUpdatesDifferFromIntUpdates() {
+    CacheKey key1 = new CacheKey();
+    key1.update('a');
+    CacheKey key2 = new CacheKey();
+    key2.update(97);
+    assertFalse(key1.equals(key2));
+    assertEquals(new CacheKey(new Object[] { Character.valueOf('a') }), key1);
+  }
+
+  @Test
+  public void shouldTestKeysStartedFromAPrefixEqualFullKeys() {
+    CacheKey prefix = new CacheKey(new Object[] { "statement", 0, Integer.MAX_VALUE, "select 1" });
+    CacheKey key1 = new CacheKey(prefix, 2);
+    key1.update("param");
+    key1.update(null);
+    CacheKey key2 = new CacheKey(new Object[] { "statement", 0, Integer.MAX_VALUE, "select 1", "param", null });
+    assertEquals(key1, key2);
+    assertEquals(key2, key1);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals(key1.toString(), key2.toString());
+    assertEquals(4, prefix.getUpdateCount());
+    assertFalse(prefix.equals(key1));
+  }
+
+  @Test
+  public void shouldNotShareUpdatesWithClone() throws Exception {
+    CacheKey key1 = new CacheKey(new Object[] { 1, "hello" });
+    CacheKey key2 = key1.clone();
+    assertEquals(key1, key2);
+    key2.update("world");
+    assertEquals(2, key1.getUpdateCount());
+    assertFalse(key1.equals(key2));
+  }
+
+  @Test
+  public void shouldKeepUpdatingADeserializedKey() throws Exception {
+    CacheKey key1 = serialize(new CacheKey(new Object[] { 1, "hello" }));
+    CacheKey key2 = new CacheKey(new Object[] { 1, "hello" });
+    key1.update("world");
+    key2.update("world");
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+  }
+
+  @Test (expected = CacheException.class)
+  public void shouldNotUpdateNullCacheKeyWithPrimitive() {
+    CacheKey.NULL_CACHE_KEY.updateInt(1);
+  }
+
   @Test (expected = NotSerializableException.class)
   public void serializationExceptionTest() throws Exception {
     CacheKey cacheKey = new CacheKey();
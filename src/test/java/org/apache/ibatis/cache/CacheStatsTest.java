@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.SimpleStatsCounter;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class CacheStatsTest {
+
+  @Test
+  public void shouldRecordHitsMissesPutsAndEvictions() {
+    StatsCounter statsCounter = new SimpleStatsCounter();
+    Cache cache = new CacheBuilder("default")
+        .implementation(PerpetualCache.class)
+        .addDecorator(LruCache.class)
+        .size(2)
+        .statsCounter(statsCounter)
+        .build();
+    cache.putObject(0, 0);
+    cache.putObject(1, 1);
+    cache.putObject(2, 2);
+    assertEquals(2, cache.getObject(2));
+    assertNull(cache.getObject(0));
+
+    CacheStats stats = statsCounter.snapshot();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(0.5, stats.getHitRatio(), 0.0);
+    assertEquals(3, stats.getPutCount());
+    assertEquals(1, stats.getEvictionCount());
+    assertEquals(-1, stats.getSize());
+    assertEquals(-1, stats.getWeight());
+  }
+
+  @Test
+  public void shouldRecordWeightOfWeightedCache() {
+    StatsCounter statsCounter = new SimpleStatsCounter();
+    Cache cache = new CacheBuilder("default")
+        .implementation(PerpetualCache.class)
+        .addDecorator(WeightedCache.class)
+        .statsCounter(statsCounter)
+        .build();
+    assertEquals(0, statsCounter.snapshot().getWeight());
+    cache.putObject(0, "value");
+    assertTrue(statsCounter.snapshot().getWeight() > 0);
+    cache.clear();
+    assertEquals(0, statsCounter.snapshot().getWeight());
+  }
+
+  @Test
+  public void shouldSurfaceStatsOfEveryCacheOfTheConfiguration() {
+    Configuration configuration = new Configuration();
+    Cache cache = new CacheBuilder("org.apache.ibatis.Mapper")
+        .statsCounter(configuration.getCacheStatsCounter("org.apache.ibatis.Mapper"))
+        .build();
+    configuration.addCache(cache);
+    cache.putObject(0, 0);
+    cache.getObject(0);
+    configuration.getCacheStatsCounter(Configuration.LOCAL_CACHE_STATS_ID).recordLoad(100);
+
+    Map<String, CacheStats> stats = configuration.getCacheStats();
+    assertEquals(2, stats.size());
+    assertEquals(1, stats.get("org.apache.ibatis.Mapper").getHitCount());
+    assertEquals(1, stats.get("org.apache.ibatis.Mapper").getSize());
+    assertEquals(1, stats.get(Configuration.LOCAL_CACHE_STATS_ID).getLoadCount());
+    assertEquals(100.0, stats.get(Configuration.LOCAL_CACHE_STATS_ID).getAverageLoadTime(), 0.0);
+    assertEquals(-1, stats.get(Configuration.LOCAL_CACHE_STATS_ID).getSize());
+  }
+
+}
@@ -0,0 +1,151 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.cache.impl.ConcurrentCache;
+import org.junit.Test;
+
+public class ConcurrentCacheTest {
+
+  @Test
+  public void shouldKeepRecentlyUsedItemsBeyondSize() {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, cache.getObject(i));
+    }
+    for (int i = 100; i < 150; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(100, cache.getSize());
+    int kept = 0;
+    for (int i = 0; i < 10; i++) {
+      if (cache.getObject(i) != null) {
+        kept++;
+      }
+    }
+    // sampled eviction only approximates LRU
+    assertTrue(kept >= 8);
+  }
+
+  @Test
+  public void shouldReplaceValueOfExistingKey() {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(1);
+    cache.putObject(0, "a");
+    cache.putObject(0, "b");
+    assertEquals("b", cache.getObject(0));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void shouldNotAdmitItemsRequestedLessThanTheEvictedOne() {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setEvictionPolicy("tiny_lfu");
+    assertEquals(ConcurrentCache.TINY_LFU, cache.getEvictionPolicy());
+    cache.setSize(1);
+    for (int i = 0; i < 5; i++) {
+      cache.getObject("hot");
+    }
+    cache.putObject("hot", "hot");
+    cache.getObject("cold");
+    cache.putObject("cold", "cold");
+    assertEquals("hot", cache.getObject("hot"));
+    assertNull(cache.getObject("cold"));
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRejectUnknownEvictionPolicy() {
+    new ConcurrentCache("default").setEvictionPolicy("FIFO");
+  }
+
+  @Test
+  public void shouldRemoveItemOnDemand() {
+    Cache cache = new ConcurrentCache("default");
+    cache.putObject(0, 0);
+    cache.putObject(1, 1);
+    assertNotNull(cache.getObject(0));
+    assertEquals(0, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+    assertNull(cache.removeObject(0));
+    assertEquals(1, cache.getObject(1));
+  }
+
+  @Test
+  public void shouldFlushAllItemsOnDemand() {
+    Cache cache = new ConcurrentCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void shouldStayBoundedUnderConcurrentAccess() throws Exception {
+    final ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(64);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Void>> results = new ArrayList<Future<Void>>();
+      for (int t = 0; t < 8; t++) {
+        final int thread = t;
+        results.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int i = 0; i < 5000; i++) {
+              int key = (i * 31 + thread) % 256;
+              if (cache.getObject(key) == null) {
+                cache.putObject(key, key);
+              }
+              if (i % 100 == 0) {
+                cache.removeObject(key);
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(cache.getSize() <= 64);
+    for (int key = 0; key < 256; key++) {
+      Object value = cache.getObject(key);
+      assertTrue(value == null || value.equals(key));
+    }
+  }
+
+}
@@ -0,0 +1,328 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Property;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cache.decorators.ExpiringCache;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Test;
+
+public class ExpiringCacheTest {
+
+  @Test
+  public void shouldExpireEachEntryAfterItsTimeToLive() throws Exception {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(200);
+    cache.putObject(0, 0);
+    Thread.sleep(120);
+    cache.putObject(1, 1);
+    Thread.sleep(120);
+    assertNull(cache.getObject(0));
+    assertEquals(1, cache.getObject(1));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void shouldShortenTheTimeToLiveByTheJitterAtMost() throws Exception {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(400);
+    cache.setTtlJitter(0.5);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    Thread.sleep(150);
+    assertEquals(100, countPresent(cache));
+    Thread.sleep(350);
+    assertEquals(0, countPresent(cache));
+  }
+
+  @Test
+  public void shouldRemoveItemOnDemand() {
+    Cache cache = new LoggingCache(new ExpiringCache(new PerpetualCache("default")));
+    cache.putObject(0, 0);
+    assertEquals(0, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  public void shouldFlushAllItemsOnDemand() {
+    Cache cache = new LoggingCache(new ExpiringCache(new PerpetualCache("default")));
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+  @Test
+  public void shouldRequestARefreshOnceAfterRefreshAhead() throws Exception {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(10000);
+    cache.setRefreshAhead(0.01);
+    cache.putObject("key", "old");
+    assertEquals("old", cache.getObject("key"));
+    assertNull(ExpiringCache.takeRefreshRequest());
+    Thread.sleep(150);
+    assertEquals("old", cache.getObject("key"));
+    ExpiringCache.RefreshRequest request = ExpiringCache.takeRefreshRequest();
+    assertEquals("key", request.getKey());
+    assertEquals("old", cache.getObject("key"));
+    assertNull(ExpiringCache.takeRefreshRequest());
+    assertEquals(1, cache.getRefreshingCount());
+    cache.putObject("key", "new");
+    assertEquals(0, cache.getRefreshingCount());
+    assertEquals("new", cache.getObject("key"));
+    assertNull(ExpiringCache.takeRefreshRequest());
+  }
+
+  @Test
+  public void shouldDropARefreshThatStartedBeforeAClear() throws Exception {
+    final ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(10000);
+    cache.setRefreshAhead(0.01);
+    cache.putObject("key", "old");
+    Thread.sleep(150);
+    cache.getObject("key");
+    ExpiringCache.RefreshRequest request = ExpiringCache.takeRefreshRequest();
+    final Object lock = new Object();
+    synchronized (lock) {
+      request.submit(new Runnable() {
+        @Override
+        public void run() {
+          synchronized (lock) {
+            cache.putObject("key", "stale");
+          }
+        }
+      });
+      cache.clear();
+    }
+    while (cache.getRefreshingCount() > 0) {
+      Thread.sleep(10);
+    }
+    assertNull(cache.getObject("key"));
+  }
+
+  @Test
+  public void shouldKeepAValueLoadedAfterAClearWhileARefreshRuns() throws Exception {
+    final ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(10000);
+    cache.setRefreshAhead(0.01);
+    cache.putObject("key", "old");
+    Thread.sleep(150);
+    cache.getObject("key");
+    ExpiringCache.RefreshRequest request = ExpiringCache.takeRefreshRequest();
+    final Object lock = new Object();
+    synchronized (lock) {
+      request.submit(new Runnable() {
+        @Override
+        public void run() {
+          synchronized (lock) {
+            cache.putObject("key", "stale");
+          }
+        }
+      });
+      cache.clear();
+      cache.putObject("key", "fresh");
+      assertEquals("fresh", cache.getObject("key"));
+    }
+    while (cache.getRefreshingCount() > 0) {
+      Thread.sleep(10);
+    }
+    assertEquals("fresh", cache.getObject("key"));
+  }
+
+  @Test
+  public void shouldRunTheRefreshesOfACacheOnItsThreadsAndDropThoseThatDoNotFitInTheQueue() throws Exception {
+    final ExpiringCache cache = new ExpiringCache(new PerpetualCache("default"));
+    cache.setTtl(10000);
+    cache.setRefreshAhead(0.01);
+    cache.setRefreshQueueSize(1);
+    for (int i = 0; i < 3; i++) {
+      cache.putObject(i, "old");
+    }
+    Thread.sleep(150);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      final int key = i;
+      cache.getObject(key);
+      ExpiringCache.takeRefreshRequest().submit(new Runnable() {
+        @Override
+        public void run() {
+          maxRunning.set(Math.max(maxRunning.get(), running.incrementAndGet()));
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          cache.putObject(key, "new");
+          running.decrementAndGet();
+        }
+      });
+      while (running.get() == 0) {
+        Thread.sleep(10);
+      }
+    }
+    // one refresh runs, one is queued and the last one is dropped
+    assertEquals(2, cache.getRefreshingCount());
+    release.countDown();
+    while (cache.getRefreshingCount() > 0) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, maxRunning.get());
+    assertEquals("new", cache.getObject(0));
+    assertEquals("new", cache.getObject(1));
+    assertEquals("old", cache.getObject(2));
+    // the dropped refresh can be requested again
+    assertEquals(2, ExpiringCache.takeRefreshRequest().getKey());
+  }
+
+  @Test
+  public void shouldBeBuiltForEntryExpiration() {
+    Properties properties = new Properties();
+    properties.setProperty("expiration", "ENTRY");
+    properties.setProperty("ttlJitter", "0.1");
+    Cache cache = new CacheBuilder("default").clearInterval(60000L).properties(properties).build();
+    Object expiring = SystemMetaObject.forObject(cache).getValue("delegate.delegate");
+    assertEquals(ExpiringCache.class, expiring.getClass());
+    assertEquals(60000L, ((ExpiringCache) expiring).getTtl());
+    assertEquals(0.1, ((ExpiringCache) expiring).getTtlJitter(), 0);
+  }
+
+  @Test
+  public void shouldRefreshACachedStatementAhead() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(AuthorMapper.class);
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    assertEquals("jim", selectUsername(sqlSessionFactory));
+
+    Connection connection = dataSource.getConnection();
+    try {
+      Statement statement = connection.createStatement();
+      statement.executeUpdate("update author set username = 'james' where id = 101");
+      statement.close();
+    } finally {
+      connection.close();
+    }
+    assertEquals("jim", selectUsername(sqlSessionFactory));
+    Thread.sleep(150);
+    assertEquals("jim", selectUsername(sqlSessionFactory));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!"james".equals(selectUsername(sqlSessionFactory)) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals("james", selectUsername(sqlSessionFactory));
+  }
+
+  @Test
+  public void shouldRefreshWithTheParameterValuesOfTheRequestingQuery() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(AuthorMapper.class);
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("id", 101);
+    assertEquals("jim", selectUsername(sqlSessionFactory, parameters));
+
+    Connection connection = dataSource.getConnection();
+    try {
+      Statement statement = connection.createStatement();
+      statement.executeUpdate("update author set username = 'james' where id = 101");
+      statement.close();
+    } finally {
+      connection.close();
+    }
+    Thread.sleep(150);
+    assertEquals("jim", selectUsername(sqlSessionFactory, parameters));
+    // reused by the caller while the refresh runs
+    parameters.put("id", 102);
+    parameters = new HashMap<String, Object>();
+    parameters.put("id", 101);
+    long deadline = System.currentTimeMillis() + 5000;
+    while ("jim".equals(selectUsername(sqlSessionFactory, parameters)) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals("james", selectUsername(sqlSessionFactory, parameters));
+  }
+
+  private String selectUsername(SqlSessionFactory sqlSessionFactory, Map<String, Object> parameters) {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      return sqlSession.getMapper(AuthorMapper.class).selectUsernameById(parameters);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private String selectUsername(SqlSessionFactory sqlSessionFactory) {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      return sqlSession.getMapper(AuthorMapper.class).selectUsername(101);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private int countPresent(Cache cache) {
+    int count = 0;
+    for (int i = 0; i < 100; i++) {
+      if (cache.getObject(i) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @CacheNamespace(flushInterval = 60000, properties = {
+      @Property(name = "expiration", value = "ENTRY"),
+      @Property(name = "refreshAhead", value = "0.001")
+  })
+  public interface AuthorMapper {
+    @Select("select username from author where id = #{id}")
+    String selectUsername(int id);
+
+    @Select("select username from author where id = #{id}")
+    String selectUsernameById(Map<String, Object> parameters);
+  }
+
+}
@@ -0,0 +1,203 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class OffHeapCacheTest {
+
+  @Test
+  public void shouldReturnCopiesOfCachedValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    List<Author> authors = authors(100);
+    cache.putObject(0, authors);
+    cache.putObject(1, null);
+    cache.putObject(2, "");
+    assertEquals(authors, cache.getObject(0));
+    assertNotSame(cache.getObject(0), cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals("", cache.getObject(2));
+    assertNull(cache.getObject(3));
+    assertEquals(3, cache.getSize());
+    assertTrue(cache.getMemoryUsed() > 100 * 50);
+    assertEquals(4 * 1024 * 1024, cache.getMemoryAllocated());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedItemsBeyondMaxMemory() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    cache.setSlabSize(1024);
+    cache.setMaxMemory(4096);
+    int count = 0;
+    while (cache.getEvictionCount() == 0) {
+      cache.putObject(count, authors(1));
+      assertNotNull(cache.getObject(0));
+      count++;
+    }
+    assertTrue(count > 2);
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertTrue(cache.getMemoryUsed() <= 4096);
+    assertEquals(4096, cache.getMemoryAllocated());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedItemsBeyondSize() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setSize(5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(5, 5);
+    assertEquals(5, cache.getSize());
+    assertEquals(0, cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void shouldNotKeepItemsLargerThanMaxMemory() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    cache.setSlabSize(1024);
+    cache.setMaxMemory(1024);
+    cache.putObject(0, "small");
+    cache.putObject(1, "small");
+    cache.putObject(1, authors(100));
+    assertEquals("small", cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void shouldReuseBlocksOfRemovedAndReplacedItems() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    cache.putObject(0, authors(10));
+    long used = cache.getMemoryUsed();
+    cache.putObject(0, authors(10));
+    assertEquals(used, cache.getMemoryUsed());
+    cache.removeObject(0);
+    assertEquals(0, cache.getMemoryUsed());
+    cache.putObject(1, authors(10));
+    assertEquals(used, cache.getMemoryUsed());
+    cache.clear();
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getMemoryUsed());
+    assertNull(cache.getObject(1));
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldNotStoreNonSerializableValues() {
+    new OffHeapCache("default").putObject(0, new Object());
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRejectBlocksLargerThanSlabs() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(2048);
+    cache.setSlabSize(1024);
+  }
+
+  @Test
+  public void shouldBeConfiguredAsCacheType() throws Exception {
+    Configuration configuration = new Configuration();
+    @SuppressWarnings("unchecked")
+    Class<? extends Cache> type = configuration.getTypeAliasRegistry().resolveAlias("OFF_HEAP");
+    Properties properties = new Properties();
+    properties.setProperty("maxMemory", "1048576");
+    properties.setProperty("codec", "BINARY");
+    Cache cache = new CacheBuilder("default").implementation(type).size(10).readWrite(true).properties(properties)
+        .build();
+    assertEquals(LoggingCache.class, cache.getClass());
+    MetaObject metaCache = SystemMetaObject.forObject(cache);
+    OffHeapCache offHeapCache = (OffHeapCache) metaCache.getValue("delegate");
+    assertEquals(1048576, offHeapCache.getMaxMemory());
+    for (int i = 0; i < 20; i++) {
+      cache.putObject(i, authors(1));
+    }
+    assertEquals(10, cache.getSize());
+    assertEquals(authors(1), cache.getObject(19));
+  }
+
+  @Test
+  public void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+    final OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    cache.setMaxMemory(64 * 1024);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Void>> results = new ArrayList<Future<Void>>();
+      for (int t = 0; t < 8; t++) {
+        final int thread = t;
+        results.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int i = 0; i < 2000; i++) {
+              int key = (i * 31 + thread) % 256;
+              Object value = cache.getObject(key);
+              if (value == null) {
+                cache.putObject(key, "value" + key);
+              } else {
+                assertEquals("value" + key, value);
+              }
+              if (i % 100 == 0) {
+                cache.removeObject(key);
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(cache.getMemoryUsed() <= 64 * 1024);
+  }
+
+  private static List<Author> authors(int count) {
+    List<Author> authors = new ArrayList<Author>();
+    for (int i = 0; i < count; i++) {
+      authors.add(new Author(i, "user" + i, "password" + i, "user" + i + "@example.com", "bio of user " + i,
+          Section.NEWS));
+    }
+    return authors;
+  }
+
+}
@@ -0,0 +1,171 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Property;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.TaggedCache;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Test;
+
+public class TaggedCacheTest {
+
+  @Test
+  public void shouldInvalidateOnlyTheEntriesOfTheGivenTags() {
+    TaggedCache cache = new TaggedCache(new PerpetualCache("default"));
+    cache.putObject("author", cache.stamp(Collections.singleton("author")).tag("jim"));
+    cache.putObject("blog", cache.stamp(Arrays.asList("blog", "author")).tag("Jim Business"));
+    cache.putObject("post", cache.stamp(Collections.singleton("post")).tag("Corn nuts"));
+    cache.invalidate(Collections.singleton("author"));
+    assertNull(cache.getObject("author"));
+    assertNull(cache.getObject("blog"));
+    assertEquals("Corn nuts", cache.getObject("post"));
+  }
+
+  @Test
+  public void shouldReplaceAStaleEntryBehindABlockingCache() {
+    Properties properties = new Properties();
+    properties.setProperty("invalidation", "TABLE");
+    TaggedCache cache = (TaggedCache) new CacheBuilder("default").blocking(true).properties(properties).build();
+    cache.putObject("author", cache.stamp(Collections.singleton("author")).tag("jim"));
+    cache.invalidate(Collections.singleton("author"));
+    assertNull(cache.getObject("author"));
+    cache.putObject("author", cache.stamp(Collections.singleton("author")).tag("james"));
+    assertEquals("james", cache.getObject("author"));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void shouldNotKeepAValueLoadedBeforeAnInvalidation() {
+    TaggedCache cache = new TaggedCache(new PerpetualCache("default"));
+    TaggedCache.Stamp stamp = cache.stamp(Collections.singleton("author"));
+    cache.invalidate(Collections.singleton("author"));
+    cache.putObject("author", stamp.tag("jim"));
+    assertNull(cache.getObject("author"));
+  }
+
+  @Test
+  public void shouldInvalidateUntaggedEntriesOnAnyInvalidation() {
+    TaggedCache cache = new TaggedCache(new SerializedCache(new PerpetualCache("default")));
+    cache.putObject("any", "value");
+    cache.putObject("none", cache.stamp(Collections.<String> emptySet()).tag("value"));
+    assertEquals("value", cache.getObject("any"));
+    cache.invalidate(Collections.singleton("author"));
+    assertNull(cache.getObject("any"));
+    assertNull(cache.getObject("none"));
+  }
+
+  @Test
+  public void shouldInvalidateOnCommit() {
+    TaggedCache cache = new TaggedCache(new PerpetualCache("default"));
+    cache.putObject("author", cache.stamp(Collections.singleton("author")).tag("jim"));
+    cache.putObject("post", cache.stamp(Collections.singleton("post")).tag("Corn nuts"));
+    TransactionalCache txCache = new TransactionalCache(cache);
+    txCache.invalidate(Collections.singleton("author"));
+    assertNull(txCache.getObject("author"));
+    assertEquals("Corn nuts", txCache.getObject("post"));
+    assertEquals("jim", cache.getObject("author"));
+    txCache.commit();
+    assertNull(cache.getObject("author"));
+    assertEquals("Corn nuts", cache.getObject("post"));
+  }
+
+  @Test
+  public void shouldBeBuiltForTableInvalidation() {
+    Properties properties = new Properties();
+    properties.setProperty("invalidation", "TABLE");
+    assertEquals(TaggedCache.class, new CacheBuilder("default").properties(properties).build().getClass());
+  }
+
+  @Test
+  public void shouldInvalidateTheStatementsThatReadAnUpdatedTable() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(BlogMapper.class);
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      BlogMapper mapper = sqlSession.getMapper(BlogMapper.class);
+      assertEquals("jim", mapper.selectUsername(101));
+      assertEquals("Jim Business", mapper.selectTitle(1));
+      sqlSession.commit();
+
+      execute(dataSource, "update blog set title = 'Jim Pleasure' where id = 1");
+      mapper.updateUsername(101, "james");
+      assertEquals("james", mapper.selectUsername(101));
+      sqlSession.commit();
+      assertEquals("james", mapper.selectUsername(101));
+      // not invalidated, still cached
+      assertEquals("Jim Business", mapper.selectTitle(1));
+
+      mapper.updateTitle(1, "Jim Leisure");
+      sqlSession.commit();
+      assertEquals("Jim Leisure", mapper.selectTitle(1));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private void execute(DataSource dataSource, String sql) throws Exception {
+    Connection connection = dataSource.getConnection();
+    try {
+      Statement statement = connection.createStatement();
+      statement.executeUpdate(sql);
+      statement.close();
+    } finally {
+      connection.close();
+    }
+  }
+
+  @CacheNamespace(properties = @Property(name = "invalidation", value = "TABLE"))
+  public interface BlogMapper {
+    @Select("select username from author where id = #{id}")
+    String selectUsername(int id);
+
+    @Select("select title from blog where id = #{id}")
+    String selectTitle(int id);
+
+    @Update("update author set username = #{username} where id = #{id}")
+    void updateUsername(@Param("id") int id, @Param("username") String username);
+
+    @Update("update blog set title = #{title} where id = #{id}")
+    void updateTitle(@Param("id") int id, @Param("title") String title);
+  }
+
+}
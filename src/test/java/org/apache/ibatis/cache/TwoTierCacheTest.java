@@ -0,0 +1,114 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
+import org.apache.ibatis.cache.impl.LoopbackInvalidationBus;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TwoTierCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TwoTierCacheTest {
+
+  private Cache shared;
+  private LoopbackInvalidationBus bus;
+  private TwoTierCache node1;
+  private TwoTierCache node2;
+
+  @Before
+  public void setUp() {
+    shared = new SynchronizedCache(new PerpetualCache("default"));
+    bus = new LoopbackInvalidationBus();
+    node1 = new TwoTierCache("default", shared, bus);
+    node2 = new TwoTierCache("default", shared, bus);
+  }
+
+  @Test
+  public void shouldServeReadsFromNearTier() {
+    node1.putObject(0, "a");
+    assertEquals("a", node2.getObject(0));
+    assertEquals(1, node2.getNearSize());
+    // changed behind the back of the nodes, without an invalidation
+    shared.putObject(0, "b");
+    assertEquals("a", node1.getObject(0));
+    assertEquals("a", node2.getObject(0));
+  }
+
+  @Test
+  public void shouldInvalidateNearTierOfOtherNodesOnWrite() {
+    node1.putObject(0, "a");
+    assertEquals("a", node2.getObject(0));
+    node1.putObject(0, "b");
+    assertEquals("b", node2.getObject(0));
+    node2.removeObject(0);
+    assertNull(node1.getObject(0));
+    assertEquals(0, node1.getNearSize());
+  }
+
+  @Test
+  public void shouldClearNearTierOfOtherNodesOnClear() {
+    for (int i = 0; i < 10; i++) {
+      node1.putObject(i, i);
+      node2.getObject(i);
+    }
+    assertEquals(10, node2.getNearSize());
+    node1.clear();
+    assertEquals(0, node2.getNearSize());
+    assertEquals(0, node2.getSize());
+    assertNull(node2.getObject(0));
+  }
+
+  @Test
+  public void shouldNotReceiveOtherNamespaces() {
+    TwoTierCache other = new TwoTierCache("other", new PerpetualCache("other"), bus);
+    other.putObject(0, "a");
+    node1.clear();
+    assertEquals(1, other.getNearSize());
+  }
+
+  @Test
+  public void shouldBuildFromProperties() {
+    Properties props = new Properties();
+    props.setProperty("sharedCache", ConcurrentCache.class.getName());
+    props.setProperty("invalidationBus", TwoTierCache.LOOPBACK);
+    Cache cache = new CacheBuilder("default").implementation(TwoTierCache.class).size(10).readWrite(false)
+        .properties(props).build();
+    cache.putObject(0, "a");
+    assertEquals("a", cache.getObject(0));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRequireSharedCache() {
+    new CacheBuilder("default").implementation(TwoTierCache.class).properties(new Properties()).build();
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRejectTableInvalidation() {
+    Properties props = new Properties();
+    props.setProperty("sharedCache", ConcurrentCache.class.getName());
+    props.setProperty("invalidation", "TABLE");
+    new CacheBuilder("default").implementation(TwoTierCache.class).properties(props).build();
+  }
+
+}
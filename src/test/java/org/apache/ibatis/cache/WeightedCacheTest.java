@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Test;
+
+public class WeightedCacheTest {
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedItemsBeyondMaxWeight() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.setMaxWeight(10000);
+    cache.putObject(0, authors(10));
+    long weightOfTen = cache.getWeight();
+    assertTrue(weightOfTen > 10 * 100);
+    cache.putObject(1, authors(10));
+    assertEquals(authors(10).size(), ((List<?>) cache.getObject(0)).size());
+    int count = 2;
+    while (cache.getEvictionCount() == 0) {
+      cache.putObject(count++, authors(10));
+    }
+    assertTrue(cache.getWeight() <= 10000);
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(count - 1, cache.getSize());
+  }
+
+  @Test
+  public void shouldWeighJdkValuesWithInaccessibleFields() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    List<Object> values = new ArrayList<Object>();
+    values.add(new Date());
+    values.add(new BigDecimal("1234.5678"));
+    cache.putObject(0, values);
+    assertTrue(cache.getWeight() > 0);
+    assertSame(values, cache.getObject(0));
+  }
+
+  @Test
+  public void shouldWeighLargerResultsMore() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.putObject(0, authors(1));
+    long weightOfOne = cache.getWeight();
+    cache.putObject(0, authors(100));
+    assertTrue(cache.getWeight() > 50 * weightOfOne);
+    cache.removeObject(0);
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void shouldNotKeepItemsHeavierThanMaxWeight() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.setMaxWeight(1000);
+    cache.putObject(0, authors(1));
+    cache.putObject(1, authors(100));
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+  }
+
+  @Test
+  public void shouldUseSerializedSizeWhenReadWrite() {
+    Cache cache = new CacheBuilder("default").addDecorator(WeightedCache.class).readWrite(true).build();
+    cache.putObject(0, authors(10));
+    assertEquals(10, ((List<?>) cache.getObject(0)).size());
+    WeightedCache weightedCache = new WeightedCache(new PerpetualCache("default"));
+    new SerializedCache(weightedCache).putObject(0, authors(10));
+    assertTrue(weightedCache.getWeight() > 10 * 50);
+  }
+
+  @Test
+  public void shouldBoundNumberOfItemsWhenSizeIsSet() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.setSize(5);
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(5, cache.getSize());
+    assertEquals(5, cache.getEvictionCount());
+  }
+
+  @Test
+  public void shouldFlushAllItemsOnDemand() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getWeight());
+  }
+
+  private List<Author> authors(int count) {
+    List<Author> authors = new ArrayList<Author>();
+    for (int i = 0; i < count; i++) {
+      authors.add(new Author(i, "user" + i, "******", "user" + i + "@apache.org", "bio of user " + i, Section.NEWS));
+    }
+    return authors;
+  }
+
+}
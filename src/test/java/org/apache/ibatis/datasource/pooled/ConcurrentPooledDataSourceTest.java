@@ -0,0 +1,278 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.session.Configuration;
+import org.hsqldb.jdbc.JDBCConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentPooledDataSourceTest {
+
+  private ConcurrentPooledDataSource ds;
+
+  @Before
+  public void setUp() {
+    ds = new ConcurrentPooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:concurrentpool", "sa", "");
+  }
+
+  @After
+  public void tearDown() {
+    ds.forceCloseAll();
+  }
+
+  @Test
+  public void shouldProperlyMaintainPoolOf3ActiveAnd2IdleConnections() throws Exception {
+    ds.setDefaultAutoCommit(false);
+    ds.setPoolMaximumActiveConnections(3);
+    ds.setPoolMaximumIdleConnections(2);
+    ds.setPoolMaximumCheckoutTime(10000);
+    ds.setPoolPingConnectionsNotUsedFor(1);
+    ds.setPoolPingEnabled(true);
+    ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+    ds.setPoolTimeToWait(10000);
+    List<Connection> connections = new ArrayList<Connection>();
+    for (int i = 0; i < 3; i++) {
+      connections.add(ds.getConnection());
+    }
+    assertEquals(3, ds.getPoolState().getActiveConnectionCount());
+    for (Connection c : connections) {
+      c.close();
+    }
+    assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+    assertEquals(3, ds.getPoolState().getRequestCount());
+    assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    assertEquals(0, ds.getPoolState().getHadToWaitCount());
+    assertEquals(0, ds.getPoolState().getClaimedOverdueConnectionCount());
+    assertNotNull(ds.getPoolState().toString());
+  }
+
+  @Test
+  public void shouldGiveBackTheConnectionReturnedByTheSameThread() throws Exception {
+    Connection c = ds.getConnection();
+    Connection real = PooledDataSource.unwrapConnection(c);
+    c.close();
+    c = ds.getConnection();
+    assertSame(real, PooledDataSource.unwrapConnection(c));
+    c.close();
+  }
+
+  @Test
+  public void shouldInvalidateTheProxyOnClose() throws Exception {
+    Connection c = ds.getConnection();
+    c.close();
+    try {
+      c.createStatement();
+      fail("Should have failed accessing a closed connection");
+    } catch (SQLException e) {
+      assertEquals("Error accessing PooledConnection. Connection is invalid.", e.getMessage());
+    }
+    c.toString();
+    c.close();
+    assertEquals(1, ds.getPoolState().getBadConnectionCount());
+  }
+
+  @Test
+  public void shouldReturnRealConnection() throws Exception {
+    Connection c = ds.getConnection();
+    assertTrue(PooledDataSource.unwrapConnection(c) instanceof JDBCConnection);
+    c.close();
+  }
+
+  @Test
+  public void shouldClaimOverdueConnection() throws Exception {
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCheckoutTime(50);
+    ds.setPoolTimeToWait(10);
+    Connection leaked = ds.getConnection();
+    Thread.sleep(100);
+    Connection c = ds.getConnection();
+    assertSame(PooledDataSource.unwrapConnection(leaked), PooledDataSource.unwrapConnection(c));
+    assertEquals(1, ds.getPoolState().getClaimedOverdueConnectionCount());
+    assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+    leaked.close();
+    assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+    c.close();
+    assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+  }
+
+  @Test
+  public void shouldGiveBackTheSlotOfAConnectionThatFailsToRollBack() throws Exception {
+    // the first rollback is the one of the checkout
+    final int[] rollbacks = { 0 };
+    UnpooledDataSource unpooled = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:concurrentpool", "sa", "") {
+      @Override
+      public Connection getConnection() throws SQLException {
+        final Connection real = super.getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            new InvocationHandler() {
+              @Override
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("rollback".equals(method.getName()) && ++rollbacks[0] == 2) {
+                  throw new SQLException("rollback failed");
+                }
+                try {
+                  return method.invoke(real, args);
+                } catch (InvocationTargetException e) {
+                  throw e.getCause();
+                }
+              }
+            });
+      }
+    };
+    unpooled.setAutoCommit(false);
+    ds.forceCloseAll();
+    ds = new ConcurrentPooledDataSource(unpooled);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolTimeToWait(10);
+    Connection c = ds.getConnection();
+    try {
+      c.close();
+      fail("Should have failed rolling back");
+    } catch (SQLException e) {
+      assertEquals("rollback failed", e.getMessage());
+    }
+    assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    assertEquals(1, ds.getPoolState().getBadConnectionCount());
+    c = ds.getConnection();
+    c.close();
+    assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+  }
+
+  @Test
+  public void shouldCloseAConnectionThatFailsToRollBackOnCheckout() throws Exception {
+    final int[] rollbacks = { 0 };
+    final int[] closes = { 0 };
+    UnpooledDataSource unpooled = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:concurrentpool", "sa", "") {
+      @Override
+      public Connection getConnection() throws SQLException {
+        final Connection real = super.getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            new InvocationHandler() {
+              @Override
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("rollback".equals(method.getName()) && ++rollbacks[0] == 1) {
+                  throw new SQLException("rollback failed");
+                }
+                if ("close".equals(method.getName())) {
+                  closes[0]++;
+                }
+                try {
+                  return method.invoke(real, args);
+                } catch (InvocationTargetException e) {
+                  throw e.getCause();
+                }
+              }
+            });
+      }
+    };
+    unpooled.setAutoCommit(false);
+    ds.forceCloseAll();
+    ds = new ConcurrentPooledDataSource(unpooled);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolTimeToWait(10);
+    try {
+      ds.getConnection();
+      fail("Should have failed rolling back");
+    } catch (SQLException e) {
+      assertEquals("rollback failed", e.getMessage());
+    }
+    assertEquals(1, closes[0]);
+    Connection c = ds.getConnection();
+    c.close();
+    assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+  }
+
+  @Test
+  public void shouldNeverExceedMaximumActiveConnectionsUnderContention() throws Exception {
+    final int threads = 32;
+    final int iterations = 200;
+    ds.setPoolMaximumActiveConnections(4);
+    ds.setPoolMaximumIdleConnections(4);
+    ds.setPoolTimeToWait(1000);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            int maxSeen = 0;
+            for (int j = 0; j < iterations; j++) {
+              Connection c = ds.getConnection();
+              try {
+                maxSeen = Math.max(maxSeen, ds.getPoolState().getActiveConnectionCount());
+                c.getAutoCommit();
+              } finally {
+                c.close();
+              }
+            }
+            return maxSeen;
+          }
+        }));
+      }
+      for (Future<Integer> result : results) {
+        assertTrue(result.get() <= 4);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(threads * iterations, ds.getPoolState().getRequestCount());
+    assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    assertTrue(ds.getPoolState().getIdleConnectionCount() <= 4);
+    assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    assertEquals(0, ((ConcurrentPoolState) ds.getPoolState()).getWaitingThreadCount());
+  }
+
+  @Test
+  public void shouldBeRegisteredAsConcurrentPooled() throws Exception {
+    Configuration configuration = new Configuration();
+    Class<?> factoryType = configuration.getTypeAliasRegistry().resolveAlias("CONCURRENT_POOLED");
+    ConcurrentPooledDataSourceFactory factory = (ConcurrentPooledDataSourceFactory) factoryType.newInstance();
+    Properties props = new Properties();
+    props.setProperty("driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("url", "jdbc:hsqldb:mem:concurrentpool");
+    props.setProperty("username", "sa");
+    props.setProperty("poolMaximumActiveConnections", "2");
+    factory.setProperties(props);
+    ConcurrentPooledDataSource dataSource = (ConcurrentPooledDataSource) factory.getDataSource();
+    assertEquals(2, dataSource.getPoolMaximumActiveConnections());
+    Connection c = dataSource.getConnection();
+    c.close();
+    assertEquals(1, dataSource.getPoolState().getIdleConnectionCount());
+    dataSource.forceCloseAll();
+  }
+
+}
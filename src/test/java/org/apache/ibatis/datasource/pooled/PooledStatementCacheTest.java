@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledStatementCacheTest {
+
+  private static final String SELECT_ONE = "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS WHERE 1 = ?";
+  private static final String SELECT_TWO = "SELECT 2 FROM INFORMATION_SCHEMA.SYSTEM_USERS WHERE 1 = ?";
+  private static final String SELECT_THREE = "SELECT 3 FROM INFORMATION_SCHEMA.SYSTEM_USERS WHERE 1 = ?";
+
+  private PooledDataSource ds;
+
+  @Before
+  public void setUp() {
+    ds = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:statementcache", "sa", "");
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCachedStatements(2);
+  }
+
+  @After
+  public void tearDown() {
+    ds.forceCloseAll();
+  }
+
+  @Test
+  public void shouldReuseStatementAcrossCheckouts() throws Exception {
+    Connection c = ds.getConnection();
+    PreparedStatement first = c.prepareStatement(SELECT_ONE);
+    assertEquals(1, query(first, 1));
+    PreparedStatement real = first.unwrap(PreparedStatement.class);
+    first.close();
+    assertTrue(first.isClosed());
+    c.close();
+
+    c = ds.getConnection();
+    PreparedStatement second = c.prepareStatement(SELECT_ONE);
+    assertSame(real, second.unwrap(PreparedStatement.class));
+    assertNotSame(first, second);
+    assertSame(c, second.getConnection());
+    assertEquals(1, query(second, 1));
+    second.close();
+    c.close();
+
+    assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+    assertEquals(1, ds.getPoolState().getStatementCacheMissCount());
+    assertEquals(0.5, ds.getPoolState().getStatementCacheHitRatio(), 0);
+  }
+
+  @Test
+  public void shouldNotHandOutAnOpenStatement() throws Exception {
+    Connection c = ds.getConnection();
+    PreparedStatement first = c.prepareStatement(SELECT_ONE);
+    PreparedStatement second = c.prepareStatement(SELECT_ONE);
+    assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+    first.close();
+    second.close();
+    c.close();
+    assertEquals(2, ds.getPoolState().getStatementCacheMissCount());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedStatement() throws Exception {
+    Connection c = ds.getConnection();
+    PreparedStatement one = c.prepareStatement(SELECT_ONE);
+    PreparedStatement evicted = one.unwrap(PreparedStatement.class);
+    one.close();
+    c.prepareStatement(SELECT_TWO).close();
+    c.prepareStatement(SELECT_THREE).close();
+    assertEquals(1, ds.getPoolState().getStatementCacheEvictionCount());
+    assertTrue(evicted.isClosed());
+    c.prepareStatement(SELECT_THREE).close();
+    assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+    c.close();
+  }
+
+  @Test
+  public void shouldFailUsingAClosedStatement() throws Exception {
+    Connection c = ds.getConnection();
+    PreparedStatement statement = c.prepareStatement(SELECT_ONE);
+    statement.close();
+    try {
+      statement.executeQuery();
+      fail("Should have failed using a closed statement");
+    } catch (SQLException e) {
+      assertEquals("Error accessing cached PreparedStatement. Statement is closed.", e.getMessage());
+    }
+    statement.close();
+    c.close();
+  }
+
+  @Test
+  public void shouldClearParametersAndBatchOfReturnedStatement() throws Exception {
+    Connection c = ds.getConnection();
+    PreparedStatement statement = c.prepareStatement(SELECT_ONE);
+    statement.setInt(1, 1);
+    statement.setMaxRows(1);
+    statement.executeQuery();
+    statement.close();
+    statement = c.prepareStatement(SELECT_ONE);
+    assertEquals(0, statement.getMaxRows());
+    try {
+      statement.executeQuery();
+      fail("Should have failed without parameter");
+    } catch (SQLException e) {
+      // parameters were cleared
+    }
+    statement.close();
+    c.close();
+  }
+
+  @Test
+  public void shouldNotCacheByDefault() throws Exception {
+    PooledDataSource dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:statementcache", "sa", "");
+    Connection c = dataSource.getConnection();
+    PreparedStatement statement = c.prepareStatement(SELECT_ONE);
+    PreparedStatement real = statement.unwrap(PreparedStatement.class);
+    statement.close();
+    assertTrue(real.isClosed());
+    c.close();
+    assertEquals(0, dataSource.getPoolState().getStatementCacheMissCount());
+    dataSource.forceCloseAll();
+  }
+
+  @Test
+  public void shouldKeepStatementsOfConcurrentPool() throws Exception {
+    ConcurrentPooledDataSource dataSource = new ConcurrentPooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:statementcache", "sa", "");
+    dataSource.setPoolMaximumCachedStatements(2);
+    for (int i = 0; i < 3; i++) {
+      Connection c = dataSource.getConnection();
+      PreparedStatement statement = c.prepareStatement(SELECT_ONE);
+      assertEquals(1, query(statement, 1));
+      statement.close();
+      c.close();
+    }
+    assertEquals(2, dataSource.getPoolState().getStatementCacheHitCount());
+    dataSource.forceCloseAll();
+  }
+
+  private int query(PreparedStatement statement, int parameter) throws SQLException {
+    statement.setInt(1, parameter);
+    ResultSet rs = statement.executeQuery();
+    try {
+      return rs.next() ? rs.getInt(1) : -1;
+    } finally {
+      rs.close();
+    }
+  }
+
+}
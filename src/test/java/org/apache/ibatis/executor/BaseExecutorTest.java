@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -29,10 +30,12 @@ import javassist.util.proxy.Proxy;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.domain.blog.Post;
 import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
@@ -435,6 +438,31 @@ public class BaseExecutorTest extends BaseDataTest {
     }
   }
 
+  @Test
+  public void shouldRecordLocalCacheStatsOfQueriesWithoutResultHandler() throws Exception {
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, new DefaultResultHandler());
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      CacheStats stats = config.getCacheStats().get(Configuration.LOCAL_CACHE_STATS_ID);
+      assertEquals(1, stats.getHitCount());
+      assertEquals(1, stats.getMissCount());
+      assertEquals(1, stats.getLoadCount());
+      assertEquals(1, stats.getPutCount());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldBeCreatedWithoutConfiguration() {
+    // as the closed executor of a deserialized lazy loader is
+    assertFalse(new SimpleExecutor(null, null).isClosed());
+  }
+
   @Test
   public void shouldClearDeferredLoads() throws Exception {
     
@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.Test;
+
+public class MultiRowInsertBatchExecutorTest extends BaseExecutorTest {
+
+  @Test
+  public void shouldInsertRowsWithMultiRowStatements() throws Exception {
+    config.setMultiRowInsertMaxRows(4);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      for (int i = 0; i < 10; i++) {
+        Author author = new Author(500 + i, "someone" + i, "******", "someone@apache.org", "bio" + i, Section.NEWS);
+        assertEquals(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, executor.update(insertStatement, author));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(3, results.get(0).getBatchCount());
+      assertEquals(10, results.get(0).getParameterObjects().size());
+      assertEquals(10, results.get(0).getUpdateCounts().length);
+      for (int updateCount : results.get(0).getUpdateCounts()) {
+        assertEquals(1, updateCount);
+      }
+      for (int i = 0; i < 10; i++) {
+        List<Author> authors = executor.query(selectStatement, 500 + i, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        assertEquals("bio" + i, authors.get(0).getBio());
+      }
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldBatchOtherUpdatesInOrder() throws Exception {
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement updateStatement = ExecutorTestHelper.prepareUpdateAuthorMappedStatement(config);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      Author author = null;
+      for (int i = 0; i < 3; i++) {
+        author = new Author(600 + i, "someone" + i, "******", "someone@apache.org", null, Section.NEWS);
+        executor.update(insertStatement, author);
+      }
+      author.setBio("updated");
+      executor.update(updateStatement, author);
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(2, results.size());
+      assertSame(insertStatement, results.get(0).getMappedStatement());
+      assertEquals(1, results.get(0).getBatchCount());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertSame(updateStatement, results.get(1).getMappedStatement());
+      assertArrayEquals(new int[] { 1 }, results.get(1).getUpdateCounts());
+      List<Author> authors = executor.query(selectStatement, 602, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals("updated", authors.get(0).getBio());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldBeCreatedForBatchSessionsWhenEnabled() {
+    config.setCacheEnabled(false);
+    config.setMultiRowInsertMaxRows(100);
+    assertTrue(config.newExecutor(new JdbcTransaction(ds, null, false), ExecutorType.BATCH) instanceof MultiRowInsertBatchExecutor);
+    assertTrue(config.newExecutor(new JdbcTransaction(ds, null, false), ExecutorType.SIMPLE) instanceof SimpleExecutor);
+  }
+
+  @Override
+  protected Executor createExecutor(Transaction transaction) {
+    return new MultiRowInsertBatchExecutor(config, transaction);
+  }
+}
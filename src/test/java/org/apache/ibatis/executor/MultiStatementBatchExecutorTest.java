@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.Test;
+
+public class MultiStatementBatchExecutorTest extends BaseExecutorTest {
+
+  @Test
+  public void shouldBatchInterleavedStatementsInFirstUseOrder() throws Exception {
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement updateStatement = ExecutorTestHelper.prepareUpdateAuthorMappedStatement(config);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      for (int i = 0; i < 10; i++) {
+        Author author = new Author(500 + i, "someone" + i, "******", "someone@apache.org", null, Section.NEWS);
+        assertEquals(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, executor.update(insertStatement, author));
+        author.setBio("bio" + i);
+        assertEquals(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, executor.update(updateStatement, author));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(2, results.size());
+      assertSame(insertStatement, results.get(0).getMappedStatement());
+      assertSame(updateStatement, results.get(1).getMappedStatement());
+      for (BatchResult result : results) {
+        assertEquals(10, result.getUpdateCounts().length);
+        assertEquals(10, result.getParameterObjects().size());
+        assertEquals(1, result.getBatchCount());
+        assertTrue(result.getElapsedNanos() > 0);
+      }
+      List<Author> authors = executor.query(selectStatement, 509, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals("bio9", authors.get(0).getBio());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldExecuteAllPendingBatchesWhenMaxRowsIsReached() throws Exception {
+    config.setBatchMaxRows(3);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      MappedStatement deleteStatement = ExecutorTestHelper.prepareDeleteAuthorMappedStatement(config);
+      for (int i = 0; i < 7; i++) {
+        Author author = new Author(600 + i, "someone" + i, "******", "someone@apache.org", null, Section.NEWS);
+        executor.update(insertStatement, author);
+        if (i % 2 == 0) {
+          executor.update(deleteStatement, author);
+        }
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals(3, results.get(0).getBatchCount());
+      assertEquals(7, results.get(0).getUpdateCounts().length);
+      assertEquals(1, results.get(0).getParameterObjects().size());
+      assertEquals(3, results.get(1).getBatchCount());
+      assertEquals(4, results.get(1).getUpdateCounts().length);
+      for (int updateCount : results.get(1).getUpdateCounts()) {
+        assertEquals(1, updateCount);
+      }
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldExecuteAllPendingBatchesWhenMaxBytesIsReached() throws Exception {
+    config.setBatchMaxBytes(200);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement insertStatement = ExecutorTestHelper.prepareInsertAuthorMappedStatement(config);
+      for (int i = 0; i < 4; i++) {
+        // about 100 bytes each
+        executor.update(insertStatement, new Author(700 + i, "someone" + i, "******", "someone@apache.org", null, Section.NEWS));
+      }
+      List<BatchResult> results = executor.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(2, results.get(0).getBatchCount());
+      assertEquals(4, results.get(0).getUpdateCounts().length);
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
+  @Test
+  public void shouldBeCreatedForBatchSessionsWhenEnabled() {
+    config.setCacheEnabled(false);
+    assertEquals(BatchExecutor.class, config.newExecutor(new JdbcTransaction(ds, null, false), ExecutorType.BATCH).getClass());
+    config.setMultiStatementBatch(true);
+    assertTrue(config.newExecutor(new JdbcTransaction(ds, null, false), ExecutorType.BATCH) instanceof MultiStatementBatchExecutor);
+  }
+
+  @Override
+  protected Executor createExecutor(Transaction transaction) {
+    return new MultiStatementBatchExecutor(config, transaction);
+  }
+}
@@ -15,7 +15,15 @@
  */
 package org.apache.ibatis.executor;
 
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.Test;
 
 public class ReuseExecutorTest extends BaseExecutorTest {
@@ -30,6 +38,26 @@ public class ReuseExecutorTest extends BaseExecutorTest {
     super.shouldFetchPostWithBlogWithCompositeKey();
   }
 
+  @Test
+  public void shouldCloseLeastRecentlyUsedStatementsBeyondMaximum() throws Exception {
+    config.setReuseExecutorMaxStatements(1);
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement selectOne = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      MappedStatement selectAll = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      for (int i = 0; i < 3; i++) {
+        List<Author> author = executor.query(selectOne, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        assertEquals(1, author.size());
+        List<Author> authors = executor.query(selectAll, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        assertEquals(2, authors.size());
+        executor.clearLocalCache();
+      }
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
   @Override
   protected Executor createExecutor(Transaction transaction) {
     return new ReuseExecutor(config,transaction);
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SqlTablesTest {
+
+  @Test
+  public void shouldFindTheTablesOfASelect() {
+    assertEquals(tables("author"), SqlTables.read("select * from author where id = ?"));
+    assertEquals(tables("blog", "author", "post"), SqlTables.read(
+        "SELECT b.id FROM Blog b JOIN author a ON a.id = b.author_id LEFT OUTER JOIN blog.POST AS p ON p.blog_id = b.id"));
+    assertEquals(tables("blog", "author"), SqlTables.read("select * from blog b, author as a, \"BLOG\" where b.author_id = a.id"));
+    assertEquals(tables("post", "comment"), SqlTables.read(
+        "select * from (select * from post) p where exists (select 1 from comment c where c.post_id = p.id)"));
+  }
+
+  @Test
+  public void shouldIgnoreLiteralsAndComments() {
+    assertEquals(tables("author"), SqlTables.read(
+        "select 'from blog' /* from post */ from author -- join comment\n where username = 'x from y'"));
+  }
+
+  @Test
+  public void shouldFindTheTablesWrittenByAStatement() {
+    assertEquals(tables("author"), SqlTables.written("insert into author (id, username) values (?, ?)"));
+    assertEquals(tables("author"), SqlTables.written("UPDATE author SET username = ? WHERE id = ?"));
+    assertEquals(tables("author"), SqlTables.written("delete from author where id = ?"));
+    assertEquals(tables("author"), SqlTables.written("delete author where id = ?"));
+    assertEquals(tables("author"), SqlTables.written("merge into author a using (values (?)) v on a.id = v.id"));
+    assertEquals(tables("author"), SqlTables.written("truncate table author"));
+    assertEquals(tables("author", "blog"), SqlTables.written("update author a join blog b on b.author_id = a.id set a.bio = b.title"));
+    assertEquals(tables("author", "blog"), SqlTables.written("insert into author select * from blog"));
+    assertEquals(tables("author", "blog"), SqlTables.written("update author set bio = ?; update blog set title = ?"));
+    assertEquals(tables("author"), SqlTables.written(
+        "insert into author (id) values (?) on duplicate key update username = values(username)"));
+  }
+
+  @Test
+  public void shouldFindNoTablesInAProcedureCall() {
+    assertTrue(SqlTables.written("{call update_author(?)}").isEmpty());
+  }
+
+  private static Set<String> tables(String... names) {
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+}
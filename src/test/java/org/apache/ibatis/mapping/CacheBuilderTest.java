@@ -18,6 +18,9 @@ package org.apache.ibatis.mapping;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -43,6 +46,18 @@ public class CacheBuilderTest {
       .hasMessage("Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
+  @Test
+  public void testConcurrentCacheIsNotSynchronized() throws Exception {
+    Cache cache = new CacheBuilder("test").implementation(ConcurrentCache.class).addDecorator(LruCache.class).size(10).build();
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    ConcurrentCache concurrentCache = unwrap(cache);
+    for (int i = 0; i < 20; i++) {
+      concurrentCache.putObject(i, i);
+    }
+    Assertions.assertThat(concurrentCache.getSize()).isEqualTo(10);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T unwrap(Cache cache){
     Field field;
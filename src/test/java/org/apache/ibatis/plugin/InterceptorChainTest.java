@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class InterceptorChainTest {
+
+  @Test
+  public void shouldCallInterceptorsInTheSameOrderAsNestedPlugins() {
+    List<String> nestedCalls = new ArrayList<String>();
+    Map<String, String> nested = newMap(newChain(false, nestedCalls));
+    List<String> fusedCalls = new ArrayList<String>();
+    Map<String, String> fused = newMap(newChain(true, fusedCalls));
+
+    assertEquals("value-a-b", nested.get("key"));
+    assertEquals("value-a-b", fused.get("key"));
+    assertEquals(Arrays.asList("a", "b"), nestedCalls);
+    assertEquals(nestedCalls, fusedCalls);
+  }
+
+  @Test
+  public void shouldWrapEachTargetInOneProxy() {
+    Map<String, String> fused = newMap(newChain(true, new ArrayList<String>()));
+    assertTrue(Proxy.isProxyClass(fused.getClass()));
+    assertTrue(Proxy.getInvocationHandler(fused) instanceof FusedPlugin);
+    // not intercepted
+    assertEquals(1, fused.size());
+  }
+
+  @Test
+  public void shouldNotWrapTargetsThatNoInterceptorIntercepts() {
+    InterceptorChain chain = newChain(true, new ArrayList<String>());
+    List<String> list = new ArrayList<String>();
+    assertSame(list, chain.pluginAll(list));
+  }
+
+  @Test
+  public void shouldThrowExceptionOfInnerInterceptor() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.setFused(true);
+    chain.addInterceptor(new FailingInterceptor());
+    chain.addInterceptor(new SuffixInterceptor("a", new ArrayList<String>()));
+    Map<String, String> fused = newMap(chain);
+    try {
+      fused.get("key");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("failed", e.getMessage());
+    }
+  }
+
+  private static InterceptorChain newChain(boolean fused, List<String> calls) {
+    InterceptorChain chain = new InterceptorChain();
+    chain.setFused(fused);
+    chain.addInterceptor(new SuffixInterceptor("a", calls));
+    chain.addInterceptor(new SuffixInterceptor("b", calls));
+    return chain;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> newMap(InterceptorChain chain) {
+    Map<String, String> map = new HashMap<String, String>();
+    map.put("key", "value");
+    return (Map<String, String>) chain.pluginAll(map);
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class SuffixInterceptor implements Interceptor {
+
+    private final String suffix;
+    private final List<String> calls;
+
+    public SuffixInterceptor(String suffix, List<String> calls) {
+      this.suffix = suffix;
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      // the last added interceptor is called first and appends last
+      calls.add(0, suffix);
+      return invocation.proceed() + "-" + suffix;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class FailingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      throw new IllegalStateException("failed");
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
+
+}
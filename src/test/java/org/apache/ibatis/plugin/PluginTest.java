@@ -17,9 +17,13 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -39,6 +43,53 @@ public class PluginTest {
     assertFalse("Always".equals(map.toString()));
   }
 
+  @Test
+  public void shouldNotWrapTargetWithoutInterceptedInterface() {
+    List list = new ArrayList();
+    assertSame(list, new AlwaysMapPlugin().plugin(list));
+  }
+
+  @Test
+  public void shouldReuseProxyClassAcrossWraps() {
+    Map first = (Map) new AlwaysMapPlugin().plugin(new HashMap());
+    Map second = (Map) new AlwaysMapPlugin().plugin(new HashMap());
+    assertNotSame(first, second);
+    assertSame(first.getClass(), second.getClass());
+    assertEquals("Always", second.get("Anything"));
+  }
+
+  @Test
+  public void shouldReuseProxyClassOfTheChain() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new AlwaysMapPlugin());
+    Map first = (Map) chain.pluginAll(new HashMap());
+    Map second = (Map) chain.pluginAll(new HashMap());
+    assertNotSame(first, second);
+    assertSame(first.getClass(), second.getClass());
+    assertEquals("Always", second.get("Anything"));
+  }
+
+  @Test(expected = PluginException.class)
+  public void shouldRequireInterceptsAnnotation() {
+    Plugin.wrap(new HashMap(), new NotAnnotatedPlugin());
+  }
+
+  public static class NotAnnotatedPlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
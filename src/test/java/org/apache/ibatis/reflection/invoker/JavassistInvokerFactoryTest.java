@@ -0,0 +1,220 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.JavassistReflectorFactory;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.junit.Test;
+
+public class JavassistInvokerFactoryTest {
+
+  private final InvokerFactory invokerFactory = new JavassistInvokerFactory();
+
+  @Test
+  public void shouldGenerateInvokersForPublicAccessors() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, invokerFactory);
+    Bean bean = new Bean();
+
+    reflector.getSetInvoker("id").invoke(bean, new Object[] { 10 });
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "mybatis" });
+    reflector.getSetInvoker("active").invoke(bean, new Object[] { true });
+    reflector.getSetInvoker("tags").invoke(bean, new Object[] { new String[] { "a", "b" } });
+    reflector.getSetInvoker("score").invoke(bean, new Object[] { 1.5d });
+    reflector.getSetInvoker("counter").invoke(bean, new Object[] { 3L });
+
+    assertEquals(10, reflector.getGetInvoker("id").invoke(bean, null));
+    assertEquals("mybatis", reflector.getGetInvoker("name").invoke(bean, null));
+    assertEquals(true, reflector.getGetInvoker("active").invoke(bean, null));
+    assertArrayEquals(new String[] { "a", "b" }, (String[]) reflector.getGetInvoker("tags").invoke(bean, null));
+    assertEquals(1.5d, reflector.getGetInvoker("score").invoke(bean, null));
+    assertEquals(3L, reflector.getGetInvoker("counter").invoke(bean, null));
+
+    for (String property : new String[] { "id", "name", "active", "tags", "score", "counter" }) {
+      assertFalse(property, reflector.getGetInvoker(property) instanceof MethodInvoker
+          || reflector.getGetInvoker(property) instanceof GetFieldInvoker);
+      assertFalse(property, reflector.getSetInvoker(property) instanceof MethodInvoker
+          || reflector.getSetInvoker(property) instanceof SetFieldInvoker);
+    }
+    assertEquals(int.class, reflector.getGetInvoker("id").getType());
+    assertEquals(String[].class, reflector.getSetInvoker("tags").getType());
+    assertEquals(long.class, reflector.getSetInvoker("counter").getType());
+  }
+
+  @Test
+  public void shouldSetNullToReferenceTypes() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, invokerFactory);
+    Bean bean = new Bean();
+    bean.setName("mybatis");
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { null });
+    assertNull(bean.getName());
+  }
+
+  @Test
+  public void shouldNotNarrowPrimitiveArguments() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, invokerFactory);
+    Bean bean = new Bean();
+    try {
+      reflector.getSetInvoker("id").invoke(bean, new Object[] { 10L });
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("argument type mismatch", e.getMessage());
+    }
+    try {
+      reflector.getSetInvoker("counter").invoke(bean, new Object[] { 1.5d });
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("argument type mismatch", e.getMessage());
+    }
+  }
+
+  @Test
+  public void shouldWrapExceptionsThrownByAccessors() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, invokerFactory);
+    try {
+      reflector.getGetInvoker("broken").invoke(new Bean(), null);
+      fail();
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof UnsupportedOperationException);
+    }
+  }
+
+  @Test
+  public void shouldFallBackToReflectionForInaccessibleMembers() throws Exception {
+    Reflector reflector = new Reflector(PackagePrivateBean.class, invokerFactory);
+    assertTrue(reflector.getGetInvoker("value") instanceof MethodInvoker);
+    assertTrue(reflector.getSetInvoker("value") instanceof MethodInvoker);
+
+    reflector = new Reflector(Bean.class, invokerFactory);
+    assertTrue(reflector.getGetInvoker("hidden") instanceof GetFieldInvoker);
+    assertTrue(reflector.getSetInvoker("hidden") instanceof SetFieldInvoker);
+    assertTrue(reflector.getSetInvoker("constant") instanceof SetFieldInvoker);
+  }
+
+  @Test
+  public void shouldBeUsedByMetaObject() throws Exception {
+    JavassistReflectorFactory reflectorFactory = new JavassistReflectorFactory();
+    Bean bean = new Bean();
+    MetaObject metaObject = MetaObject.forObject(bean, new DefaultObjectFactory(), new DefaultObjectWrapperFactory(), reflectorFactory);
+    metaObject.setValue("id", 5);
+    metaObject.setValue("child.name", "child");
+    assertEquals(5, bean.getId());
+    assertEquals("child", bean.getChild().getName());
+    assertEquals("child", metaObject.getValue("child.name"));
+    assertTrue(reflectorFactory.getInvokerFactory() instanceof JavassistInvokerFactory);
+  }
+
+  @Test
+  public void shouldResolveGenericTypesOfGeneratedGetters() throws Exception {
+    MetaClass metaClass = MetaClass.forClass(Bean.class, new JavassistReflectorFactory());
+    assertTrue(metaClass.getGetInvoker("labels") instanceof GeneratedInvoker);
+    assertEquals(String.class, metaClass.getGetterType("labels[0]"));
+  }
+
+  public static class Bean {
+    private int id;
+    private String name;
+    private boolean active;
+    private String[] tags;
+    private double score;
+    private Bean child;
+    private List<String> hidden;
+    private List<String> labels;
+    public final String constant = "constant";
+    public long counter;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public String[] getTags() {
+      return tags;
+    }
+
+    public void setTags(String[] tags) {
+      this.tags = tags;
+    }
+
+    public double getScore() {
+      return score;
+    }
+
+    public void setScore(double score) {
+      this.score = score;
+    }
+
+    public Bean getChild() {
+      return child;
+    }
+
+    public void setChild(Bean child) {
+      this.child = child;
+    }
+
+    public List<String> getLabels() {
+      return labels;
+    }
+
+    public void setLabels(List<String> labels) {
+      this.labels = labels;
+    }
+
+    public String getBroken() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  static class PackagePrivateBean {
+    private String value;
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+
+}
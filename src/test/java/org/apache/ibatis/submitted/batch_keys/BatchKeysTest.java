@@ -25,10 +25,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Assert;
 
+import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.jdbc.ScriptRunner;
 import org.apache.ibatis.session.ExecutorType;
@@ -141,6 +143,36 @@ public class BatchKeysTest {
     }
   }
 
+  @Test
+  public void testInsertJdbc3WithMultiRowInserts() throws Exception {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(2);
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      List<User> users = new ArrayList<User>();
+      for (int i = 0; i < 5; i++) {
+        User user = new User(null, "User" + i);
+        sqlSession.insert("insertIdentity", user);
+        users.add(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.get(0).getBatchCount());
+      for (int i = 0; i < 5; i++) {
+        assertEquals(Integer.valueOf(i), users.get(i).getId());
+      }
+      sqlSession.commit();
+    } finally {
+      sqlSession.close();
+    }
+
+    try {
+      sqlSession = sqlSessionFactory.openSession();
+      List<User> users = sqlSession.selectList("selectIdentity");
+      Assert.assertTrue(users.size() == 5);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
   @Test
   public void testInsertWithMapper() throws Exception {
     SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
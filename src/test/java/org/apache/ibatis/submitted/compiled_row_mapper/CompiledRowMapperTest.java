@@ -0,0 +1,141 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledRowMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    conn.close();
+    reader.close();
+    session.close();
+  }
+
+  @After
+  public void resetSettings() {
+    sqlSessionFactory.getConfiguration().setUseCompiledRowMappers(true);
+  }
+
+  @Test
+  public void shouldMapAutomappedColumns() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersAutomapped();
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(1), users.get(0).getId());
+      assertEquals("User1", users.get(0).getName());
+      assertEquals(31, users.get(0).getAge());
+      assertNotNull(users.get(0).getBirthDate());
+      assertEquals("User2", users.get(1).getName());
+      assertEquals(0, users.get(1).getAge());
+      assertNull(users.get(1).getBirthDate());
+      assertNull(users.get(2).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldMapExplicitAndAutomappedColumns() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersWithResultMap();
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(2), users.get(1).getId());
+      assertEquals("User2", users.get(1).getNickname());
+      assertNull(users.get(1).getName());
+      assertEquals(12, users.get(2).getAge());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldProduceTheSameResultsAsTheReflectivePath() {
+    List<User> compiled;
+    List<User> reflective;
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      compiled = sqlSession.getMapper(Mapper.class).getUsersAutomapped();
+      sqlSession.getConfiguration().setUseCompiledRowMappers(false);
+      sqlSession.clearCache();
+      reflective = sqlSession.getMapper(Mapper.class).getUsersAutomapped();
+    } finally {
+      sqlSession.close();
+    }
+    assertEquals(reflective.size(), compiled.size());
+    for (int i = 0; i < compiled.size(); i++) {
+      assertEquals(reflective.get(i).getId(), compiled.get(i).getId());
+      assertEquals(reflective.get(i).getName(), compiled.get(i).getName());
+      assertEquals(reflective.get(i).getAge(), compiled.get(i).getAge());
+      assertEquals(reflective.get(i).getBirthDate(), compiled.get(i).getBirthDate());
+    }
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyRow() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      assertNull(sqlSession.getMapper(Mapper.class).getEmptyUser());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldFallBackToMetaObjectForMaps() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Map<String, Object> user = sqlSession.getMapper(Mapper.class).getUserAsMap(1);
+      assertEquals("User1", user.get("NAME"));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,29 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table users if exists;
+
+create table users (
+  id int,
+  name varchar(20),
+  age int,
+  birth_date date
+);
+
+insert into users (id, name, age, birth_date) values
+(1, 'User1', 31, '1985-04-12'),
+(2, 'User2', null, null),
+(3, null, 12, '2014-01-30');
@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Select("select id, name, age, birth_date from users order by id")
+  List<User> getUsersAutomapped();
+
+  @Results({
+      @Result(property = "id", column = "user_id", id = true),
+      @Result(property = "nickname", column = "user_name")
+  })
+  @Select("select id user_id, name user_name, age from users order by id")
+  List<User> getUsersWithResultMap();
+
+  @Select("select null id, null name from (values(0))")
+  User getEmptyUser();
+
+  @Select("select id, name from users where id = #{id}")
+  Map<String, Object> getUserAsMap(Integer id);
+
+}
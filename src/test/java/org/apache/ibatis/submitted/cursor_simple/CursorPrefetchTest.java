@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Iterator;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CursorPrefetchTest {
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml");
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+        reader.close();
+        sqlSessionFactory.getConfiguration().setCursorPrefetchSize(2);
+
+        SqlSession session = sqlSessionFactory.openSession();
+        Connection conn = session.getConnection();
+        reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+        ScriptRunner runner = new ScriptRunner(conn);
+        runner.setLogWriter(null);
+        runner.runScript(reader);
+        conn.close();
+        reader.close();
+        session.close();
+    }
+
+    @Test
+    public void shouldMapRowsInBackground() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        try {
+            Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getAllUsers();
+            Assert.assertTrue(usersCursor instanceof PrefetchingCursor);
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertEquals(-1, usersCursor.getCurrentIndex());
+
+            Iterator<User> iterator = usersCursor.iterator();
+            for (int i = 1; i <= 5; i++) {
+                Assert.assertTrue(iterator.hasNext());
+                Assert.assertTrue(usersCursor.isOpen());
+                Assert.assertEquals("User" + i, iterator.next().getName());
+                Assert.assertEquals(i - 1, usersCursor.getCurrentIndex());
+            }
+
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertTrue(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void shouldApplyRowBounds() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        try {
+            Cursor<User> usersCursor = sqlSession.selectCursor("getAllUsers", null, new RowBounds(1, 3));
+            Iterator<User> iterator = usersCursor.iterator();
+            Assert.assertEquals("User2", iterator.next().getName());
+            Assert.assertEquals(1, usersCursor.getCurrentIndex());
+            Assert.assertEquals("User3", iterator.next().getName());
+            Assert.assertEquals("User4", iterator.next().getName());
+            Assert.assertEquals(3, usersCursor.getCurrentIndex());
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertTrue(usersCursor.isConsumed());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void shouldStopBackgroundMappingOnClose() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getAllUsers();
+        try {
+            Iterator<User> iterator = usersCursor.iterator();
+            Assert.assertEquals("User1", iterator.next().getName());
+            Assert.assertTrue(usersCursor.isOpen());
+        } finally {
+            // the queue is full, the background thread waits for room
+            sqlSession.close();
+        }
+        Assert.assertFalse(usersCursor.isOpen());
+        Assert.assertFalse(usersCursor.isConsumed());
+    }
+
+}
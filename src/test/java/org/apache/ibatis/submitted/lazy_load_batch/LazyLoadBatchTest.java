@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.lazy_load_batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyLoadBatchTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private StatementCounter counter;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/lazy_load_batch/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+    counter = new StatementCounter();
+    sqlSessionFactory.getConfiguration().addInterceptor(counter);
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/lazy_load_batch/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    conn.close();
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadTheAssociationsOfAllRowsWithOneQuery() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      assertEquals(1, counter.statements.size());
+      assertEquals("Author1", posts.get(0).getAuthor().getName());
+      assertEquals(2, counter.statements.size());
+      assertTrue(counter.statements.get(1).contains("id IN (?, ?, ?)"));
+      assertEquals("Author1", posts.get(1).getAuthor().getName());
+      assertEquals("Author2", posts.get(2).getAuthor().getName());
+      assertEquals("Author3", posts.get(3).getAuthor().getName());
+      assertSame(posts.get(0).getAuthor(), posts.get(1).getAuthor());
+      assertEquals(2, counter.statements.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadTheCollectionsOfAllRowsWithOneQuery() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Author> authors = sqlSession.getMapper(Mapper.class).getAuthors();
+      assertEquals(2, authors.get(1).getPosts().size());
+      assertEquals(2, counter.statements.size());
+      assertEquals("Post3", authors.get(1).getPosts().get(0).getTitle());
+      assertEquals(2, authors.get(0).getPosts().size());
+      assertEquals("Post2", authors.get(0).getPosts().get(1).getTitle());
+      assertEquals(1, authors.get(2).getPosts().size());
+      assertEquals(0, authors.get(3).getPosts().size());
+      assertEquals(2, counter.statements.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadInChunksOfTheBatchSize() {
+    sqlSessionFactory.getConfiguration().setLazyLoadBatchSize(2);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Author> authors = sqlSession.getMapper(Mapper.class).getAuthors();
+      assertEquals(2, authors.get(0).getPosts().size());
+      assertEquals(1, authors.get(1).getPosts().size());
+      assertEquals(2, counter.statements.size());
+      assertEquals(1, authors.get(2).getPosts().size());
+      assertEquals(0, authors.get(3).getPosts().size());
+      assertEquals(3, counter.statements.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldKeepAValueSetBeforeTheBatchIsLoaded() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      Author author = new Author();
+      posts.get(3).setAuthor(author);
+      assertEquals("Author1", posts.get(0).getAuthor().getName());
+      assertTrue(counter.statements.get(1).contains("id IN (?, ?)"));
+      assertSame(author, posts.get(3).getAuthor());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldKeepAValueSetAfterTheBatchIsLoaded() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      assertEquals("Author1", posts.get(0).getAuthor().getName());
+      Author author = new Author();
+      posts.get(3).setAuthor(author);
+      assertSame(author, posts.get(3).getAuthor());
+      assertEquals("Author2", posts.get(2).getAuthor().getName());
+      assertEquals(2, counter.statements.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadEachPropertyWithoutBatchSize() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setLazyLoadBatchSize(0);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      assertEquals("Author1", posts.get(0).getAuthor().getName());
+      assertEquals("Author2", posts.get(2).getAuthor().getName());
+      assertEquals(3, counter.statements.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
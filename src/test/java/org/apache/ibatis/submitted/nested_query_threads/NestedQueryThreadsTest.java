@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.nested_query_threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NestedQueryThreadsTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private ThreadRecorder recorder;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/nested_query_threads/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+    recorder = new ThreadRecorder();
+    sqlSessionFactory.getConfiguration().addInterceptor(recorder);
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/nested_query_threads/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    conn.close();
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadTheAssociationsOnTheNestedQueryThreads() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(true);
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      assertEquals("Author1", posts.get(0).getAuthor().getName());
+      assertEquals("Author1", posts.get(1).getAuthor().getName());
+      assertEquals("Author2", posts.get(2).getAuthor().getName());
+      assertEquals("Author3", posts.get(3).getAuthor().getName());
+      assertSame(posts.get(0).getAuthor(), posts.get(1).getAuthor());
+      assertEquals(3, recorder.nestedSelectThreads.size());
+      for (String thread : recorder.nestedSelectThreads) {
+        assertTrue(thread.startsWith("mybatis-nested-query-"));
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadTheCollectionsOnTheNestedQueryThreads() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(true);
+    try {
+      List<Author> authors = sqlSession.getMapper(Mapper.class).getAuthors();
+      assertEquals(2, authors.get(0).getPosts().size());
+      assertEquals("Post2", authors.get(0).getPosts().get(1).getTitle());
+      assertEquals(1, authors.get(1).getPosts().size());
+      assertEquals(1, authors.get(2).getPosts().size());
+      assertEquals(0, authors.get(3).getPosts().size());
+      assertEquals(4, recorder.nestedSelectThreads.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadOnTheMappingThreadWithoutAutoCommit() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Post post = new Post();
+      post.setId(5);
+      post.setAuthorId(4);
+      post.setTitle("Post5");
+      mapper.insertPost(post);
+      List<Author> authors = mapper.getAuthors();
+      assertEquals(1, authors.get(3).getPosts().size());
+      assertEquals("Post5", authors.get(3).getPosts().get(0).getTitle());
+      assertEquals(4, recorder.nestedSelectThreads.size());
+      for (String thread : recorder.nestedSelectThreads) {
+        assertEquals(Thread.currentThread().getName(), thread);
+      }
+    } finally {
+      sqlSession.rollback();
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadOnTheMappingThreadWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setNestedQueryThreads(0);
+    SqlSession sqlSession = sqlSessionFactory.openSession(true);
+    try {
+      List<Post> posts = sqlSession.getMapper(Mapper.class).getPosts();
+      assertEquals("Author3", posts.get(3).getAuthor().getName());
+      assertSame(posts.get(0).getAuthor(), posts.get(1).getAuthor());
+      assertEquals(3, recorder.nestedSelectThreads.size());
+      for (String thread : recorder.nestedSelectThreads) {
+        assertEquals(Thread.currentThread().getName(), thread);
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldFailWhenThePoolCannotServeTheThreads() {
+    PooledDataSource dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:nestedquerythreads", "sa", "");
+    dataSource.setPoolMaximumActiveConnections(4);
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setEnvironment(new Environment("pooled", new JdbcTransactionFactory(), dataSource));
+    SqlSession sqlSession = sqlSessionFactory.openSession(true);
+    try {
+      sqlSession.getMapper(Mapper.class).getPosts();
+      fail();
+    } catch (PersistenceException e) {
+      assertTrue(e.getMessage().contains("poolMaximumActiveConnections is 4"));
+    } finally {
+      sqlSession.close();
+      dataSource.forceCloseAll();
+    }
+  }
+
+}